@@ -0,0 +1,88 @@
+package com.flrxnt.gateway.cache;
+
+import com.flrxnt.gateway.cache.CachedResponse.Freshness;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Interprétation des directives Cache-Control d'une réponse amont pour un cache partagé.
+ */
+public final class CacheDirectives {
+
+    private CacheDirectives() {
+    }
+
+    /**
+     * Durées de vie d'une réponse amont, les directives amont primant sur les valeurs de la route.
+     *
+     * @return vide si la réponse ne doit pas être conservée (no-store, private, Set-Cookie, Vary: *)
+     */
+    public static Optional<Freshness> freshness(HttpHeaders headers, Freshness defaults) {
+        Map<String, String> directives = parse(headers.getCacheControl());
+        if (directives.containsKey("no-store") || directives.containsKey("private")
+                || headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getVary().contains("*")) {
+            return Optional.empty();
+        }
+
+        Duration ttl = seconds(directives.get("s-maxage"))
+                .or(() -> seconds(directives.get("max-age")))
+                .orElse(defaults.ttl());
+        Duration staleWhileRevalidate = seconds(directives.get("stale-while-revalidate"))
+                .orElse(defaults.staleWhileRevalidate());
+        Duration staleIfError = seconds(directives.get("stale-if-error"))
+                .orElse(defaults.staleIfError());
+
+        // no-cache : revalidation obligatoire avant chaque usage
+        if (directives.containsKey("no-cache")) {
+            ttl = Duration.ZERO;
+            staleWhileRevalidate = Duration.ZERO;
+        }
+        // must-revalidate / proxy-revalidate : jamais de copie périmée
+        if (directives.containsKey("must-revalidate") || directives.containsKey("proxy-revalidate")) {
+            staleWhileRevalidate = Duration.ZERO;
+            staleIfError = Duration.ZERO;
+        }
+        return Optional.of(new Freshness(ttl, staleWhileRevalidate, staleIfError));
+    }
+
+    /**
+     * Indique si la requête du client exclut l'usage d'une copie sans revalidation.
+     */
+    public static boolean requiresRevalidation(HttpHeaders requestHeaders) {
+        Map<String, String> directives = parse(requestHeaders.getCacheControl());
+        return directives.containsKey("no-cache") || directives.containsKey("no-store")
+                || "0".equals(directives.get("max-age"))
+                || "no-cache".equalsIgnoreCase(requestHeaders.getPragma());
+    }
+
+    private static Map<String, String> parse(String cacheControl) {
+        Map<String, String> directives = new HashMap<>();
+        if (cacheControl == null) {
+            return directives;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String[] parts = directive.trim().split("=", 2);
+            if (!parts[0].isEmpty()) {
+                String value = parts.length > 1 ? parts[1].trim().replace("\"", "") : "";
+                directives.put(parts[0].trim().toLowerCase(Locale.ROOT), value);
+            }
+        }
+        return directives;
+    }
+
+    private static Optional<Duration> seconds(String value) {
+        if (value == null || value.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.flrxnt.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Réponse amont conservée par le cache, avec ses échéances exprimées en {@link System#nanoTime()}.
+ *
+ * @param headers en-têtes de la réponse, sans les en-têtes de connexion ni Content-Length
+ */
+public record CachedResponse(String routeId,
+                             HttpStatusCode status,
+                             HttpHeaders headers,
+                             byte[] body,
+                             long storedAt,
+                             long freshUntil,
+                             long staleWhileRevalidateUntil,
+                             long staleIfErrorUntil) {
+
+    // En-têtes propres à la connexion amont ou au client, jamais rejoués depuis le cache
+    private static final Set<String> HOP_BY_HOP = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authenticate", "proxy-authorization", "content-length", "set-cookie");
+
+    /**
+     * Crée une entrée à partir d'une réponse amont et de ses durées de vie.
+     */
+    public static CachedResponse of(String routeId, HttpStatusCode status, HttpHeaders headers, byte[] body,
+                                    Freshness freshness, long now) {
+        HttpHeaders stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase())) {
+                stored.addAll(name, values);
+            }
+        });
+        return new CachedResponse(routeId, status, HttpHeaders.readOnlyHttpHeaders(stored), body,
+                now, 0, 0, 0).withFreshness(freshness, now);
+    }
+
+    /**
+     * Même réponse, confirmée à jour par le service amont (304) : ses durées de vie repartent.
+     */
+    public CachedResponse withFreshness(Freshness freshness, long now) {
+        long fresh = now + freshness.ttl().toNanos();
+        return new CachedResponse(routeId, status, headers, body, now, fresh,
+                fresh + freshness.staleWhileRevalidate().toNanos(),
+                fresh + freshness.staleIfError().toNanos());
+    }
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    public boolean isFresh(long now) {
+        return now - freshUntil < 0;
+    }
+
+    public boolean isStaleWhileRevalidate(long now) {
+        return now - staleWhileRevalidateUntil < 0;
+    }
+
+    public boolean isStaleIfError(long now) {
+        return now - staleIfErrorUntil < 0;
+    }
+
+    /**
+     * Âge de la copie, pour l'en-tête Age.
+     */
+    public Duration age(long now) {
+        return Duration.ofNanos(now - storedAt);
+    }
+
+    /**
+     * Taille approximative de l'entrée (corps et en-têtes), pour la borne en octets du cache.
+     */
+    public long weight() {
+        long weight = body.length;
+        for (var header : headers.entrySet()) {
+            weight += header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += value.length();
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Durées de vie d'une réponse : fraîcheur, puis périodes de service périmé.
+     */
+    public record Freshness(Duration ttl, Duration staleWhileRevalidate, Duration staleIfError) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.flrxnt.gateway.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stockage borné des réponses mises en cache par le Gateway.
+ *
+ * Éviction LRU dès que le nombre d'entrées ou leur taille totale dépasse sa borne.
+ * Les sections critiques se limitent à des opérations sur la table (aucune E/S) :
+ * un verrou unique suffit au débit du Gateway.
+ */
+public class ResponseCache {
+
+    private final long maxEntries;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private long evictions;
+
+    public ResponseCache(long maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized CachedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Conserve une réponse ; les entrées les moins récemment utilisées sont évincées au-delà des bornes.
+     */
+    public synchronized void put(String key, CachedResponse response) {
+        long weight = response.weight();
+        if (weight > maxBytes) {
+            return;
+        }
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            bytes -= previous.weight();
+        }
+        bytes += weight;
+
+        Iterator<CachedResponse> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            CachedResponse evicted = eldest.next();
+            eldest.remove();
+            bytes -= evicted.weight();
+            evictions++;
+        }
+    }
+
+    /**
+     * Supprime toutes les réponses d'une route (écriture passée par le Gateway sur cette route).
+     */
+    public synchronized void invalidateRoute(String routeId) {
+        Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            CachedResponse response = it.next().getValue();
+            if (response.routeId().equals(routeId)) {
+                it.remove();
+                bytes -= response.weight();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
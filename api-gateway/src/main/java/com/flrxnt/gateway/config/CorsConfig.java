@@ -30,12 +30,12 @@ public class CorsConfig {
         // Headers autorisés
         corsConfig.setAllowedHeaders(Arrays.asList(
                 "authorization", "content-type", "x-auth-token",
-                "x-gateway", "x-request-time"
+                "x-gateway", "x-request-time", "x-client-id"
         ));
 
         // Exposer certains headers au client
         corsConfig.setExposedHeaders(Arrays.asList(
-                "x-auth-token", "x-total-count", "x-gateway"
+                "x-auth-token", "x-total-count", "x-gateway", "retry-after"
         ));
 
         // Autoriser les credentials
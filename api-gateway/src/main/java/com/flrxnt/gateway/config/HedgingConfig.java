@@ -0,0 +1,12 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active les propriétés des requêtes de couverture du Gateway.
+ */
+@Configuration
+@EnableConfigurationProperties(HedgingProperties.class)
+public class HedgingConfig {
+}
@@ -0,0 +1,112 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Propriétés des requêtes de couverture (hedging) des routes GET du Gateway.
+ *
+ * Pour chaque route listée sous {@code routes} (par ID de route, routes {@code lb://} uniquement),
+ * une requête GET restée sans réponse au-delà du percentile observé de la latence amont est
+ * envoyée une seconde fois à une autre instance ; la première réponse est retenue.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   gateway:
+ *     hedging:
+ *       routes:
+ *         product-service:
+ *           percentile: 0.95
+ *           budget-ratio: 0.1
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Route> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Couverture d'une route.
+     */
+    public static class Route {
+
+        // Percentile de la latence amont au-delà duquel la requête de couverture part
+        private double percentile = 0.95;
+
+        // Délai minimal avant la requête de couverture
+        private Duration minDelay = Duration.ofMillis(20);
+
+        // Appels mesurés avant toute couverture (percentile non significatif en deçà)
+        private long minSamples = 100;
+
+        // Part du trafic de la route pouvant donner lieu à une requête de couverture
+        private double budgetRatio = 0.1;
+
+        // Chemins jamais couverts (attente longue...), motifs de chemin Spring
+        private List<String> excludedPaths = new ArrayList<>();
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public long getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(long minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public List<String> getExcludedPaths() {
+            return excludedPaths;
+        }
+
+        public void setExcludedPaths(List<String> excludedPaths) {
+            this.excludedPaths = excludedPaths;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.flrxnt.gateway.config;
+
+import com.flrxnt.gateway.ratelimit.TokenBucketStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limitation de débit du Gateway.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public TokenBucketStore tokenBucketStore(RateLimitProperties properties) {
+        return new TokenBucketStore(properties.getMaxBuckets());
+    }
+}
@@ -0,0 +1,130 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propriétés de la limitation de débit du Gateway (seaux à jetons en mémoire).
+ *
+ * Chaque route listée sous {@code routes} (par ID de route) peut limiter le débit total de la
+ * route et le débit de chaque client. Une requête doit obtenir un jeton dans les deux seaux.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   gateway:
+ *     rate-limit:
+ *       routes:
+ *         order-service:
+ *           route:
+ *             rate: 500
+ *             burst: 1000
+ *           client:
+ *             rate: 20
+ *             burst: 40
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // En-tête déclaré par le client, repris dans les logs de refus : il n'identifie pas le client,
+    // dont le seau est celui de l'utilisateur authentifié, à défaut de l'adresse IP de la connexion
+    private String clientHeader = "X-Client-Id";
+
+    // Nombre maximal de seaux conservés en mémoire
+    private int maxBuckets = 100_000;
+
+    private Map<String, Route> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Limites d'une route ; une limite absente n'est pas appliquée.
+     */
+    public static class Route {
+
+        // Débit total de la route, tous clients confondus
+        private Limit route;
+
+        // Débit de chaque client sur la route
+        private Limit client;
+
+        public Limit getRoute() {
+            return route;
+        }
+
+        public void setRoute(Limit route) {
+            this.route = route;
+        }
+
+        public Limit getClient() {
+            return client;
+        }
+
+        public void setClient(Limit client) {
+            this.client = client;
+        }
+    }
+
+    /**
+     * Débit soutenu et rafale admise d'un seau à jetons.
+     */
+    public static class Limit {
+
+        // Requêtes par seconde
+        private double rate;
+
+        // Nombre de requêtes admises d'un coup (capacité du seau)
+        private int burst;
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getBurst() {
+            return burst > 0 ? burst : (int) Math.max(1, Math.ceil(rate));
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active les propriétés de la mesure des requêtes du Gateway.
+ */
+@Configuration
+@EnableConfigurationProperties(RequestMetricsProperties.class)
+public class RequestMetricsConfig {
+}
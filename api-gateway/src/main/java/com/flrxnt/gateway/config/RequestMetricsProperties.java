@@ -0,0 +1,46 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriétés de la mesure des requêtes du Gateway (timer {@code gateway.requests}) et de leur journalisation.
+ */
+@ConfigurationProperties(prefix = "app.gateway.metrics")
+public class RequestMetricsProperties {
+
+    // Percentiles calculés par le Gateway (fenêtre glissante)
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99, 0.999));
+
+    // Publication de l'histogramme, pour agréger les percentiles côté serveur de métriques
+    private boolean percentileHistogram = true;
+
+    // Part des requêtes journalisées (0 : aucune, 1 : toutes)
+    private double logSampleRate = 0.01;
+
+    public List<Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(List<Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    public double getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    public void setLogSampleRate(double logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+}
@@ -0,0 +1,249 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Propriétés de la résilience des routes du Gateway : disjoncteur par route, nouvelles
+ * tentatives bornées par un budget et délai maximal par tentative.
+ *
+ * Chaque route listée sous {@code routes} (par ID de route) reçoit un disjoncteur et, pour les
+ * méthodes idempotentes, des nouvelles tentatives (DELETE seulement si l'amont n'a pas traité la
+ * requête) ; les valeurs non renseignées prennent les valeurs par défaut ci-dessous.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   gateway:
+ *     resilience:
+ *       routes:
+ *         customer-service:
+ *           timeout: 10s
+ *           circuit-breaker:
+ *             failure-rate-threshold: 50
+ *             open-duration: 10s
+ *           retry:
+ *             budget-ratio: 0.2
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.gateway.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Route> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Résilience d'une route.
+     */
+    public static class Route {
+
+        // Délai maximal d'une tentative jusqu'au début de la réponse ; aucun si absent (routes à attente longue)
+        private Duration timeout;
+
+        private Breaker circuitBreaker = new Breaker();
+
+        private Retry retry = new Retry();
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Breaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public void setCircuitBreaker(Breaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        public Retry getRetry() {
+            return retry;
+        }
+
+        public void setRetry(Retry retry) {
+            this.retry = retry;
+        }
+    }
+
+    /**
+     * Disjoncteur d'une route : un échec est une réponse 5xx, une erreur d'appel ou un dépassement de délai.
+     */
+    public static class Breaker {
+
+        // Taux d'échec (en %) ouvrant le disjoncteur
+        private int failureRateThreshold = 50;
+
+        // Nombre d'appels de la fenêtre glissante
+        private int slidingWindowSize = 20;
+
+        // Appels nécessaires avant d'évaluer le taux d'échec
+        private int minimumCalls = 10;
+
+        // Durée d'ouverture avant les appels d'essai
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        // Appels d'essai en semi-ouverture
+        private int halfOpenCalls = 3;
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+
+    /**
+     * Nouvelles tentatives d'une route, limitées aux méthodes idempotentes sans corps
+     * (le corps d'un PUT n'est lisible qu'une fois).
+     */
+    public static class Retry {
+
+        // Tentatives au plus par requête, première comprise (1 : aucune nouvelle tentative)
+        private int maxAttempts = 3;
+
+        // Part du trafic de la route pouvant donner lieu à une nouvelle tentative
+        private double budgetRatio = 0.2;
+
+        // Nouvelles tentatives toujours admises par seconde, pour les routes peu sollicitées
+        private double minRetriesPerSecond = 1;
+
+        // Pause avant une nouvelle tentative
+        private Duration backoff = Duration.ofMillis(50);
+
+        // Méthodes sûres, de nouveau tentées sur un statut ci-dessous ou toute erreur d'appel
+        private Set<String> methods = new HashSet<>(Set.of("GET", "HEAD", "OPTIONS"));
+
+        // Statuts amont donnant lieu à une nouvelle tentative des méthodes sûres (les erreurs d'appel aussi)
+        private Set<Integer> statuses = new HashSet<>(Set.of(502, 503, 504));
+
+        // Méthodes idempotentes mais non sûres, de nouveau tentées seulement si l'amont n'a pas traité
+        // la requête : erreur de connexion ou statut ci-dessous, jamais après un dépassement du délai
+        private Set<String> connectFailureMethods = new HashSet<>(Set.of("DELETE"));
+
+        private Set<Integer> connectFailureStatuses = new HashSet<>(Set.of(502, 503));
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public double getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(double minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+
+        public Duration getBackoff() {
+            return backoff;
+        }
+
+        public void setBackoff(Duration backoff) {
+            this.backoff = backoff;
+        }
+
+        public Set<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(Set<String> methods) {
+            this.methods = methods;
+        }
+
+        public Set<Integer> getStatuses() {
+            return statuses;
+        }
+
+        public void setStatuses(Set<Integer> statuses) {
+            this.statuses = statuses;
+        }
+
+        public Set<String> getConnectFailureMethods() {
+            return connectFailureMethods;
+        }
+
+        public void setConnectFailureMethods(Set<String> connectFailureMethods) {
+            this.connectFailureMethods = connectFailureMethods;
+        }
+
+        public Set<Integer> getConnectFailureStatuses() {
+            return connectFailureStatuses;
+        }
+
+        public void setConnectFailureStatuses(Set<Integer> connectFailureStatuses) {
+            this.connectFailureStatuses = connectFailureStatuses;
+        }
+    }
+}
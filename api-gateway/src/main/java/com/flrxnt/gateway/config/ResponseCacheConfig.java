@@ -0,0 +1,38 @@
+package com.flrxnt.gateway.config;
+
+import com.flrxnt.gateway.cache.ResponseCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Cache de réponses du Gateway et clients HTTP de revalidation en arrière-plan.
+ */
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache responseCache(ResponseCacheProperties properties) {
+        return new ResponseCache(properties.getMaxEntries(), properties.getMaxSize().toBytes());
+    }
+
+    /**
+     * Client des routes {@code lb://} : l'instance est choisie par le load balancer, comme pour le routage.
+     */
+    @Bean
+    public WebClient loadBalancedWebClient(WebClient.Builder builder,
+                                           ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        return builder.clone().filter(loadBalancerFunction).build();
+    }
+
+    /**
+     * Client des routes vers une URL fixe.
+     */
+    @Bean
+    public WebClient directWebClient(WebClient.Builder builder) {
+        return builder.clone().build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Propriétés du cache de réponses du Gateway.
+ *
+ * Seules les routes listées sous {@code routes} (par ID de route) sont mises en cache.
+ * Les directives Cache-Control du service amont priment sur les durées de la route.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   gateway:
+ *     cache:
+ *       routes:
+ *         product-service:
+ *           ttl: 10s
+ *           stale-while-revalidate: 30s
+ *           stale-if-error: 5m
+ *           excluded-paths:
+ *             - /api/products/changes
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // Nombre maximal de réponses conservées, toutes routes confondues
+    private long maxEntries = 10_000;
+
+    // Taille totale maximale des réponses conservées (corps et en-têtes)
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // Taille maximale d'une réponse mise en cache ; au-delà, elle est transmise sans être conservée
+    private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+
+    // Délai maximal d'une revalidation en arrière-plan
+    private Duration revalidateTimeout = Duration.ofSeconds(5);
+
+    private Map<String, Route> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public Duration getRevalidateTimeout() {
+        return revalidateTimeout;
+    }
+
+    public void setRevalidateTimeout(Duration revalidateTimeout) {
+        this.revalidateTimeout = revalidateTimeout;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Paramètres de cache d'une route.
+     */
+    public static class Route {
+
+        // Durée de fraîcheur en l'absence de max-age / s-maxage amont
+        private Duration ttl = Duration.ofSeconds(10);
+
+        // Période après expiration pendant laquelle la copie est servie et revalidée en arrière-plan
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+
+        // Période après expiration pendant laquelle la copie est servie si le service amont est en erreur
+        private Duration staleIfError = Duration.ofMinutes(5);
+
+        // Chemins exclus du cache (motifs de chemin, ex. /api/products/*/stock/**)
+        private List<String> excludedPaths = new ArrayList<>();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public Duration getStaleIfError() {
+            return staleIfError;
+        }
+
+        public void setStaleIfError(Duration staleIfError) {
+            this.staleIfError = staleIfError;
+        }
+
+        public List<String> getExcludedPaths() {
+            return excludedPaths;
+        }
+
+        public void setExcludedPaths(List<String> excludedPaths) {
+            this.excludedPaths = excludedPaths;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active les propriétés du regroupement des requêtes identiques simultanées.
+ */
+@Configuration
+@EnableConfigurationProperties(SingleFlightProperties.class)
+public class SingleFlightConfig {
+}
@@ -0,0 +1,63 @@
+package com.flrxnt.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Propriétés du regroupement des requêtes GET identiques simultanées (single-flight).
+ *
+ * Deux requêtes sont identiques si elles ont même route, chemin, paramètres et mêmes valeurs
+ * des en-têtes listés sous {@code key-headers} ; les en-têtes Authorization, If-None-Match et
+ * If-Modified-Since font toujours partie de la clé.
+ */
+@ConfigurationProperties(prefix = "app.gateway.single-flight")
+public class SingleFlightProperties {
+
+    private boolean enabled = true;
+
+    // Routes (par ID) dont les requêtes GET simultanées sont regroupées
+    private Set<String> routes = new HashSet<>();
+
+    // En-têtes distinguant deux requêtes sur le même chemin
+    private List<String> keyHeaders = new ArrayList<>(List.of("Accept", "Accept-Encoding", "Accept-Language"));
+
+    // Taille maximale d'une réponse partagée ; au-delà, les requêtes en attente appellent le service amont
+    private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Set<String> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Set<String> routes) {
+        this.routes = routes;
+    }
+
+    public List<String> getKeyHeaders() {
+        return keyHeaders;
+    }
+
+    public void setKeyHeaders(List<String> keyHeaders) {
+        this.keyHeaders = keyHeaders;
+    }
+
+    public DataSize getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public void setMaxResponseSize(DataSize maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+}
@@ -0,0 +1,406 @@
+package com.flrxnt.gateway.filter;
+
+import com.flrxnt.gateway.config.HedgingProperties;
+import com.flrxnt.gateway.resilience.RetryBudget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Requêtes de couverture (hedging) des routes GET déclarées sous {@code app.gateway.hedging.routes}.
+ *
+ * La requête part normalement vers le service amont ; si elle reste sans réponse au-delà du
+ * percentile configuré de la latence amont observée sur la route, une copie est envoyée à une
+ * autre instance choisie par le load balancer. La première réponse reçue est retenue, l'autre
+ * appel est annulé. Le nombre de copies est borné par un budget (part du trafic de la route).
+ *
+ * Jusqu'à ce qu'une réponse soit retenue, le statut et les en-têtes écrits par la requête
+ * principale restent dans sa réponse, pour ne pas se mêler à ceux de la copie.
+ *
+ * La copie reprend le chemin, les paramètres et les en-têtes de la requête reçue, sans les
+ * filtres propres à la route : la couverture convient aux routes de lecture simples.
+ * Une copie en erreur ou en 5xx est ignorée.
+ *
+ * Métriques : {@code gateway.hedging.requests} (tags route et result=sent|won|budget_exhausted|no_instance),
+ * {@code gateway.hedging.latency} (latence de la première réponse de la requête principale, par route :
+ * les copies n'y figurent pas, pour que le seuil ne dépende pas de lui-même) et {@code gateway.hedging.delay}.
+ */
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgingFilter.class);
+
+    // Autour des tentatives et du disjoncteur, que seule la requête principale traverse
+    public static final int ORDER = ResilienceFilter.ORDER - 1;
+
+    // Délai de recalcul du seuil de couverture à partir de la latence observée
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Choix successifs du load balancer pour trouver une autre instance que celle de la requête principale
+    private static final int INSTANCE_CHOICES = 3;
+
+    private static final Set<String> HOP_BY_HOP = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade", "host");
+
+    private enum Contender { PRIMARY, HEDGE }
+
+    private final HedgingProperties properties;
+    private final LoadBalancerClientFactory loadBalancerFactory;
+    private final WebClient client;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RouteState> states = new ConcurrentHashMap<>();
+    private final Map<String, List<PathPattern>> excludedPaths = new ConcurrentHashMap<>();
+
+    public HedgingFilter(HedgingProperties properties,
+                         LoadBalancerClientFactory loadBalancerFactory,
+                         @Qualifier("directWebClient") WebClient client,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.loadBalancerFactory = loadBalancerFactory;
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HedgingProperties.Route spec = route != null && properties.isEnabled()
+                ? properties.getRoutes().get(route.getId()) : null;
+        if (spec == null || exchange.getRequest().getMethod() != HttpMethod.GET
+                || !"lb".equals(route.getUri().getScheme()) || isExcluded(route.getId(), spec, exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+
+        RouteState state = states.computeIfAbsent(route.getId(), id -> new RouteState(id, spec, meterRegistry));
+        long start = System.nanoTime();
+        state.budget.onRequest(start);
+
+        AtomicReference<Contender> winner = new AtomicReference<>();
+        PrimaryResponse primary = new PrimaryResponse(exchange.getResponse(), winner, state, start);
+        Mono<Void> primaryCall = chain.filter(exchange.mutate().response(primary).build())
+                .then(Mono.defer(() -> primary.claim() || winner.get() == Contender.PRIMARY
+                        ? Mono.<Void>empty() : Mono.<Void>never()));
+
+        long delay = state.delayNanos(spec, start);
+        if (delay < 0) {
+            return primaryCall;
+        }
+        Mono<Void> hedgeCall = Mono.delay(Duration.ofNanos(delay))
+                .then(Mono.defer(() -> hedge(exchange, route, state, winner)));
+        // Premier appel terminé avec une réponse retenue ; l'autre est annulé
+        return Mono.firstWithSignal(primaryCall, hedgeCall);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Envoie la copie à une autre instance, si aucune réponse n'est encore retenue et que le budget le permet.
+     * Ne se termine que si la copie est retenue.
+     */
+    private Mono<Void> hedge(ServerWebExchange exchange, Route route, RouteState state,
+                             AtomicReference<Contender> winner) {
+        if (winner.get() != null) {
+            return Mono.never();
+        }
+        String primaryInstance = instance(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR));
+        return otherInstance(route.getUri().getHost(), primaryInstance)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(instance -> {
+                    if (instance.isEmpty()) {
+                        state.noInstance.increment();
+                        return Mono.never();
+                    }
+                    if (winner.get() != null) {
+                        return Mono.never();
+                    }
+                    if (!state.budget.tryRetry(System.nanoTime())) {
+                        state.budgetExhausted.increment();
+                        return Mono.never();
+                    }
+                    state.sent.increment();
+                    return send(exchange, route, instance.get(), state, winner);
+                });
+    }
+
+    private Mono<Void> send(ServerWebExchange exchange, Route route, ServiceInstance instance, RouteState state,
+                            AtomicReference<Contender> winner) {
+        ServerHttpRequest request = exchange.getRequest();
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+
+        return client.get()
+                .uri(uri)
+                .headers(headers -> request.getHeaders().forEach((name, values) -> {
+                    if (!HOP_BY_HOP.contains(name.toLowerCase())) {
+                        headers.addAll(name, values);
+                    }
+                }))
+                .exchangeToMono(upstream -> {
+                    if (upstream.statusCode().is5xxServerError() || !winner.compareAndSet(null, Contender.HEDGE)) {
+                        return upstream.releaseBody().then(Mono.<Void>never());
+                    }
+                    state.won.increment();
+                    exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, uri);
+
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(upstream.statusCode());
+                    upstream.headers().asHttpHeaders().forEach((name, values) -> {
+                        if (!HOP_BY_HOP.contains(name.toLowerCase())) {
+                            response.getHeaders().put(name, values);
+                        }
+                    });
+                    return response.writeWith(upstream.bodyToFlux(DataBuffer.class));
+                })
+                .onErrorResume(error -> {
+                    if (winner.get() == Contender.HEDGE) {
+                        return Mono.error(error);
+                    }
+                    logger.debug("Route {}: échec de la requête de couverture vers {}: {}",
+                            route.getId(), uri, error.getMessage());
+                    return Mono.never();
+                });
+    }
+
+    /**
+     * Instance choisie par le load balancer, différente de celle de la requête principale.
+     */
+    private Mono<ServiceInstance> otherInstance(String serviceId, String excluded) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+        return Flux.range(0, INSTANCE_CHOICES)
+                .concatMap(i -> Mono.from(loadBalancer.choose()))
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .filter(instance -> !instance(instance.getUri()).equals(excluded))
+                .next();
+    }
+
+    private static String instance(URI url) {
+        return url == null || url.getHost() == null ? "" : url.getHost() + ':' + url.getPort();
+    }
+
+    private boolean isExcluded(String routeId, HedgingProperties.Route spec, ServerHttpRequest request) {
+        List<PathPattern> patterns = excludedPaths.computeIfAbsent(routeId, id -> spec.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList()));
+        PathContainer path = request.getPath().pathWithinApplication();
+        return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    /**
+     * Réponse de la requête principale : statut et en-têtes gardés à part jusqu'à ce qu'elle soit
+     * retenue, corps écarté si la copie l'a été.
+     */
+    private static final class PrimaryResponse extends ServerHttpResponseDecorator {
+
+        private final AtomicReference<Contender> winner;
+        private final RouteState state;
+        private final long start;
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private HttpStatusCode status;
+        private volatile boolean claimed;
+        private boolean measured;
+
+        PrimaryResponse(ServerHttpResponse delegate, AtomicReference<Contender> winner, RouteState state, long start) {
+            super(delegate);
+            this.winner = winner;
+            this.state = state;
+            this.start = start;
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            if (claimed) {
+                return getDelegate().setStatusCode(status);
+            }
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return claimed ? getDelegate().getStatusCode() : status;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return claimed ? getDelegate().getHeaders() : headers;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            measure();
+            if (claim()) {
+                return super.writeWith(body);
+            }
+            return Flux.from(body).doOnNext(DataBufferUtils::release).then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            measure();
+            if (claim()) {
+                return super.writeAndFlushWith(body);
+            }
+            return Flux.from(body).flatMap(Flux::from)
+                    .doOnNext(DataBufferUtils::release).then();
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            measure();
+            return claim() ? super.setComplete() : Mono.empty();
+        }
+
+        /**
+         * Enregistre la latence de la première réponse de la requête principale, sans corps compris (304).
+         */
+        private void measure() {
+            if (!measured) {
+                measured = true;
+                state.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Retient cette réponse si la copie ne l'a pas été : statut et en-têtes passent dans la réponse au client.
+         */
+        boolean claim() {
+            if (claimed || !winner.compareAndSet(null, Contender.PRIMARY)) {
+                return claimed;
+            }
+            ServerHttpResponse delegate = getDelegate();
+            if (status != null) {
+                delegate.setStatusCode(status);
+            }
+            delegate.getHeaders().putAll(headers);
+            claimed = true;
+            return true;
+        }
+    }
+
+    /**
+     * Latence observée, budget et compteurs d'une route.
+     */
+    private static final class RouteState {
+
+        private final Timer latency;
+        private final RetryBudget budget;
+
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder won = new LongAdder();
+        private final LongAdder budgetExhausted = new LongAdder();
+        private final LongAdder noInstance = new LongAdder();
+
+        // Seuil de couverture courant (-1 : pas encore assez de mesures)
+        private volatile long delayNanos = -1;
+        private volatile long refreshedAt;
+
+        RouteState(String routeId, HedgingProperties.Route spec, MeterRegistry registry) {
+            this.latency = Timer.builder("gateway.hedging.latency")
+                    .description("Latence amont (jusqu'à la réponse) des requêtes GET principales des routes couvertes")
+                    .tag("route", routeId)
+                    .publishPercentiles(spec.getPercentile())
+                    .register(registry);
+            long now = System.nanoTime();
+            this.budget = new RetryBudget(spec.getBudgetRatio(), 0, now);
+            this.refreshedAt = now - DELAY_REFRESH_NANOS;
+
+            register(registry, routeId, "sent", sent);
+            register(registry, routeId, "won", won);
+            register(registry, routeId, "budget_exhausted", budgetExhausted);
+            register(registry, routeId, "no_instance", noInstance);
+            TimeGauge.builder("gateway.hedging.delay", this, TimeUnit.NANOSECONDS, s -> Math.max(0, s.delayNanos))
+                    .description("Délai avant l'envoi d'une requête de couverture")
+                    .tag("route", routeId)
+                    .register(registry);
+        }
+
+        /**
+         * Seuil de couverture : percentile configuré de la latence observée, au moins le délai minimal.
+         */
+        long delayNanos(HedgingProperties.Route spec, long now) {
+            if (now - refreshedAt >= DELAY_REFRESH_NANOS) {
+                refreshedAt = now;
+                delayNanos = computeDelay(spec);
+            }
+            return delayNanos;
+        }
+
+        private long computeDelay(HedgingProperties.Route spec) {
+            if (latency.count() < spec.getMinSamples()) {
+                return -1;
+            }
+            long observed = 0;
+            for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                if (value.percentile() == spec.getPercentile()) {
+                    observed = (long) value.value(TimeUnit.NANOSECONDS);
+                }
+            }
+            return Math.max(observed, spec.getMinDelay().toNanos());
+        }
+
+        private static void register(MeterRegistry registry, String routeId, String result, LongAdder counter) {
+            FunctionCounter.builder("gateway.hedging.requests", counter, LongAdder::sum)
+                    .description("Requêtes de couverture des routes GET, par résultat")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+}
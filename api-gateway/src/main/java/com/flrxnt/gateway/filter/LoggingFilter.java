@@ -1,50 +0,0 @@
-package com.flrxnt.gateway.filter;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.core.Ordered;
-import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
-import org.springframework.stereotype.Component;
-import org.springframework.web.server.ServerWebExchange;
-import reactor.core.publisher.Mono;
-
-/**
- * Filtre global pour logger les requêtes
- */
-@Component
-public class LoggingFilter implements GlobalFilter, Ordered {
-
-    private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
-
-    @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        ServerHttpResponse response = exchange.getResponse();
-
-        long startTime = System.currentTimeMillis();
-
-        logger.info("🌐 Gateway Request: {} {} from {}",
-                request.getMethod(),
-                request.getURI(),
-                request.getRemoteAddress()
-        );
-
-        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("🔚 Gateway Response: {} {} - Status: {} - Duration: {}ms",
-                    request.getMethod(),
-                    request.getURI(),
-                    response.getStatusCode(),
-                    duration
-            );
-        }));
-    }
-
-    @Override
-    public int getOrder() {
-        return -1; // Exécuter en premier
-    }
-}
\ No newline at end of file
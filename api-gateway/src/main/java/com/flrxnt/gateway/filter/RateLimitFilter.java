@@ -0,0 +1,162 @@
+package com.flrxnt.gateway.filter;
+
+import com.flrxnt.gateway.config.RateLimitProperties;
+import com.flrxnt.gateway.ratelimit.TokenBucket;
+import com.flrxnt.gateway.ratelimit.TokenBucketStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitation de débit des routes déclarées sous {@code app.gateway.rate-limit.routes}.
+ *
+ * Le client est l'utilisateur authentifié, à défaut l'adresse IP de la connexion ; l'en-tête
+ * {@code client-header} n'est qu'une étiquette reprise dans les logs.
+ *
+ * Le seau du client est consulté avant celui de la route : un client bruyant est refusé sans
+ * entamer le débit partagé, et son jeton est restitué si c'est la route qui refuse. Un refus
+ * répond 429 avec Retry-After, avant tout autre traitement (cache compris).
+ *
+ * Métrique : {@code gateway.ratelimit.requests} (tags route, scope=client|route et result).
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    // Contrôle d'admission avant le cache et le routage
+    public static final int ORDER = ResponseCacheFilter.ORDER - 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimitProperties properties;
+    private final TokenBucketStore buckets;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, TokenBucketStore buckets, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = buckets;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("gateway.ratelimit.buckets", buckets, TokenBucketStore::size)
+                .description("Seaux à jetons suivis par le Gateway")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        RateLimitProperties.Route limits = route != null && properties.isEnabled()
+                ? properties.getRoutes().get(route.getId()) : null;
+        if (limits == null) {
+            return chain.filter(exchange);
+        }
+        if (limits.getClient() == null) {
+            return admit(exchange, chain, route.getId(), limits, null);
+        }
+        return clientKey(exchange)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(clientKey -> admit(exchange, chain, route.getId(), limits, clientKey.orElse(null)));
+    }
+
+    /**
+     * Prélève un jeton dans le seau du client (s'il est identifié) puis dans celui de la route.
+     */
+    private Mono<Void> admit(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                             RateLimitProperties.Route limits, String clientKey) {
+        long now = System.nanoTime();
+
+        TokenBucket clientBucket = null;
+        if (clientKey != null) {
+            clientBucket = bucket(routeId + '|' + clientKey, limits.getClient(), now);
+            long wait = clientBucket.tryAcquire(now);
+            if (wait > 0) {
+                return reject(exchange, routeId, "client", wait);
+            }
+        }
+        if (limits.getRoute() != null) {
+            long wait = bucket(routeId, limits.getRoute(), now).tryAcquire(now);
+            if (wait > 0) {
+                if (clientBucket != null) {
+                    clientBucket.refund();
+                }
+                return reject(exchange, routeId, "route", wait);
+            }
+        }
+
+        counter(routeId, "all", "allowed").increment();
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private TokenBucket bucket(String key, RateLimitProperties.Limit limit, long now) {
+        return buckets.bucket(key, limit.getRate(), limit.getBurst(), now);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String scope, long waitNanos) {
+        counter(routeId, scope, "rejected").increment();
+        if (logger.isDebugEnabled()) {
+            ServerHttpRequest request = exchange.getRequest();
+            logger.debug("Requête refusée par la limite {} de la route {} (client déclaré: {}, adresse: {})",
+                    scope, routeId, request.getHeaders().getFirst(properties.getClientHeader()),
+                    request.getRemoteAddress());
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        return response.setComplete();
+    }
+
+    /**
+     * Identité du client, établie par le Gateway : utilisateur authentifié, sinon adresse IP de
+     * la connexion. L'en-tête déclaré par le client n'en fait pas partie : un client qui le change
+     * à chaque requête garde le même seau. Vide si aucune n'est connue : seule la limite de la
+     * route s'applique alors.
+     */
+    private Mono<String> clientKey(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(principal -> "user:" + principal.getName())
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+                    return remote != null && remote.getAddress() != null
+                            ? "ip:" + remote.getAddress().getHostAddress() : null;
+                }));
+    }
+
+    private Counter counter(String routeId, String scope, String result) {
+        return counters.computeIfAbsent(routeId + '|' + scope + '|' + result, key -> Counter
+                .builder("gateway.ratelimit.requests")
+                .description("Requêtes soumises à la limitation de débit du Gateway")
+                .tag("route", routeId)
+                .tag("scope", scope)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
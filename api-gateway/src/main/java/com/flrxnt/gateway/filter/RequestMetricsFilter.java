@@ -0,0 +1,131 @@
+package com.flrxnt.gateway.filter;
+
+import com.flrxnt.gateway.config.RequestMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure de la durée des requêtes du Gateway : timer {@code gateway.requests} par route,
+ * classe de statut (2xx, 4xx, 5xx, cancelled...) et instance amont (host:port, ou {@code none}
+ * pour une réponse produite par le Gateway : cache, limitation de débit...).
+ *
+ * Les percentiles configurés sont calculés sur une fenêtre glissante et l'histogramme est publié
+ * pour agrégation ; consultables via {@code /actuator/metrics/gateway.requests}.
+ * Une part configurable des requêtes est journalisée.
+ *
+ * Premier filtre exécuté : la durée inclut les réponses servies par les autres filtres du Gateway.
+ */
+@Component
+public class RequestMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    static final String METRIC_NAME = "gateway.requests";
+
+    private static final String NO_INSTANCE = "none";
+
+    private final RequestMetricsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final double[] percentiles;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(RequestMetricsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        Throwable[] failure = {null};
+
+        return chain.filter(exchange)
+                .doOnError(error -> failure[0] = error)
+                .doFinally(signal -> record(exchange, signal, failure[0], System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private void record(ServerWebExchange exchange, SignalType signal, Throwable failure, long durationNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        String status = statusClass(exchange, signal, failure);
+        String instance = instance(exchange);
+
+        timer(new TimerKey(routeId, status, instance)).record(durationNanos, TimeUnit.NANOSECONDS);
+
+        double sampleRate = properties.getLogSampleRate();
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && logger.isInfoEnabled()) {
+            ServerHttpRequest request = exchange.getRequest();
+            logger.info("{} {} -> {} en {} ms (route {}, instance {})",
+                    request.getMethod(), request.getURI().getRawPath(),
+                    failure != null ? status + " (" + failure.getClass().getSimpleName() + ")" : status,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), routeId, instance);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return timers.computeIfAbsent(key, k -> Timer.builder(METRIC_NAME)
+                .description("Durée des requêtes traitées par le Gateway")
+                .tag("route", k.route())
+                .tag("status", k.status())
+                .tag("instance", k.instance())
+                .publishPercentiles(percentiles)
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry));
+    }
+
+    private static String statusClass(ServerWebExchange exchange, SignalType signal, Throwable failure) {
+        if (signal == SignalType.CANCEL) {
+            return "cancelled";
+        }
+        HttpStatusCode status = failure instanceof ResponseStatusException statusException
+                ? statusException.getStatusCode()
+                : failure != null ? null : exchange.getResponse().getStatusCode();
+        if (status == null) {
+            return failure != null ? "5xx" : "unknown";
+        }
+        return status.value() / 100 + "xx";
+    }
+
+    /**
+     * Instance amont ayant traité la requête, une fois l'adresse résolue par le load balancer.
+     */
+    private static String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || url.getHost() == null || "lb".equals(url.getScheme())) {
+            return NO_INSTANCE;
+        }
+        return url.getPort() < 0 ? url.getHost() : url.getHost() + ':' + url.getPort();
+    }
+
+    private record TimerKey(String route, String status, String instance) {
+    }
+}
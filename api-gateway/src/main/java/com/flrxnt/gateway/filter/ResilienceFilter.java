@@ -0,0 +1,377 @@
+package com.flrxnt.gateway.filter;
+
+import com.flrxnt.gateway.cache.CachedResponse;
+import com.flrxnt.gateway.cache.ResponseCache;
+import com.flrxnt.gateway.config.ResilienceProperties;
+import com.flrxnt.gateway.resilience.CircuitBreaker;
+import com.flrxnt.gateway.resilience.RetryBudget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Résilience des routes déclarées sous {@code app.gateway.resilience.routes}.
+ *
+ * - chaque appel amont passe par le disjoncteur de la route ; un échec est une réponse 5xx,
+ *   une erreur d'appel ou un dépassement du délai de la route (504) ; le délai court jusqu'au
+ *   début de la réponse, pas pendant la transmission du corps (exports en flux) ;
+ * - une requête de méthode sûre (GET, HEAD, OPTIONS) est de nouveau tentée sur un statut ou une
+ *   erreur transitoire, tant que la réponse n'est pas engagée et que le budget de la route le permet ;
+ *   le load balancer choisit l'instance de chaque tentative ;
+ * - une requête DELETE ne l'est que si l'amont ne l'a pas traitée (erreur de connexion, 502 ou 503) :
+ *   après un dépassement du délai, la première tentative peut encore s'exécuter en amont ;
+ * - disjoncteur ouvert : une requête GET reçoit la dernière réponse connue du cache du Gateway
+ *   (X-Cache: FALLBACK), quel que soit son âge ; à défaut, 503 avec Retry-After.
+ *
+ * Métriques : {@code gateway.circuitbreaker.state} (tags route et state), {@code gateway.circuitbreaker.failure.rate},
+ * {@code gateway.circuitbreaker.calls} (tag result), {@code gateway.circuitbreaker.fallbacks} (tag result),
+ * {@code gateway.retry.requests} (tag result) et {@code gateway.retry.budget.usage}.
+ */
+@Component
+public class ResilienceFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceFilter.class);
+
+    // Au plus près de l'appel amont, pour intercepter la réponse avant son écriture
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    static final String FALLBACK_CACHE_STATUS = "FALLBACK";
+
+    private final ResilienceProperties properties;
+    private final ResponseCache cache;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RouteState> states = new ConcurrentHashMap<>();
+
+    public ResilienceFilter(ResilienceProperties properties, ResponseCache cache, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ResilienceProperties.Route spec = route != null && properties.isEnabled()
+                ? properties.getRoutes().get(route.getId()) : null;
+        if (spec == null) {
+            return chain.filter(exchange);
+        }
+
+        RouteState state = states.computeIfAbsent(route.getId(), id -> new RouteState(id, spec, meterRegistry));
+        RetryMode mode = RetryMode.of(spec.getRetry(), exchange.getRequest().getMethod().name());
+        if (mode != RetryMode.NONE) {
+            state.budget.onRequest(System.nanoTime());
+        }
+        return attempt(exchange, chain, route, spec, state, mode, 1);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Route route,
+                               ResilienceProperties.Route spec, RouteState state, RetryMode mode, int attempt) {
+        if (!state.breaker.tryAcquire(System.nanoTime())) {
+            state.notPermitted.increment();
+            return fallback(exchange, route, state);
+        }
+
+        boolean mayRetry = mode != RetryMode.NONE && attempt < spec.getRetry().getMaxAttempts();
+        AttemptResponse response = new AttemptResponse(exchange.getResponse(), state,
+                mayRetry ? mode.statuses(spec.getRetry()) : Set.of());
+        Mono<Void> call = chain.filter(exchange.mutate().response(response).build());
+        if (spec.getTimeout() != null) {
+            // Délai jusqu'au début de la réponse : un corps transmis en flux n'est pas interrompu
+            call = call.timeout(Mono.delay(spec.getTimeout())
+                    .flatMap(tick -> response.started ? Mono.<Long>never() : Mono.just(tick)));
+        }
+
+        return call
+                .then(Mono.defer(() -> {
+                    if (response.discarded) {
+                        return retry(exchange, chain, route, spec, state, mode, attempt);
+                    }
+                    response.recordOutcome(exchange.getResponse().getStatusCode());
+                    return Mono.<Void>empty();
+                }))
+                .onErrorResume(error -> {
+                    if (!response.recordFailure()) {
+                        // Erreur de la nouvelle tentative, déjà traitée
+                        return Mono.error(error);
+                    }
+                    if (mayRetry && mode.retries(error) && !exchange.getResponse().isCommitted() && state.tryRetry()) {
+                        logger.debug("Route {}: tentative {} en échec ({}), nouvelle tentative",
+                                route.getId(), attempt, error.toString());
+                        return retry(exchange, chain, route, spec, state, mode, attempt);
+                    }
+                    return Mono.error(error instanceof TimeoutException
+                            ? new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Délai de la route " + route.getId() + " dépassé", error)
+                            : error);
+                })
+                .doOnCancel(response::release);
+    }
+
+    private Mono<Void> retry(ServerWebExchange exchange, GatewayFilterChain chain, Route route,
+                             ResilienceProperties.Route spec, RouteState state, RetryMode mode, int attempt) {
+        // Oublie la réponse amont écartée (en-têtes, routage) avant de relancer la chaîne
+        ServerWebExchangeUtils.reset(exchange);
+        return Mono.delay(spec.getRetry().getBackoff())
+                .then(Mono.defer(() -> attempt(exchange, chain, route, spec, state, mode, attempt + 1)));
+    }
+
+    /**
+     * Réponse de repli, disjoncteur ouvert : dernière copie connue du cache, sinon 503.
+     */
+    private Mono<Void> fallback(ServerWebExchange exchange, Route route, RouteState state) {
+        long now = System.nanoTime();
+        if (exchange.getRequest().getMethod() == HttpMethod.GET) {
+            CachedResponse cached = cache.get(ResponseCacheFilter.key(route, exchange.getRequest()));
+            if (cached != null) {
+                state.cachedFallbacks.increment();
+                return ResponseCacheFilter.writeCopy(exchange.getResponse(), cached, FALLBACK_CACHE_STATUS, now);
+            }
+        }
+
+        state.unavailable.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                state.breaker.remainingOpenNanos(now) + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        return response.setComplete();
+    }
+
+    /**
+     * Nouvelles tentatives admises pour la méthode d'une requête.
+     */
+    private enum RetryMode {
+
+        NONE,
+        // Méthode sûre : tout statut transitoire ou erreur d'appel, délai dépassé compris
+        SAFE,
+        // Méthode non sûre : seulement si l'amont n'a pas traité la requête
+        UNPROCESSED;
+
+        static RetryMode of(ResilienceProperties.Retry retry, String method) {
+            if (retry.getMaxAttempts() <= 1) {
+                return NONE;
+            }
+            if (retry.getMethods().contains(method)) {
+                return SAFE;
+            }
+            return retry.getConnectFailureMethods().contains(method) ? UNPROCESSED : NONE;
+        }
+
+        Set<Integer> statuses(ResilienceProperties.Retry retry) {
+            return this == SAFE ? retry.getStatuses() : retry.getConnectFailureStatuses();
+        }
+
+        boolean retries(Throwable error) {
+            if (this == SAFE) {
+                return true;
+            }
+            // Connexion refusée ou non établie à temps (ConnectTimeoutException de Netty comprise)
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof ConnectException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Réponse d'une tentative : enregistre son résultat auprès du disjoncteur (une seule fois) et
+     * écarte une réponse en échec transitoire si une nouvelle tentative est accordée.
+     */
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final RouteState state;
+        // Statuts à écarter pour une nouvelle tentative (vide : aucune)
+        private final Set<Integer> retryStatuses;
+
+        private boolean recorded;
+        private boolean discarded;
+        // Réponse commencée : le délai de la route ne s'applique plus
+        private volatile boolean started;
+
+        AttemptResponse(ServerHttpResponse delegate, RouteState state, Set<Integer> retryStatuses) {
+            super(delegate);
+            this.state = state;
+            this.retryStatuses = retryStatuses;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            started = true;
+            HttpStatusCode status = getStatusCode();
+            recordOutcome(status);
+            if (status != null && retryStatuses.contains(status.value())
+                    && state.tryRetry()) {
+                discarded = true;
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then();
+            }
+            return super.writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            started = true;
+            recordOutcome(getStatusCode());
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            started = true;
+            return super.setComplete();
+        }
+
+        void recordOutcome(HttpStatusCode status) {
+            if (recorded) {
+                return;
+            }
+            recorded = true;
+            if (status != null && status.is5xxServerError()) {
+                state.failure();
+            } else {
+                state.success();
+            }
+        }
+
+        /**
+         * @return false si le résultat de la tentative était déjà enregistré
+         */
+        boolean recordFailure() {
+            if (recorded) {
+                return false;
+            }
+            recorded = true;
+            state.failure();
+            return true;
+        }
+
+        void release() {
+            if (!recorded) {
+                recorded = true;
+                state.breaker.release();
+            }
+        }
+    }
+
+    /**
+     * Disjoncteur, budget et compteurs d'une route.
+     */
+    private static final class RouteState {
+
+        private final CircuitBreaker breaker;
+        private final RetryBudget budget;
+
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder notPermitted = new LongAdder();
+        private final LongAdder cachedFallbacks = new LongAdder();
+        private final LongAdder unavailable = new LongAdder();
+        private final LongAdder retried = new LongAdder();
+        private final LongAdder budgetExhausted = new LongAdder();
+
+        RouteState(String routeId, ResilienceProperties.Route spec, MeterRegistry registry) {
+            ResilienceProperties.Breaker breakerSpec = spec.getCircuitBreaker();
+            long now = System.nanoTime();
+            this.breaker = new CircuitBreaker(routeId, breakerSpec.getFailureRateThreshold(),
+                    breakerSpec.getSlidingWindowSize(), breakerSpec.getMinimumCalls(),
+                    breakerSpec.getOpenDuration().toNanos(), breakerSpec.getHalfOpenCalls());
+            this.budget = new RetryBudget(spec.getRetry().getBudgetRatio(), spec.getRetry().getMinRetriesPerSecond(), now);
+
+            for (CircuitBreaker.State value : CircuitBreaker.State.values()) {
+                Gauge.builder("gateway.circuitbreaker.state", breaker, b -> b.state() == value ? 1 : 0)
+                        .description("État du disjoncteur de la route (1 pour l'état courant)")
+                        .tag("route", routeId)
+                        .tag("state", value.name().toLowerCase())
+                        .register(registry);
+            }
+            Gauge.builder("gateway.circuitbreaker.failure.rate", breaker, CircuitBreaker::failureRate)
+                    .description("Taux d'échec (en %) de la fenêtre du disjoncteur de la route")
+                    .tag("route", routeId)
+                    .register(registry);
+            register(registry, "gateway.circuitbreaker.calls", "Appels amont par résultat, refus du disjoncteur compris",
+                    routeId, "success", successes);
+            register(registry, "gateway.circuitbreaker.calls", "Appels amont par résultat, refus du disjoncteur compris",
+                    routeId, "failure", failures);
+            register(registry, "gateway.circuitbreaker.calls", "Appels amont par résultat, refus du disjoncteur compris",
+                    routeId, "not_permitted", notPermitted);
+            register(registry, "gateway.circuitbreaker.fallbacks", "Réponses de repli, disjoncteur ouvert",
+                    routeId, "cached", cachedFallbacks);
+            register(registry, "gateway.circuitbreaker.fallbacks", "Réponses de repli, disjoncteur ouvert",
+                    routeId, "unavailable", unavailable);
+            register(registry, "gateway.retry.requests", "Nouvelles tentatives accordées ou refusées faute de budget",
+                    routeId, "retried", retried);
+            register(registry, "gateway.retry.requests", "Nouvelles tentatives accordées ou refusées faute de budget",
+                    routeId, "budget_exhausted", budgetExhausted);
+            Gauge.builder("gateway.retry.budget.usage", budget, b -> b.usage(System.nanoTime()))
+                    .description("Nouvelles tentatives rapportées aux requêtes de la route (fenêtre de 10 s)")
+                    .tag("route", routeId)
+                    .register(registry);
+        }
+
+        void success() {
+            successes.increment();
+            breaker.onSuccess(System.nanoTime());
+        }
+
+        void failure() {
+            failures.increment();
+            breaker.onFailure(System.nanoTime());
+        }
+
+        boolean tryRetry() {
+            if (budget.tryRetry(System.nanoTime())) {
+                retried.increment();
+                return true;
+            }
+            budgetExhausted.increment();
+            return false;
+        }
+
+        private static void register(MeterRegistry registry, String name, String description,
+                                     String routeId, String result, LongAdder counter) {
+            FunctionCounter.builder(name, counter, LongAdder::sum)
+                    .description(description)
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+}
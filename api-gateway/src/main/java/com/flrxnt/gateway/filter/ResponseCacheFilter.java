@@ -0,0 +1,435 @@
+package com.flrxnt.gateway.filter;
+
+import com.flrxnt.gateway.cache.CacheDirectives;
+import com.flrxnt.gateway.cache.CachedResponse;
+import com.flrxnt.gateway.cache.CachedResponse.Freshness;
+import com.flrxnt.gateway.cache.ResponseCache;
+import com.flrxnt.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Cache des réponses GET des routes déclarées sous {@code app.gateway.cache.routes}.
+ *
+ * - copie fraîche : servie sans appel amont (HIT), ou 304 si le client détient déjà cette version ;
+ * - copie périmée dans la fenêtre stale-while-revalidate : servie (STALE) et revalidée en arrière-plan ;
+ * - sinon la requête part vers le service amont, avec If-None-Match si une copie existe : un 304
+ *   amont renouvelle la copie (REVALIDATED), une erreur amont dans la fenêtre stale-if-error
+ *   la fait servir à la place de l'erreur ;
+ * - toute écriture réussie sur une route vide le cache de cette route.
+ *
+ * Métriques : {@code gateway.cache.requests} (tags route et result), {@code gateway.cache.hit.ratio}
+ * par route, {@code gateway.cache.entries}, {@code gateway.cache.size} et {@code gateway.cache.evictions}.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    // Avant l'écriture de la réponse amont, pour pouvoir la capturer ; seuls les échecs du cache sont regroupés
+    public static final int ORDER = SingleFlightFilter.ORDER - 1;
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Set<HttpMethod> SAFE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCache cache;
+    private final WebClient loadBalancedClient;
+    private final WebClient directClient;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, List<PathPattern>> excludedPaths = new ConcurrentHashMap<>();
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    public ResponseCacheFilter(ResponseCacheProperties properties,
+                               ResponseCache cache,
+                               @Qualifier("loadBalancedWebClient") WebClient loadBalancedClient,
+                               @Qualifier("directWebClient") WebClient directClient,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = cache;
+        this.loadBalancedClient = loadBalancedClient;
+        this.directClient = directClient;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("gateway.cache.entries", cache, ResponseCache::size)
+                .description("Nombre de réponses conservées par le cache du Gateway")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.size", cache, ResponseCache::bytes)
+                .description("Taille des réponses conservées par le cache du Gateway")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.evictions", cache, ResponseCache::evictions)
+                .description("Réponses évincées du cache du Gateway (bornes atteintes)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ResponseCacheProperties.Route spec = route != null && properties.isEnabled()
+                ? properties.getRoutes().get(route.getId()) : null;
+        if (spec == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    cache.invalidateRoute(route.getId());
+                }
+            });
+        }
+        if (request.getMethod() != HttpMethod.GET || isExcluded(route.getId(), spec, request)
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(route, request);
+        RouteStats routeStats = stats(route.getId());
+        long now = System.nanoTime();
+        CachedResponse cached = cache.get(key);
+
+        if (cached != null && !CacheDirectives.requiresRevalidation(request.getHeaders())) {
+            if (cached.isFresh(now)) {
+                routeStats.hits.increment();
+                return writeCached(exchange, cached, "HIT", now);
+            }
+            if (cached.isStaleWhileRevalidate(now)) {
+                routeStats.stale.increment();
+                revalidateInBackground(route, request, key, cached, spec);
+                return writeCached(exchange, cached, "STALE", now);
+            }
+        }
+
+        routeStats.misses.increment();
+        return forward(exchange, chain, route, spec, key, cached, routeStats);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Transmet la requête au service amont et capture sa réponse.
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, Route route,
+                               ResponseCacheProperties.Route spec, String key, CachedResponse cached,
+                               RouteStats routeStats) {
+        ServerHttpRequest request = exchange.getRequest();
+        String cachedEtag = cached != null ? cached.etag() : null;
+        ServerHttpRequest upstreamRequest = cachedEtag == null ? request : request.mutate()
+                .headers(headers -> {
+                    headers.set(HttpHeaders.IF_NONE_MATCH, cachedEtag);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+
+        CapturingResponse response = new CapturingResponse(exchange, route.getId(), spec, key, cached, routeStats);
+        Mono<Void> result = chain.filter(exchange.mutate().request(upstreamRequest).response(response).build());
+        if (cached == null) {
+            return result;
+        }
+        return result.onErrorResume(error -> {
+            long now = System.nanoTime();
+            if (exchange.getResponse().isCommitted() || !cached.isStaleIfError(now)) {
+                return Mono.error(error);
+            }
+            logger.warn("Route {}: service amont en erreur ({}), copie en cache servie", route.getId(), error.getMessage());
+            routeStats.staleIfError.increment();
+            return writeCached(exchange, cached, "STALE", now);
+        });
+    }
+
+    /**
+     * Sert une copie du cache, ou un 304 si le client détient déjà cette version.
+     */
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus, long now) {
+        String etag = cached.etag();
+        if (etag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+            ServerHttpResponse response = exchange.getResponse();
+            copyHeaders(response.getHeaders(), cached, cacheStatus, now);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        return writeCopy(exchange.getResponse(), cached, cacheStatus, now);
+    }
+
+    /**
+     * Sert une copie du cache en entier, quels que soient les en-têtes conditionnels de la requête.
+     */
+    static Mono<Void> writeCopy(ServerHttpResponse response, CachedResponse cached, String cacheStatus, long now) {
+        copyHeaders(response.getHeaders(), cached, cacheStatus, now);
+        response.setStatusCode(cached.status());
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static void copyHeaders(HttpHeaders headers, CachedResponse cached, String cacheStatus, long now) {
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.age(now).toSeconds()));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+    }
+
+    /**
+     * Revalide une copie périmée hors du traitement de la requête ; une seule revalidation par clé à la fois.
+     */
+    private void revalidateInBackground(Route route, ServerHttpRequest request, String key,
+                                        CachedResponse cached, ResponseCacheProperties.Route spec) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+
+        URI routeUri = route.getUri();
+        URI uri = UriComponentsBuilder.fromUri(routeUri)
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        WebClient client = "lb".equals(routeUri.getScheme()) ? loadBalancedClient : directClient;
+
+        client.get()
+                .uri(uri)
+                .headers(headers -> {
+                    headers.setAccept(request.getHeaders().getAccept());
+                    if (cached.etag() != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    long now = System.nanoTime();
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        freshness(response.headers().asHttpHeaders(), spec)
+                                .ifPresent(freshness -> cache.put(key, cached.withFreshness(freshness, now)));
+                        stats(route.getId()).revalidated.increment();
+                        return response.releaseBody();
+                    }
+                    if (response.statusCode() != HttpStatus.OK) {
+                        return response.releaseBody();
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    return response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .doOnNext(body -> store(key, route.getId(), spec, HttpStatus.OK, headers, body, now))
+                            .then();
+                })
+                .timeout(properties.getRevalidateTimeout())
+                .doFinally(signal -> revalidating.remove(key))
+                .subscribe(null, error -> logger.debug("Route {}: échec de la revalidation de {}: {}",
+                        route.getId(), uri, error.getMessage()));
+    }
+
+    private void store(String key, String routeId, ResponseCacheProperties.Route spec,
+                       HttpStatusCode status, HttpHeaders headers, byte[] body, long now) {
+        if (body.length <= properties.getMaxEntrySize().toBytes()) {
+            freshness(headers, spec).ifPresent(freshness ->
+                    cache.put(key, CachedResponse.of(routeId, status, headers, body, freshness, now)));
+        }
+    }
+
+    private static Optional<Freshness> freshness(HttpHeaders headers, ResponseCacheProperties.Route spec) {
+        return CacheDirectives.freshness(headers,
+                new Freshness(spec.getTtl(), spec.getStaleWhileRevalidate(), spec.getStaleIfError()));
+    }
+
+    private boolean isExcluded(String routeId, ResponseCacheProperties.Route spec, ServerHttpRequest request) {
+        List<PathPattern> patterns = excludedPaths.computeIfAbsent(routeId, id -> spec.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList()));
+        PathContainer path = request.getPath().pathWithinApplication();
+        return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    /**
+     * Clé de cache : route, chemin, paramètres et type de contenu accepté.
+     */
+    static String key(Route route, ServerHttpRequest request) {
+        URI uri = request.getURI();
+        return route.getId() + ' ' + uri.getRawPath()
+                + (uri.getRawQuery() != null ? '?' + uri.getRawQuery() : "")
+                + ' ' + request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+    }
+
+    private RouteStats stats(String routeId) {
+        return stats.computeIfAbsent(routeId, id -> new RouteStats(id, meterRegistry));
+    }
+
+    /**
+     * Réponse amont capturée au fil de l'écriture : conservée si elle peut l'être, remplacée par la
+     * copie en cache sur un 304 (revalidation) ou une erreur 5xx dans la fenêtre stale-if-error.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String routeId;
+        private final ResponseCacheProperties.Route spec;
+        private final String key;
+        private final CachedResponse cached;
+        private final RouteStats routeStats;
+
+        CapturingResponse(ServerWebExchange exchange, String routeId, ResponseCacheProperties.Route spec,
+                          String key, CachedResponse cached, RouteStats routeStats) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.routeId = routeId;
+            this.spec = spec;
+            this.key = key;
+            this.cached = cached;
+            this.routeStats = routeStats;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            long now = System.nanoTime();
+
+            if (getHeaders().containsKey(CACHE_STATUS_HEADER)) {
+                // Copie déjà servie depuis le cache (repli du disjoncteur) : ni conservée, ni remplacée
+                return super.writeWith(body);
+            }
+            if (cached != null && status == HttpStatus.NOT_MODIFIED && cached.etag() != null) {
+                // Copie confirmée par le service amont
+                CachedResponse revalidated = freshness(getHeaders(), spec)
+                        .map(freshness -> cached.withFreshness(freshness, now))
+                        .orElse(cached);
+                cache.put(key, revalidated);
+                routeStats.revalidated.increment();
+                return replaceWithCached(body, revalidated, "REVALIDATED", now);
+            }
+            if (cached != null && status != null && status.is5xxServerError() && cached.isStaleIfError(now)) {
+                logger.warn("Route {}: service amont en erreur ({}), copie en cache servie", routeId, status);
+                routeStats.staleIfError.increment();
+                return replaceWithCached(body, cached, "STALE", now);
+            }
+            if (status != HttpStatus.OK) {
+                return super.writeWith(body);
+            }
+
+            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(getHeaders());
+            long maxEntryBytes = properties.getMaxEntrySize().toBytes();
+            long contentLength = headers.getContentLength();
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            // done : copie conservée (ou impossible), rien de plus à capturer
+            boolean[] done = {false};
+
+            Flux<? extends DataBuffer> capturing = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        if (done[0]) {
+                            return;
+                        }
+                        if (captured.size() + buffer.readableByteCount() > maxEntryBytes) {
+                            done[0] = true;
+                            return;
+                        }
+                        int position = buffer.readPosition();
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        buffer.readPosition(position);
+                        captured.writeBytes(bytes);
+                        // Corps complet : conservé avant l'écriture du dernier fragment au client
+                        if (captured.size() == contentLength) {
+                            done[0] = true;
+                            store(key, routeId, spec, HttpStatus.OK, headers, captured.toByteArray(), System.nanoTime());
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (!done[0]) {
+                            store(key, routeId, spec, HttpStatus.OK, headers, captured.toByteArray(), System.nanoTime());
+                        }
+                    });
+            return super.writeWith(capturing);
+        }
+
+        private Mono<Void> replaceWithCached(Publisher<? extends DataBuffer> body, CachedResponse replacement,
+                                             String cacheStatus, long now) {
+            // Les en-têtes de la copie remplacent ceux de la réponse amont (les en-têtes CORS restent)
+            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return Flux.from(body)
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.defer(() -> writeCached(exchange, replacement, cacheStatus, now)));
+        }
+    }
+
+    /**
+     * Compteurs d'une route et taux de réponses servies depuis le cache.
+     */
+    private static final class RouteStats {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder stale = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder revalidated = new LongAdder();
+        private final LongAdder staleIfError = new LongAdder();
+
+        RouteStats(String routeId, MeterRegistry registry) {
+            register(registry, routeId, "hit", hits);
+            register(registry, routeId, "stale", stale);
+            register(registry, routeId, "miss", misses);
+            register(registry, routeId, "revalidated", revalidated);
+            register(registry, routeId, "stale_if_error", staleIfError);
+            Gauge.builder("gateway.cache.hit.ratio", this, RouteStats::hitRatio)
+                    .description("Part des requêtes GET servies depuis le cache du Gateway (copies fraîches ou périmées)")
+                    .tag("route", routeId)
+                    .register(registry);
+        }
+
+        private double hitRatio() {
+            long served = hits.sum() + stale.sum();
+            long total = served + misses.sum();
+            return total == 0 ? 0 : (double) served / total;
+        }
+
+        private static void register(MeterRegistry registry, String routeId, String result, LongAdder counter) {
+            FunctionCounter.builder("gateway.cache.requests", counter, LongAdder::sum)
+                    .description("Requêtes GET des routes mises en cache, par résultat")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.flrxnt.gateway.filter;
+
+import com.flrxnt.gateway.config.SingleFlightProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Regroupement des requêtes GET identiques simultanées des routes déclarées sous
+ * {@code app.gateway.single-flight.routes}.
+ *
+ * La première requête (meneuse) part vers le service amont ; les requêtes identiques arrivées
+ * pendant son traitement attendent sa réponse et la reçoivent à l'identique. Rien n'est conservé
+ * après la réponse : une requête arrivée ensuite déclenche un nouvel appel amont.
+ *
+ * Si la meneuse n'aboutit pas à une réponse partageable (réponse trop volumineuse ou en flux,
+ * requête annulée), chaque requête en attente appelle elle-même le service amont ; une erreur
+ * de la meneuse leur est transmise telle quelle.
+ *
+ * Métriques : {@code gateway.singleflight.requests} (tags route et role=leader|follower),
+ * {@code gateway.singleflight.coalescing.ratio} par route et {@code gateway.singleflight.inflight}.
+ */
+@Component
+public class SingleFlightFilter implements GlobalFilter, Ordered {
+
+    // Avant l'écriture de la réponse amont, pour pouvoir la capturer ; les tentatives sont partagées
+    public static final int ORDER = HedgingFilter.ORDER - 1;
+
+    // En-têtes toujours dans la clé : identité et version détenue par le client
+    private static final List<String> ALWAYS_KEYED = List.of(
+            HttpHeaders.AUTHORIZATION, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    private final SingleFlightProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+    public SingleFlightFilter(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("gateway.singleflight.inflight", inFlight, Map::size)
+                .description("Appels amont en cours partagés par des requêtes identiques")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !properties.isEnabled() || !properties.getRoutes().contains(route.getId())
+                || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(route, exchange.getRequest());
+        RouteStats routeStats = stats.computeIfAbsent(route.getId(), id -> new RouteStats(id, meterRegistry));
+        Flight flight = new Flight();
+        Flight leader = inFlight.putIfAbsent(key, flight);
+
+        if (leader != null) {
+            routeStats.followers.increment();
+            return leader.result.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> shared.isPresent()
+                            ? write(exchange.getResponse(), shared.get())
+                            : chain.filter(exchange));
+        }
+
+        routeStats.leaders.increment();
+        LeaderResponse response = new LeaderResponse(exchange.getResponse(), key, flight);
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnError(error -> {
+                    inFlight.remove(key, flight);
+                    flight.result.tryEmitError(error);
+                })
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    flight.result.tryEmitEmpty();
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    /**
+     * Clé de regroupement : route, chemin, paramètres et en-têtes distinctifs.
+     */
+    private String key(Route route, ServerHttpRequest request) {
+        URI uri = request.getURI();
+        StringBuilder key = new StringBuilder(route.getId()).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (List<String> names : List.of(ALWAYS_KEYED, properties.getKeyHeaders())) {
+            for (String name : names) {
+                List<String> values = headers.get(name);
+                if (values != null) {
+                    key.append('\n').append(name).append(':').append(String.join(",", values));
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Appel amont en cours, dont la réponse est attendue par les requêtes identiques.
+     */
+    private static final class Flight {
+        private final Sinks.One<SharedResponse> result = Sinks.one();
+    }
+
+    /**
+     * Réponse de la meneuse, rejouée pour chaque requête en attente.
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * Réponse de la meneuse, copiée au fil de l'écriture puis publiée aux requêtes en attente.
+     */
+    private final class LeaderResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Flight flight;
+
+        LeaderResponse(ServerHttpResponse delegate, String key, Flight flight) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                        && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                    headers.addAll(name, values);
+                }
+            });
+
+            long maxBytes = properties.getMaxResponseSize().toBytes();
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            boolean[] tooLarge = {false};
+
+            Flux<? extends DataBuffer> capturing = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        if (tooLarge[0] || captured.size() + buffer.readableByteCount() > maxBytes) {
+                            tooLarge[0] = true;
+                            return;
+                        }
+                        int position = buffer.readPosition();
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        buffer.readPosition(position);
+                        captured.writeBytes(bytes);
+                    })
+                    .doOnComplete(() -> {
+                        // Retrait avant publication : une requête arrivant maintenant déclenche un nouvel appel
+                        inFlight.remove(key, flight);
+                        if (status != null && !tooLarge[0]) {
+                            flight.result.tryEmitValue(new SharedResponse(status,
+                                    HttpHeaders.readOnlyHttpHeaders(headers), captured.toByteArray()));
+                        } else {
+                            flight.result.tryEmitEmpty();
+                        }
+                    });
+            return super.writeWith(capturing);
+        }
+    }
+
+    /**
+     * Compteurs d'une route et part des requêtes servies par un appel partagé.
+     */
+    private static final class RouteStats {
+
+        private final LongAdder leaders = new LongAdder();
+        private final LongAdder followers = new LongAdder();
+
+        RouteStats(String routeId, MeterRegistry registry) {
+            register(registry, routeId, "leader", leaders);
+            register(registry, routeId, "follower", followers);
+            Gauge.builder("gateway.singleflight.coalescing.ratio", this, RouteStats::coalescingRatio)
+                    .description("Part des requêtes GET servies par l'appel amont d'une requête identique simultanée")
+                    .tag("route", routeId)
+                    .register(registry);
+        }
+
+        private double coalescingRatio() {
+            long total = leaders.sum() + followers.sum();
+            return total == 0 ? 0 : (double) followers.sum() / total;
+        }
+
+        private static void register(MeterRegistry registry, String routeId, String role, LongAdder counter) {
+            FunctionCounter.builder("gateway.singleflight.requests", counter, LongAdder::sum)
+                    .description("Requêtes GET des routes à regroupement, meneuses ou en attente d'une meneuse")
+                    .tag("route", routeId)
+                    .tag("role", role)
+                    .register(registry);
+        }
+    }
+}
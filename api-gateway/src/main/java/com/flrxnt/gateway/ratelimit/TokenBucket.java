@@ -0,0 +1,74 @@
+package com.flrxnt.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou, implémenté par l'algorithme GCRA (équivalent à un seau à jetons) :
+ * l'état se réduit à une échéance théorique, l'instant où le seau serait de nouveau plein,
+ * mise à jour par compare-and-set.
+ *
+ * Les instants sont exprimés en {@link System#nanoTime()}.
+ */
+public final class TokenBucket {
+
+    // Temps de régénération d'un jeton
+    private final long intervalNanos;
+
+    // Avance maximale de l'échéance sur l'instant présent : capacité du seau
+    private final long capacityNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param ratePerSecond jetons régénérés par seconde
+     * @param capacity nombre maximal de jetons (rafale admise)
+     */
+    public TokenBucket(double ratePerSecond, int capacity, long now) {
+        if (ratePerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Le débit et la capacité d'un seau à jetons doivent être positifs");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.capacityNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Prélève un jeton.
+     *
+     * @return 0 si le jeton est accordé, sinon le délai en nanosecondes avant qu'un jeton soit disponible
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Restitue un jeton prélevé pour une requête finalement refusée par un autre seau.
+     */
+    public void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * Durée de remplissage d'un seau vide : au-delà, un seau inutilisé est plein.
+     */
+    public long refillNanos() {
+        return capacityNanos;
+    }
+
+    /**
+     * Indique si le seau est plein : il peut être oublié sans effet sur les limites.
+     */
+    public boolean isFull(long now) {
+        return theoreticalArrival.get() - now <= 0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.flrxnt.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Seaux à jetons en mémoire, par clé (route ou route et client).
+ *
+ * Un seau inutilisé pendant sa durée de remplissage (capacité / débit) est oublié : il est de
+ * nouveau plein, et un seau recréé plus tard est identique. Au-delà de {@code maxBuckets}, les
+ * seaux les moins utiles sont évincés même s'ils ne sont pas pleins : la table reste bornée
+ * quel que soit le nombre de clés distinctes.
+ */
+public class TokenBucketStore {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public TokenBucketStore(long maxBuckets) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfter(new RefillExpiry())
+                // Maintenance (éviction) sur le thread appelant : la borne est respectée sans délai
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public TokenBucket bucket(String key, double ratePerSecond, int capacity, long now) {
+        return buckets.get(key, k -> new TokenBucket(ratePerSecond, capacity, now));
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Expiration d'un seau après sa durée de remplissage sans utilisation.
+     */
+    private static final class RefillExpiry implements Expiry<String, TokenBucket> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+            return bucket.refillNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+            return bucket.refillNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+            return bucket.refillNanos();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.flrxnt.gateway.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disjoncteur sur fenêtre glissante des derniers appels.
+ *
+ * - fermé : les appels passent ; le disjoncteur s'ouvre dès que le taux d'échec de la fenêtre
+ *   atteint le seuil (après un nombre minimal d'appels) ;
+ * - ouvert : les appels sont refusés pendant la durée d'ouverture ;
+ * - semi-ouvert : un nombre limité d'appels d'essai passe ; tous réussis, le disjoncteur se
+ *   referme, un seul échec le rouvre.
+ *
+ * Les instants sont exprimés en {@link System#nanoTime()}. Les sections critiques se limitent
+ * à quelques opérations sur la fenêtre : un verrou unique par disjoncteur suffit.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    // Résultats des derniers appels (true : échec), tampon circulaire
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param failureRateThreshold taux d'échec (en %) ouvrant le disjoncteur
+     * @param windowSize nombre d'appels de la fenêtre glissante
+     * @param minimumCalls appels nécessaires dans la fenêtre avant d'évaluer le taux d'échec
+     * @param openNanos durée d'ouverture avant les appels d'essai
+     * @param halfOpenCalls appels d'essai en semi-ouverture
+     */
+    public CircuitBreaker(String name, int failureRateThreshold, int windowSize, int minimumCalls,
+                          long openNanos, int halfOpenCalls) {
+        if (failureRateThreshold < 1 || failureRateThreshold > 100 || windowSize < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Paramètres du disjoncteur " + name + " invalides");
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), windowSize);
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Demande l'autorisation d'un appel ; une autorisation accordée doit être suivie de
+     * {@link #onSuccess}, {@link #onFailure} ou {@link #release}.
+     */
+    public synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long now) {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+                clearWindow();
+            }
+        } else if (state == State.CLOSED) {
+            record(false, now);
+        }
+    }
+
+    public synchronized void onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+        } else if (state == State.CLOSED) {
+            record(true, now);
+        }
+    }
+
+    /**
+     * Restitue une autorisation dont l'appel n'a pas abouti à un résultat (requête annulée).
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Taux d'échec (en %) de la fenêtre courante.
+     */
+    public synchronized double failureRate() {
+        return recorded == 0 ? 0 : 100.0 * failures / recorded;
+    }
+
+    /**
+     * Délai restant avant les appels d'essai (0 si le disjoncteur n'est pas ouvert).
+     */
+    public synchronized long remainingOpenNanos(long now) {
+        return state == State.OPEN ? Math.max(0, openNanos - (now - openedAt)) : 0;
+    }
+
+    private void record(boolean failure, long now) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+
+        if (recorded >= minimumCalls && failures * 100L >= (long) failureRateThreshold * recorded) {
+            logger.warn("Disjoncteur {}: taux d'échec {}% sur {} appels, ouverture pour {} s",
+                    name, failures * 100 / recorded, recorded, TimeUnit.NANOSECONDS.toSeconds(openNanos));
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        transition(State.OPEN);
+        openedAt = now;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        Arrays.fill(window, false);
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transition(State target) {
+        if (state != target) {
+            logger.info("Disjoncteur {}: {} -> {}", name, state, target);
+            state = target;
+        }
+    }
+}
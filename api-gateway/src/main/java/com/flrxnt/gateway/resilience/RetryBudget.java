@@ -0,0 +1,92 @@
+package com.flrxnt.gateway.resilience;
+
+/**
+ * Budget de nouvelles tentatives : sur une fenêtre glissante de dix secondes, les nouvelles
+ * tentatives ne peuvent dépasser une part des requêtes reçues, plus un minimum par seconde
+ * pour les routes peu sollicitées.
+ *
+ * Contrairement à un nombre fixe de tentatives par requête, le budget borne le trafic
+ * supplémentaire envoyé à un service déjà en difficulté. Il borne de même les requêtes de
+ * couverture (hedging).
+ *
+ * Les instants sont exprimés en {@link System#nanoTime()}.
+ */
+public final class RetryBudget {
+
+    private static final int BUCKETS = 10;
+    private static final long BUCKET_NANOS = 1_000_000_000L;
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+
+    // Compteurs par seconde, tampons circulaires indexés par numéro de seconde
+    private final long[] requests = new long[BUCKETS];
+    private final long[] retries = new long[BUCKETS];
+    private long currentBucket;
+
+    /**
+     * @param ratio part des requêtes pouvant donner lieu à une nouvelle tentative (0.2 : 20 %)
+     * @param minRetriesPerSecond nouvelles tentatives toujours admises par seconde
+     */
+    public RetryBudget(double ratio, double minRetriesPerSecond, long now) {
+        if (ratio < 0 || minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("Le budget de nouvelles tentatives ne peut être négatif");
+        }
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.currentBucket = Math.floorDiv(now, BUCKET_NANOS);
+    }
+
+    /**
+     * Compte une requête reçue (première tentative), qui alimente le budget.
+     */
+    public synchronized void onRequest(long now) {
+        requests[advance(now)]++;
+    }
+
+    /**
+     * Prélève une nouvelle tentative sur le budget.
+     *
+     * @return false si le budget est épuisé
+     */
+    public synchronized boolean tryRetry(long now) {
+        int bucket = advance(now);
+        double allowed = ratio * sum(requests) + minRetriesPerSecond * BUCKETS;
+        if (sum(retries) + 1 > allowed) {
+            return false;
+        }
+        retries[bucket]++;
+        return true;
+    }
+
+    /**
+     * Nouvelles tentatives rapportées aux requêtes de la fenêtre.
+     */
+    public synchronized double usage(long now) {
+        advance(now);
+        long total = sum(requests);
+        return total == 0 ? 0 : (double) sum(retries) / total;
+    }
+
+    private int advance(long now) {
+        long bucket = Math.floorDiv(now, BUCKET_NANOS);
+        if (bucket > currentBucket) {
+            long stale = Math.min(bucket - currentBucket, BUCKETS);
+            for (long b = bucket - stale + 1; b <= bucket; b++) {
+                int index = (int) Math.floorMod(b, BUCKETS);
+                requests[index] = 0;
+                retries[index] = 0;
+            }
+            currentBucket = bucket;
+        }
+        return (int) Math.floorMod(currentBucket, BUCKETS);
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
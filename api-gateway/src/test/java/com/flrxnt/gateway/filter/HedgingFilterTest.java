@@ -0,0 +1,96 @@
+package com.flrxnt.gateway.filter;
+
+import com.sun.net.httpserver.HttpExchange;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requêtes de couverture devant deux instances d'un service, dont une lente.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.server.webflux.discovery.locator.enabled=false",
+        "app.gateway.hedging.routes.hedging-test.min-samples=0",
+        "app.gateway.hedging.routes.hedging-test.min-delay=100ms",
+        "app.gateway.hedging.routes.hedging-test.budget-ratio=1"
+})
+class HedgingFilterTest {
+
+    private static final long SLOW_MILLIS = 1500;
+
+    private static final StubUpstream slow = new StubUpstream();
+    private static final StubUpstream fast = new StubUpstream();
+
+    static {
+        slow.reset(exchange -> {
+            try {
+                Thread.sleep(SLOW_MILLIS);
+                sendInstance(exchange, "slow");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // Appel annulé par le Gateway
+            }
+        });
+        fast.reset(exchange -> sendInstance(exchange, "fast"));
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.hedged-service[0].uri", slow::uri);
+        registry.add("spring.cloud.discovery.client.simple.instances.hedged-service[1].uri", fast::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "hedging-test");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> "lb://hedged-service");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/test/hedged/**");
+    }
+
+    @AfterAll
+    static void stopUpstreams() {
+        slow.stop();
+        fast.stop();
+    }
+
+    @Test
+    void slowInstanceIsHedgedToAnotherInstance() {
+        WebTestClient client = webTestClient.mutate().responseTimeout(Duration.ofSeconds(5)).build();
+
+        for (int i = 0; i < 4; i++) {
+            long start = System.nanoTime();
+            client.get().uri("/test/hedged/{i}", i).exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo("{\"instance\":\"fast\"}");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(SLOW_MILLIS));
+        }
+
+        // Tourniquet du load balancer : la moitié des requêtes part d'abord vers l'instance lente
+        assertThat(slow.calls()).isGreaterThanOrEqualTo(2);
+        double won = meterRegistry.get("gateway.hedging.requests")
+                .tags("route", "hedging-test", "result", "won")
+                .functionCounter().count();
+        assertThat(won).isGreaterThanOrEqualTo(2);
+        // Seules les requêtes principales retenues mesurent la latence, jamais les copies
+        assertThat(meterRegistry.get("gateway.hedging.latency").tags("route", "hedging-test").timer().count())
+                .isEqualTo(4 - (long) won);
+    }
+
+    private static void sendInstance(HttpExchange exchange, String instance) throws IOException {
+        StubUpstream.sendJson(exchange, 200, "{\"instance\":\"" + instance + "\"}");
+    }
+}
@@ -0,0 +1,63 @@
+package com.flrxnt.gateway.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Limitation de débit par client : l'identité vient de la connexion, pas de l'en-tête déclaré.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.server.webflux.discovery.locator.enabled=false",
+        "app.gateway.rate-limit.routes.rate-limit-test.client.rate=0.1",
+        "app.gateway.rate-limit.routes.rate-limit-test.client.burst=2"
+})
+class RateLimitFilterTest {
+
+    private static final StubUpstream upstream = new StubUpstream();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "rate-limit-test");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", upstream::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/test/limited/**");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop();
+    }
+
+    @BeforeEach
+    void echoUpstream() {
+        upstream.reset(StubUpstream::echoPath);
+    }
+
+    @Test
+    void rotatingTheClientHeaderDoesNotBypassTheClientLimit() {
+        get("client-a").expectStatus().isOk();
+        get("client-b").expectStatus().isOk();
+        get("client-c").expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().exists("Retry-After");
+        webTestClient.get().uri("/test/limited/1").exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        assertThat(upstream.calls()).isEqualTo(2);
+    }
+
+    private WebTestClient.ResponseSpec get(String clientId) {
+        return webTestClient.get().uri("/test/limited/1").header("X-Client-Id", clientId).exchange();
+    }
+}
@@ -0,0 +1,90 @@
+package com.flrxnt.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timer des requêtes du Gateway devant un service amont simulé, consulté via l'actuator.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.server.webflux.discovery.locator.enabled=false"
+})
+class RequestMetricsFilterTest {
+
+    private static final StubUpstream upstream = new StubUpstream();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "metrics-test");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", upstream::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/test/timed/**");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop();
+    }
+
+    @BeforeEach
+    void resetUpstream() {
+        upstream.reset(exchange -> {
+            if (exchange.getRequestURI().getPath().endsWith("/missing")) {
+                StubUpstream.sendEmpty(exchange, 404);
+            } else {
+                StubUpstream.echoPath(exchange);
+            }
+        });
+    }
+
+    @Test
+    void requestsAreTimedPerRouteStatusClassAndInstance() throws InterruptedException {
+        webTestClient.get().uri("/test/timed/1").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/test/timed/2").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/test/timed/missing").exchange().expectStatus().isNotFound();
+
+        String instance = URI.create(upstream.uri()).getAuthority();
+        assertThat(awaitCount("2xx", instance, 2)).isEqualTo(2);
+        assertThat(awaitCount("4xx", instance, 1)).isEqualTo(1);
+        assertThat(meterRegistry.find(RequestMetricsFilter.METRIC_NAME + ".percentile")
+                .tags("route", "metrics-test", "phi", "0.99").gauges()).isNotEmpty();
+
+        webTestClient.get()
+                .uri("/actuator/metrics/{name}?tag=route:metrics-test&tag=status:2xx", RequestMetricsFilter.METRIC_NAME)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").isEqualTo(2.0);
+    }
+
+    // Le timer est mis à jour à la fin du traitement, éventuellement après réception de la réponse
+    private long awaitCount(String status, String instance, long expected) throws InterruptedException {
+        long count = 0;
+        for (int i = 0; i < 50 && count < expected; i++) {
+            Thread.sleep(20);
+            Timer timer = meterRegistry.find(RequestMetricsFilter.METRIC_NAME)
+                    .tags("route", "metrics-test", "status", status, "instance", instance)
+                    .timer();
+            count = timer != null ? timer.count() : 0;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,174 @@
+package com.flrxnt.gateway.filter;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nouvelles tentatives et disjoncteur du Gateway devant un service amont simulé.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.server.webflux.discovery.locator.enabled=false",
+        "app.gateway.resilience.routes.resilience-retry.retry.backoff=0s",
+        "app.gateway.resilience.routes.resilience-slow.timeout=200ms",
+        "app.gateway.resilience.routes.resilience-slow.retry.backoff=0s",
+        "app.gateway.resilience.routes.resilience-streamed.timeout=200ms",
+        "app.gateway.resilience.routes.resilience-breaker.retry.max-attempts=1",
+        "app.gateway.resilience.routes.resilience-breaker.circuit-breaker.sliding-window-size=2",
+        "app.gateway.resilience.routes.resilience-breaker.circuit-breaker.minimum-calls=2",
+        "app.gateway.resilience.routes.resilience-breaker.circuit-breaker.open-duration=1m",
+        "app.gateway.cache.routes.resilience-breaker.ttl=0s",
+        "app.gateway.cache.routes.resilience-breaker.stale-while-revalidate=0s",
+        "app.gateway.cache.routes.resilience-breaker.stale-if-error=0s"
+})
+class ResilienceFilterTest {
+
+    private static final StubUpstream upstream = new StubUpstream();
+
+    // Nombre de réponses en échec à rendre avant de répondre normalement
+    private static final AtomicInteger failuresToServe = new AtomicInteger();
+    private static volatile int failureStatus;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "resilience-retry");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", upstream::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/test/retried/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].id", () -> "resilience-breaker");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].uri", upstream::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].predicates[0]", () -> "Path=/test/guarded/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[2].id", () -> "resilience-slow");
+        registry.add("spring.cloud.gateway.server.webflux.routes[2].uri", upstream::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[2].predicates[0]", () -> "Path=/test/slow/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[3].id", () -> "resilience-streamed");
+        registry.add("spring.cloud.gateway.server.webflux.routes[3].uri", upstream::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[3].predicates[0]", () -> "Path=/test/streamed/**");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop();
+    }
+
+    @BeforeEach
+    void resetUpstream() {
+        upstream.reset(ResilienceFilterTest::handle);
+        failuresToServe.set(0);
+    }
+
+    @Test
+    void transientFailureIsRetriedForIdempotentRequests() {
+        failureStatus = 503;
+        failuresToServe.set(1);
+
+        webTestClient.get().uri("/test/retried/1").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"path\":\"/test/retried/1\"}");
+        assertThat(upstream.calls()).isEqualTo(2);
+
+        failuresToServe.set(1);
+        webTestClient.post().uri("/test/retried/1").exchange().expectStatus().isEqualTo(503);
+        assertThat(upstream.calls()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteIsRetriedOnlyWhenTheUpstreamDidNotProcessIt() throws InterruptedException {
+        failureStatus = 503;
+        failuresToServe.set(1);
+        webTestClient.delete().uri("/test/retried/1").exchange().expectStatus().isOk();
+        assertThat(upstream.calls()).isEqualTo(2);
+
+        // 504 : la suppression a pu aboutir en amont
+        failureStatus = 504;
+        failuresToServe.set(1);
+        webTestClient.delete().uri("/test/retried/1").exchange().expectStatus().isEqualTo(504);
+        assertThat(upstream.calls()).isEqualTo(3);
+
+        // Délai de la route dépassé : la première tentative s'exécute encore en amont
+        webTestClient.delete().uri("/test/slow/1").exchange().expectStatus().isEqualTo(504);
+        Thread.sleep(100);
+        assertThat(upstream.calls()).isEqualTo(4);
+    }
+
+    @Test
+    void streamedBodyIsNotCutByTheRouteTimeout() {
+        // Corps transmis en 500 ms environ, au-delà du délai de 200 ms de la route
+        webTestClient.get().uri("/test/streamed/export").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("0\n1\n2\n3\n4\n");
+        assertThat(upstream.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void openBreakerServesLastKnownGoodCopy() {
+        webTestClient.get().uri("/test/guarded/1").exchange().expectStatus().isOk();
+
+        // Un échec sur les deux derniers appels : taux de 50 %, le disjoncteur s'ouvre
+        failureStatus = 500;
+        failuresToServe.set(1);
+        webTestClient.get().uri("/test/guarded/1").exchange().expectStatus().isEqualTo(500);
+        assertThat(upstream.calls()).isEqualTo(2);
+
+        // Disjoncteur ouvert : aucun appel amont
+        webTestClient.get().uri("/test/guarded/1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", ResilienceFilter.FALLBACK_CACHE_STATUS)
+                .expectBody(String.class).isEqualTo("{\"path\":\"/test/guarded/1\"}");
+        webTestClient.get().uri("/test/guarded/3").exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+        assertThat(upstream.calls()).isEqualTo(2);
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getPath().startsWith("/test/streamed/")) {
+            stream(exchange);
+            return;
+        }
+        if (exchange.getRequestURI().getPath().startsWith("/test/slow/")) {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failuresToServe.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            StubUpstream.sendEmpty(exchange, failureStatus);
+            return;
+        }
+        exchange.getResponseHeaders().set(HttpHeaders.ETAG, "\"v1\"");
+        StubUpstream.echoPath(exchange);
+    }
+
+    private static void stream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            for (int i = 0; i < 5; i++) {
+                body.write((i + "\n").getBytes(StandardCharsets.UTF_8));
+                body.flush();
+                Thread.sleep(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.flrxnt.gateway.filter;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de réponses du Gateway devant un service amont simulé.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.server.webflux.discovery.locator.enabled=false",
+        "app.gateway.cache.routes.cache-test.ttl=1m",
+        "app.gateway.cache.routes.cache-revalidate.ttl=0s",
+        "app.gateway.cache.routes.cache-revalidate.stale-while-revalidate=0s",
+        "app.gateway.cache.routes.cache-revalidate.stale-if-error=5m"
+})
+class ResponseCacheFilterTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final StubUpstream upstream = new StubUpstream();
+    private static volatile boolean upstreamFailing;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        String uri = upstream.uri();
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "cache-test");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/test/cached/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].id", () -> "cache-revalidate");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].predicates[0]", () -> "Path=/test/revalidated/**");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop();
+    }
+
+    @BeforeEach
+    void resetUpstream() {
+        upstream.reset(ResponseCacheFilterTest::handle);
+        upstreamFailing = false;
+    }
+
+    @Test
+    void freshCopyIsServedWithoutUpstreamCall() {
+        get("/test/cached/1").expectStatus().isOk().expectHeader().valueEquals("X-Cache", "MISS");
+        get("/test/cached/1").expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, ETAG)
+                .expectBody(String.class).isEqualTo("{\"path\":\"/test/cached/1\"}");
+
+        webTestClient.get().uri("/test/cached/1").header(HttpHeaders.IF_NONE_MATCH, ETAG)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        assertThat(upstream.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredCopyIsRevalidatedWithEtag() {
+        get("/test/revalidated/2").expectStatus().isOk();
+        get("/test/revalidated/2").expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "REVALIDATED")
+                .expectBody(String.class).isEqualTo("{\"path\":\"/test/revalidated/2\"}");
+
+        assertThat(upstream.calls()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredCopyIsServedWhenUpstreamFails() {
+        get("/test/revalidated/3").expectStatus().isOk();
+        upstreamFailing = true;
+
+        get("/test/revalidated/3").expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "STALE")
+                .expectBody(String.class).isEqualTo("{\"path\":\"/test/revalidated/3\"}");
+        get("/test/revalidated/uncached").expectStatus().is5xxServerError();
+    }
+
+    private WebTestClient.ResponseSpec get(String path) {
+        return webTestClient.get().uri(path).exchange();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        if (upstreamFailing) {
+            StubUpstream.sendEmpty(exchange, 500);
+            return;
+        }
+        exchange.getResponseHeaders().set(HttpHeaders.ETAG, ETAG);
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            StubUpstream.sendEmpty(exchange, 304);
+            return;
+        }
+        StubUpstream.echoPath(exchange);
+    }
+}
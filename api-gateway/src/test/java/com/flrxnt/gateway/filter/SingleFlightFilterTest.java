@@ -0,0 +1,87 @@
+package com.flrxnt.gateway.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regroupement des GET identiques simultanés devant un service amont lent.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.server.webflux.discovery.locator.enabled=false",
+        "app.gateway.single-flight.routes=single-flight-test"
+})
+class SingleFlightFilterTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    private static final StubUpstream upstream = new StubUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "single-flight-test");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", upstream::uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/test/coalesced/**");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop();
+    }
+
+    @BeforeEach
+    void slowUpstream() {
+        upstream.reset(exchange -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubUpstream.echoPath(exchange);
+        });
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        List<String> bodies = getConcurrently("/test/coalesced/1");
+
+        assertThat(bodies).hasSize(CONCURRENT_REQUESTS)
+                .containsOnly("{\"path\":\"/test/coalesced/1\"}");
+        assertThat(upstream.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void distinctQueriesAreNotCoalesced() {
+        getConcurrently("/test/coalesced/2?page=0");
+        getConcurrently("/test/coalesced/2?page=1");
+
+        assertThat(upstream.calls()).isEqualTo(2);
+    }
+
+    private List<String> getConcurrently(String path) {
+        WebClient client = webClientBuilder.baseUrl("http://localhost:" + port).build();
+        return Flux.range(0, CONCURRENT_REQUESTS)
+                .flatMap(i -> client.get().uri(path).retrieve().bodyToMono(String.class))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,82 @@
+package com.flrxnt.gateway.filter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service amont simulé pour les tests des filtres du Gateway : compte les appels reçus
+ * et délègue la réponse au gestionnaire courant.
+ */
+final class StubUpstream {
+
+    /**
+     * Gestionnaire de requête du service simulé.
+     */
+    @FunctionalInterface
+    interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private final HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile Handler handler = StubUpstream::echoPath;
+
+    StubUpstream() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            calls.incrementAndGet();
+            handler.handle(exchange);
+        });
+        server.start();
+    }
+
+    String uri() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    void reset(Handler handler) {
+        this.handler = handler;
+        calls.set(0);
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Réponse JSON {"path": "<chemin demandé>"}.
+     */
+    static void echoPath(HttpExchange exchange) throws IOException {
+        sendJson(exchange, 200, "{\"path\":\"" + exchange.getRequestURI().getPath() + "\"}");
+    }
+
+    static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+}
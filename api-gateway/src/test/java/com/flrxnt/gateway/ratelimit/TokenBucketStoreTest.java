@@ -0,0 +1,32 @@
+package com.flrxnt.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Table des seaux : bornée quel que soit le nombre de clés distinctes.
+ */
+class TokenBucketStoreTest {
+
+    @Test
+    void distinctKeysNeverGrowTheStoreBeyondItsBound() {
+        TokenBucketStore store = new TokenBucketStore(100);
+
+        for (int i = 0; i < 10_000; i++) {
+            // Seaux entamés : aucun n'est plein, tous doivent pourtant pouvoir être évincés
+            store.bucket("route|client-" + i, 1, 10, 0).tryAcquire(0);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void existingBucketIsReturnedForTheSameKey() {
+        TokenBucketStore store = new TokenBucketStore(100);
+
+        TokenBucket bucket = store.bucket("route|client", 1, 10, 0);
+
+        assertThat(store.bucket("route|client", 1, 10, 0)).isSameAs(bucket);
+    }
+}
@@ -0,0 +1,80 @@
+package com.flrxnt.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seau à jetons GCRA : rafale, régénération et prélèvements concurrents.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAdmittedThenRateApplies() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 5, now);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(now)).isZero();
+        }
+        long wait = bucket.tryAcquire(now);
+        assertThat(wait).isEqualTo(SECOND / 10);
+
+        assertThat(bucket.tryAcquire(now + wait)).isZero();
+        assertThat(bucket.tryAcquire(now + wait)).isPositive();
+    }
+
+    @Test
+    void idleBucketRefillsUpToCapacityOnly() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+        assertThat(bucket.isFull(0)).isFalse();
+
+        long later = 10 * SECOND;
+        assertThat(bucket.isFull(later)).isTrue();
+        int granted = 0;
+        while (bucket.tryAcquire(later) == 0) {
+            granted++;
+        }
+        assertThat(granted).isEqualTo(3);
+    }
+
+    @Test
+    void refundedTokenIsAvailableAgain() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        assertThat(bucket.tryAcquire(0)).isZero();
+        bucket.refund();
+        assertThat(bucket.tryAcquire(0)).isZero();
+    }
+
+    @Test
+    void concurrentAcquisitionsNeverExceedCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(0.001, 1000, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertThat(granted).hasValue(1000);
+    }
+}
@@ -21,6 +21,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @RestController
@@ -60,6 +64,7 @@ public class CustomerController {
     @Operation(summary = "Obtenir un client par ID", description = "Récupère les détails d'un client spécifique par son identifiant")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Client trouvé"),
+            @ApiResponse(responseCode = "304", description = "Client inchangé depuis la version désignée par If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Client non trouvé")
     })
     @GetMapping("/{id}")
@@ -70,7 +75,23 @@ public class CustomerController {
 
         CustomerDTO customer = customerService.getCustomerById(id);
 
-        return ResponseEntity.ok(customer);
+        return withValidators(ResponseEntity.ok(), customer).body(customer);
+    }
+
+    @Operation(summary = "Obtenir plusieurs clients par ID", description = "Récupère en un seul appel les clients correspondant aux IDs fournis (les IDs inconnus sont ignorés)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clients trouvés"),
+            @ApiResponse(responseCode = "400", description = "Liste d'IDs invalide ou trop longue")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerDTO>> getCustomersByIds(
+            @Parameter(description = "Liste des IDs des clients", required = true) @RequestBody List<Long> ids) {
+
+        logger.debug("Requête de récupération groupée des clients: {}", ids);
+
+        List<CustomerDTO> customers = customerService.getCustomersByIds(ids);
+
+        return ResponseEntity.ok(customers);
     }
 
     @Operation(summary = "Obtenir un client par email", description = "Récupère les détails d'un client par son adresse email")
@@ -138,10 +159,15 @@ public class CustomerController {
             @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Champ de tri") @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Direction du tri (asc ou desc)") @RequestParam(defaultValue = "asc") String sortDir,
-            @Parameter(description = "Utiliser la pagination") @RequestParam(defaultValue = "true") boolean paginated) {
+            @Parameter(description = "Utiliser la pagination") @RequestParam(defaultValue = "true") boolean paginated,
+            @Parameter(description = "Curseur de pagination (vide pour la première page) : active la pagination par curseur, triée par ID et sans comptage") @RequestParam(required = false) String after) {
 
         logger.debug("Requête de récupération de tous les clients. Pagination: {}", paginated);
 
+        if (after != null) {
+            return ResponseEntity.ok(customerService.getCustomersAfter(after, size));
+        }
+
         if (!paginated) {
             List<CustomerDTO> customers = customerService.getAllCustomers();
             return ResponseEntity.ok(customers);
@@ -294,4 +320,18 @@ public class CustomerController {
 
         return ResponseEntity.ok(customer);
     }
+
+    /**
+     * Ajoute les validateurs HTTP d'un client : les requêtes conditionnelles (If-None-Match,
+     * If-Modified-Since) dont la version est à jour reçoivent un 304 sans corps.
+     */
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, CustomerDTO customer) {
+        if (customer.getDateModification() == null) {
+            return builder;
+        }
+        ZonedDateTime modification = customer.getDateModification().atZone(ZoneId.systemDefault());
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, modification.toInstant());
+        return builder.eTag(customer.getId() + "-" + Long.toHexString(micros))
+                .lastModified(modification);
+    }
 }
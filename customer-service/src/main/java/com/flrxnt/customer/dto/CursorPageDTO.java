@@ -0,0 +1,67 @@
+package com.flrxnt.customer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Page de résultats en pagination par curseur (keyset) : pas de nombre total d'éléments,
+ * la page suivante s'obtient en passant {@code nextCursor} dans le paramètre {@code after}.
+ */
+@Schema(description = "Page de résultats en pagination par curseur")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Éléments de la page")
+    private List<T> content;
+
+    @Schema(description = "Taille de page demandée", example = "10")
+    private int size;
+
+    @Schema(description = "Curseur opaque de la page suivante (null sur la dernière page)")
+    private String nextCursor;
+
+    @Schema(description = "Indique s'il existe une page suivante", example = "true")
+    private boolean hasNext;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
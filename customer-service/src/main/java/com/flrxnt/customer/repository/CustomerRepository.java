@@ -1,6 +1,7 @@
 package com.flrxnt.customer.repository;
 
 import com.flrxnt.customer.entity.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,6 +15,14 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    /**
+     * Pagination par curseur : clients d'ID strictement supérieur, triés par ID
+     * @param id l'ID du dernier client de la page précédente
+     * @param limit nombre maximal de clients
+     * @return les clients suivants
+     */
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     /**
      * Recherche un client par son email
      * @param email l'email du client
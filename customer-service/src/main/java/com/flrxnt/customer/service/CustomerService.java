@@ -1,5 +1,6 @@
 package com.flrxnt.customer.service;
 
+import com.flrxnt.customer.dto.CursorPageDTO;
 import com.flrxnt.customer.dto.CustomerCreateDTO;
 import com.flrxnt.customer.dto.CustomerDTO;
 import com.flrxnt.customer.dto.CustomerUpdateDTO;
@@ -8,6 +9,7 @@ import com.flrxnt.customer.exception.CustomerNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CustomerService {
@@ -28,6 +30,14 @@ public interface CustomerService {
      */
     CustomerDTO getCustomerById(Long id);
 
+    /**
+     * Récupère plusieurs clients en une seule requête
+     * @param ids les IDs des clients (les IDs inconnus sont ignorés)
+     * @return la liste des clients trouvés
+     * @throws IllegalArgumentException si la liste est null ou trop longue
+     */
+    List<CustomerDTO> getCustomersByIds(Collection<Long> ids);
+
     /**
      * Récupère un client par son email
      * @param email l'email du client
@@ -66,6 +76,15 @@ public interface CustomerService {
      */
     List<CustomerDTO> getAllCustomers();
 
+    /**
+     * Récupère une page de clients triés par ID à partir d'un curseur (pagination keyset, sans comptage)
+     * @param after curseur retourné par la page précédente, null ou vide pour la première page
+     * @param size taille de la page
+     * @return page des clients avec le curseur de la page suivante
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    CursorPageDTO<CustomerDTO> getCustomersAfter(String after, int size);
+
     /**
      * Recherche des clients par nom
      * @param nom le nom ou partie du nom à rechercher
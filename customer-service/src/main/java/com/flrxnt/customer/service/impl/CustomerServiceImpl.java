@@ -1,5 +1,6 @@
 package com.flrxnt.customer.service.impl;
 
+import com.flrxnt.customer.dto.CursorPageDTO;
 import com.flrxnt.customer.dto.CustomerCreateDTO;
 import com.flrxnt.customer.dto.CustomerDTO;
 import com.flrxnt.customer.dto.CustomerUpdateDTO;
@@ -13,13 +14,19 @@ import com.flrxnt.customer.util.ValidationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -27,6 +34,12 @@ public class CustomerServiceImpl implements CustomerService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerServiceImpl.class);
 
+    // Nombre maximum d'IDs acceptés par une requête de récupération groupée
+    static final int MAX_BATCH_SIZE = 100;
+
+    // Taille maximale d'une page en pagination par curseur
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
 
@@ -89,6 +102,37 @@ public class CustomerServiceImpl implements CustomerService {
         return customerMapper.toDTO(customer);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> getCustomersByIds(Collection<Long> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("La liste des IDs ne peut pas être nulle");
+        }
+
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> id > 0)
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Le nombre d'IDs demandés ne peut pas dépasser " + MAX_BATCH_SIZE);
+        }
+
+        logger.debug("Récupération groupée de {} clients", distinctIds.size());
+
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Une seule requête SELECT ... WHERE id IN (...)
+        List<Customer> customers = customerRepository.findAllById(distinctIds);
+
+        logger.debug("Nombre de clients trouvés: {}/{}", customers.size(), distinctIds.size());
+
+        return customerMapper.toDTOList(customers);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CustomerDTO getCustomerByEmail(String email) {
@@ -215,6 +259,30 @@ public class CustomerServiceImpl implements CustomerService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerDTO> getCustomersAfter(String after, int size) {
+        int pageSize = Math.min(Math.max(1, size), MAX_CURSOR_PAGE_SIZE);
+        long afterId = decodeCursor(after);
+
+        logger.debug("Récupération des clients après l'ID {} - taille: {}", afterId, pageSize);
+
+        try {
+            // Un élément de plus que la taille de page pour savoir s'il existe une page suivante
+            List<Customer> customers = customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+
+            boolean hasNext = customers.size() > pageSize;
+            List<Customer> pageContent = hasNext ? customers.subList(0, pageSize) : customers;
+            String nextCursor = hasNext ? encodeCursor(pageContent.get(pageContent.size() - 1).getId()) : null;
+
+            return new CursorPageDTO<>(customerMapper.toDTOList(pageContent), pageSize, nextCursor);
+
+        } catch (Exception e) {
+            logger.error("Erreur lors de la récupération des clients par curseur", e);
+            throw new RuntimeException("Erreur lors de la récupération des clients", e);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<CustomerDTO> findCustomersByName(String nom) {
@@ -405,4 +473,20 @@ public class CustomerServiceImpl implements CustomerService {
     private boolean isValidEmail(String email) {
         return ValidationUtil.isValidEmail(email);
     }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide: " + cursor);
+        }
+    }
 }
@@ -0,0 +1,214 @@
+package com.flrxnt.order.cache;
+
+import com.flrxnt.order.config.NearCacheProperties;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache local borné pour des données de référence d'un service distant.
+ *
+ * - éviction W-TinyLFU (Caffeine) au-delà de la taille maximale ;
+ * - durée de vie par entrée, plus courte pour les entrées négatives (ID inconnu du service distant) ;
+ * - rechargement asynchrone des entrées consultées après {@code refresh-after} (refresh-ahead) ;
+ * - chargement groupé des clés manquantes via l'endpoint batch du service distant ;
+ * - revalidation par ETag (If-None-Match) des lectures qui exigent une valeur à jour.
+ *
+ * Les données servies peuvent être périmées de {@code ttl} au plus : ce cache est destiné
+ * à l'enrichissement des réponses, pas aux contrôles métier.
+ *
+ * @param <T> le type de DTO mis en cache
+ */
+public class NearCache<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCache.class);
+
+    private final String name;
+    private final LoadingCache<Long, CachedValue<T>> cache;
+
+    public NearCache(String name,
+                     NearCacheProperties.Spec spec,
+                     Function<List<Long>, List<T>> batchLookup,
+                     Function<T, Long> idExtractor,
+                     MeterRegistry meterRegistry) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfter(new CachedValueExpiry<T>(spec.getTtl(), spec.getNegativeTtl()))
+                .refreshAfterWrite(spec.getRefreshAfter())
+                .recordStats()
+                .build(new BatchLoader<>(name, batchLookup, idExtractor));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Récupère une valeur, en la chargeant depuis le service distant si nécessaire.
+     *
+     * @return la valeur, ou null si l'ID est inconnu du service distant
+     */
+    public T get(Long id) {
+        CachedValue<T> cached = cache.get(id);
+        return cached != null ? cached.value() : null;
+    }
+
+    /**
+     * Récupère plusieurs valeurs ; les clés absentes du cache sont chargées en un seul appel groupé.
+     *
+     * @return les valeurs trouvées (les IDs inconnus sont ignorés)
+     */
+    public List<T> findByIds(Collection<Long> ids) {
+        return cache.getAll(ids).values().stream()
+                .map(CachedValue::value)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Récupère une valeur à jour par une requête conditionnelle au service distant : la copie
+     * en cache est présentée avec son ETag, et resservie sans transfert du corps si le service
+     * répond 304. Les entrées chargées par l'endpoint batch n'ont pas d'ETag ; leur première
+     * revalidation est une requête complète.
+     *
+     * @param conditionalLookup appel distant (identifiant, ETag de la copie en cache ou null)
+     * @return la valeur à jour, ou null si le service distant n'en retourne pas
+     */
+    public T revalidate(Long id, BiFunction<Long, String, ResponseEntity<T>> conditionalLookup) {
+        CachedValue<T> cached = cache.getIfPresent(id);
+        String etag = cached != null && cached.value() != null ? cached.etag() : null;
+
+        ResponseEntity<T> response = conditionalLookup.apply(id, etag);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && etag != null) {
+            // Copie confirmée à jour : sa durée de vie repart
+            cache.put(id, cached);
+            return cached.value();
+        }
+
+        T value = response.getBody();
+        if (value != null) {
+            cache.put(id, CachedValue.of(value, response.getHeaders().getETag()));
+        }
+        return value;
+    }
+
+    /**
+     * Enregistre une valeur obtenue directement du service distant.
+     */
+    public void put(Long id, T value) {
+        if (id != null && value != null) {
+            cache.put(id, CachedValue.of(value));
+        }
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Valeur mise en cache et son ETag éventuel. Une valeur null représente une entrée négative.
+     */
+    record CachedValue<T>(T value, String etag) {
+
+        static <T> CachedValue<T> of(T value) {
+            return new CachedValue<>(value, null);
+        }
+
+        static <T> CachedValue<T> of(T value, String etag) {
+            return new CachedValue<>(value, etag);
+        }
+
+        static <T> CachedValue<T> absent() {
+            return new CachedValue<>(null, null);
+        }
+    }
+
+    /**
+     * Durée de vie dépendante de l'entrée : courte pour les entrées négatives.
+     */
+    private static final class CachedValueExpiry<T> implements Expiry<Long, CachedValue<T>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        CachedValueExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, CachedValue<T> value, long currentTime) {
+            return value.value() != null ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, CachedValue<T> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, CachedValue<T> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Chargeur s'appuyant exclusivement sur l'endpoint batch : un ID absent de la réponse
+     * donne une entrée négative, les erreurs distantes ne sont pas mises en cache.
+     */
+    private static final class BatchLoader<T> implements CacheLoader<Long, CachedValue<T>> {
+
+        private final String name;
+        private final Function<List<Long>, List<T>> batchLookup;
+        private final Function<T, Long> idExtractor;
+
+        BatchLoader(String name, Function<List<Long>, List<T>> batchLookup, Function<T, Long> idExtractor) {
+            this.name = name;
+            this.batchLookup = batchLookup;
+            this.idExtractor = idExtractor;
+        }
+
+        @Override
+        public CachedValue<T> load(Long key) {
+            return loadAll(Set.of(key)).get(key);
+        }
+
+        @Override
+        public Map<Long, CachedValue<T>> loadAll(Set<? extends Long> keys) {
+            logger.debug("Cache {}: chargement de {} entrées", name, keys.size());
+
+            List<T> found = batchLookup.apply(new ArrayList<>(keys));
+
+            Map<Long, CachedValue<T>> loaded = new HashMap<>();
+            if (found != null) {
+                found.forEach(value -> loaded.put(idExtractor.apply(value), CachedValue.of(value)));
+            }
+            for (Long key : keys) {
+                loaded.computeIfAbsent(key, k -> CachedValue.absent());
+            }
+            return loaded;
+        }
+    }
+}
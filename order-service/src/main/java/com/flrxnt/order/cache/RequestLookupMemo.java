@@ -0,0 +1,108 @@
+package com.flrxnt.order.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mémorisation des DTO distants résolus pendant une requête entrante.
+ *
+ * Chaque ID distinct n'est résolu qu'une fois par requête, indépendamment du cache local
+ * partagé. Le mémo est stocké dans les attributs de la requête courante ; il doit être obtenu
+ * via {@link #current()} dans le thread de la requête puis transmis explicitement aux tâches
+ * exécutées sur d'autres threads. Hors requête HTTP, un mémo vide et éphémère est retourné.
+ *
+ * Le nombre d'appels évités est publié dans la métrique {@code order.lookup.memo.avoided}.
+ */
+@Component
+public class RequestLookupMemo {
+
+    private static final String ATTRIBUTE = RequestLookupMemo.class.getName() + ".MEMO";
+
+    private final MeterRegistry meterRegistry;
+
+    // Compteur des appels évités, résolu une fois par type de ressource
+    private final Map<String, Counter> avoidedCalls = new ConcurrentHashMap<>();
+
+    public RequestLookupMemo(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Retourne le mémo de la requête courante, en le créant au premier appel.
+     */
+    public Memo current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new Memo();
+        }
+
+        synchronized (attributes) {
+            Memo memo = (Memo) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (memo == null) {
+                memo = new Memo();
+                attributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+            }
+            return memo;
+        }
+    }
+
+    /**
+     * Valeurs résolues pour une requête, regroupées par type de ressource. Thread-safe.
+     */
+    public final class Memo {
+
+        private final Map<String, Map<Long, Object>> values = new ConcurrentHashMap<>();
+
+        private Memo() {
+        }
+
+        /**
+         * Retourne les valeurs déjà résolues parmi les IDs demandés et comptabilise les appels évités.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Map<Long, T> lookup(String resource, Collection<Long> ids) {
+            Map<Long, Object> known = values.get(resource);
+            Map<Long, T> found = new HashMap<>();
+            if (known == null) {
+                return found;
+            }
+
+            for (Long id : ids) {
+                Object value = known.get(id);
+                if (value != null) {
+                    found.put(id, (T) value);
+                }
+            }
+
+            if (!found.isEmpty()) {
+                avoidedCalls(resource).increment(found.size());
+            }
+            return found;
+        }
+
+        public void put(String resource, Long id, Object value) {
+            if (id != null && value != null) {
+                values.computeIfAbsent(resource, r -> new ConcurrentHashMap<>()).put(id, value);
+            }
+        }
+
+        public void putAll(String resource, Map<Long, ?> resolved) {
+            resolved.forEach((id, value) -> put(resource, id, value));
+        }
+    }
+
+    private Counter avoidedCalls(String resource) {
+        return avoidedCalls.computeIfAbsent(resource, r -> Counter.builder("order.lookup.memo.avoided")
+                .description("Résolutions d'IDs évitées grâce au mémo de requête")
+                .tag("resource", r)
+                .register(meterRegistry));
+    }
+}
@@ -2,8 +2,15 @@ package com.flrxnt.order.client;
 
 import com.flrxnt.order.dto.ClientDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
 
 /**
  * Client Feign pour la communication avec le service Customer.
@@ -20,11 +27,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 public interface ClientServiceClient {
 
     /**
-     * Récupère un client par son identifiant.
+     * Récupère un client par son identifiant, conditionnellement à la version déjà connue.
      *
      * @param id l'identifiant du client
-     * @return le DTO du client
+     * @param ifNoneMatch l'ETag de la copie locale, ou null pour une requête inconditionnelle
+     * @return le DTO du client et son ETag, ou une réponse 304 sans corps si la copie locale est à jour
      */
     @GetMapping("/{id}")
-    ClientDTO findById(@PathVariable("id") Long id);
+    ResponseEntity<ClientDTO> findById(@PathVariable("id") Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    /**
+     * Récupère plusieurs clients en un seul appel.
+     * Les identifiants inconnus sont ignorés par le service Customer.
+     *
+     * @param ids les identifiants des clients (100 au maximum)
+     * @return les DTO des clients trouvés
+     */
+    @PostMapping("/batch")
+    List<ClientDTO> findByIds(@RequestBody List<Long> ids);
 }
@@ -1,9 +1,18 @@
 package com.flrxnt.order.client;
 
 import com.flrxnt.order.dto.ProductDTO;
+import com.flrxnt.order.dto.StockReservationDTO;
+import com.flrxnt.order.dto.StockReservationResultDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
 
 /**
  * Client Feign pour la communication avec le service Product.
@@ -20,11 +29,61 @@ import org.springframework.web.bind.annotation.PathVariable;
 public interface ProductServiceClient {
 
     /**
-     * Récupère un produit par son identifiant.
+     * Récupère un produit par son identifiant, conditionnellement à la version déjà connue.
      *
      * @param id l'identifiant du produit
-     * @return le DTO du produit
+     * @param ifNoneMatch l'ETag de la copie locale, ou null pour une requête inconditionnelle
+     * @return le DTO du produit et son ETag, ou une réponse 304 sans corps si la copie locale est à jour
      */
     @GetMapping("/{id}")
-    ProductDTO findById(@PathVariable("id") Long id);
+    ResponseEntity<ProductDTO> findById(@PathVariable("id") Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    /**
+     * Récupère plusieurs produits en un seul appel.
+     * Les identifiants inconnus sont ignorés par le service Product.
+     *
+     * @param ids les identifiants des produits (100 au maximum)
+     * @return les DTO des produits trouvés
+     */
+    @PostMapping("/batch")
+    List<ProductDTO> findByIds(@RequestBody List<Long> ids);
+
+    /**
+     * Réserve en une seule transaction le stock de toutes les lignes d'une commande (tout ou rien).
+     * Un refus (HTTP 409) est décodé en {@link com.flrxnt.order.exception.StockReservationException}.
+     *
+     * @param reservation les lignes à réserver (100 produits au maximum)
+     * @return le résultat ligne par ligne, avec nom et prix des produits
+     */
+    @PostMapping("/stock/reserve")
+    StockReservationResultDTO reserveStock(@RequestBody StockReservationDTO reservation);
+
+    /**
+     * Confirme une réservation de stock : le stock reste décompté et la réservation n'expire plus.
+     *
+     * @param reservationId l'identifiant retourné par {@link #reserveStock}
+     * @return la réservation confirmée (HTTP 409 si elle est déjà libérée ou expirée)
+     */
+    @PostMapping("/stock/reservations/{reservationId}/confirm")
+    StockReservationResultDTO confirmReservation(@PathVariable("reservationId") String reservationId);
+
+    /**
+     * Annule la confirmation d'une réservation : elle redevient active et expire à sa date initiale
+     * (sans effet si elle n'est plus confirmée).
+     *
+     * @param reservationId l'identifiant retourné par {@link #reserveStock}
+     * @return la réservation
+     */
+    @PostMapping("/stock/reservations/{reservationId}/unconfirm")
+    StockReservationResultDTO revertConfirmation(@PathVariable("reservationId") String reservationId);
+
+    /**
+     * Libère une réservation de stock et restitue son stock (idempotent).
+     *
+     * @param reservationId l'identifiant retourné par {@link #reserveStock}
+     * @return le résultat ligne par ligne
+     */
+    @PostMapping("/stock/reservations/{reservationId}/release")
+    StockReservationResultDTO releaseReservation(@PathVariable("reservationId") String reservationId);
 }
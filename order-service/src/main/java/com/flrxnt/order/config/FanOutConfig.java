@@ -0,0 +1,33 @@
+package com.flrxnt.order.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool borné partagé pour les appels concurrents vers les services externes.
+ *
+ * Le service tourne en Java 17 (pas de threads virtuels) : on utilise un pool de taille fixe,
+ * la limite par requête étant appliquée au niveau de chaque fan-out.
+ */
+@Configuration
+@EnableConfigurationProperties(FanOutProperties.class)
+public class FanOutConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor fanOutExecutor(FanOutProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("fan-out-");
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        // Pool saturé : l'appelant exécute la tâche lui-même plutôt que d'échouer
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,67 @@
+package com.flrxnt.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés du pool utilisé pour paralléliser les appels vers les services Product et Customer.
+ */
+@ConfigurationProperties(prefix = "app.fan-out")
+public class FanOutProperties {
+
+    // Nombre de threads du pool partagé
+    private int poolSize = 16;
+
+    // Taille de la file d'attente du pool (au-delà, la tâche s'exécute dans le thread appelant)
+    private int queueCapacity = 500;
+
+    // Nombre maximal d'appels distants simultanés pour une même requête entrante
+    private int maxConcurrencyPerRequest = 8;
+
+    // Délai global accordé à l'enrichissement d'un ensemble de commandes
+    private Duration enrichmentTimeout = Duration.ofSeconds(3);
+
+    // Délai global accordé à la validation du client et des produits lors de la création d'une commande
+    private Duration validationTimeout = Duration.ofSeconds(15);
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxConcurrencyPerRequest() {
+        return maxConcurrencyPerRequest;
+    }
+
+    public void setMaxConcurrencyPerRequest(int maxConcurrencyPerRequest) {
+        this.maxConcurrencyPerRequest = maxConcurrencyPerRequest;
+    }
+
+    public Duration getEnrichmentTimeout() {
+        return enrichmentTimeout;
+    }
+
+    public void setEnrichmentTimeout(Duration enrichmentTimeout) {
+        this.enrichmentTimeout = enrichmentTimeout;
+    }
+
+    public Duration getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(Duration validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+}
@@ -1,12 +1,24 @@
 package com.flrxnt.order.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flrxnt.order.dto.StockReservationResultDTO;
+import com.flrxnt.order.exception.StockReservationException;
 import feign.Logger;
 import feign.Request;
+import feign.ResponseInterceptor;
 import feign.Retryer;
 import feign.codec.ErrorDecoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -48,12 +60,36 @@ public class FeignConfig {
         return new Retryer.Default(100, 1000, 3);
     }
 
+    /**
+     * Retourne les réponses 304 (requêtes conditionnelles If-None-Match) sous forme de
+     * {@link ResponseEntity} sans corps, au lieu de les traiter comme des erreurs.
+     * Seules les méthodes retournant une {@code ResponseEntity} sont concernées.
+     */
+    @Bean
+    public ResponseInterceptor notModifiedResponseInterceptor() {
+        return (context, chain) -> {
+            feign.Response response = context.response();
+            if (response.status() != HttpStatus.NOT_MODIFIED.value() || !returnsResponseEntity(context.returnType())) {
+                return chain.next(context);
+            }
+            HttpHeaders headers = new HttpHeaders();
+            response.headers().forEach((name, values) -> headers.addAll(name, List.copyOf(values)));
+            response.close();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        };
+    }
+
+    private static boolean returnsResponseEntity(Type type) {
+        Type raw = type instanceof ParameterizedType parameterized ? parameterized.getRawType() : type;
+        return raw == ResponseEntity.class;
+    }
+
     /**
      * Décodeur d'erreurs personnalisé pour Feign.
      */
     @Bean
-    public ErrorDecoder feignErrorDecoder() {
-        return new CustomFeignErrorDecoder();
+    public ErrorDecoder feignErrorDecoder(ObjectMapper objectMapper) {
+        return new CustomFeignErrorDecoder(objectMapper);
     }
 
     /**
@@ -63,13 +99,33 @@ public class FeignConfig {
     public static class CustomFeignErrorDecoder implements ErrorDecoder {
 
         private final ErrorDecoder defaultErrorDecoder = new Default();
+        private final ObjectMapper objectMapper;
+
+        public CustomFeignErrorDecoder(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
 
         @Override
         public Exception decode(String methodKey, feign.Response response) {
             switch (response.status()) {
+                case 409:
+                    // Réservation de stock refusée : le corps détaille le résultat de chaque ligne
+                    if (methodKey.contains("reserveStock") && response.body() != null) {
+                        try (InputStream body = response.body().asInputStream()) {
+                            StockReservationResultDTO result = objectMapper.readValue(body, StockReservationResultDTO.class);
+                            return new StockReservationException("Réservation de stock refusée", result);
+                        } catch (IOException e) {
+                            return new RuntimeException("Réponse de réservation de stock illisible: " + methodKey, e);
+                        }
+                    }
+                    return defaultErrorDecoder.decode(methodKey, response);
                 case 400:
                     return new IllegalArgumentException("Requête invalide vers " + methodKey);
                 case 404:
+                    // Réservation de stock inconnue : exception Feign typée, traitée par l'appelant
+                    if (methodKey.contains("Reservation")) {
+                        return defaultErrorDecoder.decode(methodKey, response);
+                    }
                     if (methodKey.contains("ClientServiceClient")) {
                         return new RuntimeException("Client non trouvé");
                     } else if (methodKey.contains("ProductServiceClient")) {
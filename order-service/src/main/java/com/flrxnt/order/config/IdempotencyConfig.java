@@ -0,0 +1,14 @@
+package com.flrxnt.order.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les propriétés des clés d'idempotence et la purge périodique des clés expirées.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+}
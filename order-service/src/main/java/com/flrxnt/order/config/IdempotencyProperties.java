@@ -0,0 +1,67 @@
+package com.flrxnt.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés des clés d'idempotence (en-tête {@code Idempotency-Key}) des créations de commande.
+ */
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    // Durée pendant laquelle une clé rejoue la réponse d'origine
+    private Duration ttl = Duration.ofHours(24);
+
+    // Bail d'un traitement en cours : au-delà, une clé restée EN_COURS (instance arrêtée) peut être reprise
+    private Duration processingTimeout = Duration.ofMinutes(1);
+
+    // Nombre maximal de clés conservées dans le cache local placé devant la table
+    private int cacheMaximumSize = 10_000;
+
+    // Attente maximale d'une requête répétée pendant le traitement de la requête d'origine
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    // Intervalle de purge des clés expirées en base
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getProcessingTimeout() {
+        return processingTimeout;
+    }
+
+    public void setProcessingTimeout(Duration processingTimeout) {
+        this.processingTimeout = processingTimeout;
+    }
+
+    public int getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    public void setCacheMaximumSize(int cacheMaximumSize) {
+        this.cacheMaximumSize = cacheMaximumSize;
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
@@ -0,0 +1,37 @@
+package com.flrxnt.order.config;
+
+import com.flrxnt.order.cache.NearCache;
+import com.flrxnt.order.client.ClientServiceClient;
+import com.flrxnt.order.client.ProductServiceClient;
+import com.flrxnt.order.dto.ClientDTO;
+import com.flrxnt.order.dto.ProductDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Déclaration des caches locaux placés devant les clients Feign Product et Customer.
+ * Les métriques (hits, misses, évictions, temps de chargement) sont publiées sous
+ * les noms {@code cache.*} avec le tag {@code cache=products|clients}.
+ */
+@Configuration
+@EnableConfigurationProperties(NearCacheProperties.class)
+public class NearCacheConfig {
+
+    @Bean
+    public NearCache<ProductDTO> productCache(NearCacheProperties properties,
+                                              ProductServiceClient productServiceClient,
+                                              MeterRegistry meterRegistry) {
+        return new NearCache<>("products", properties.getProduct(),
+                productServiceClient::findByIds, ProductDTO::getId, meterRegistry);
+    }
+
+    @Bean
+    public NearCache<ClientDTO> clientCache(NearCacheProperties properties,
+                                            ClientServiceClient clientServiceClient,
+                                            MeterRegistry meterRegistry) {
+        return new NearCache<>("clients", properties.getClient(),
+                clientServiceClient::findByIds, ClientDTO::getId, meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.flrxnt.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés des caches locaux (near-cache) des données Product et Customer.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   cache:
+ *     product:
+ *       maximum-size: 10000
+ *       ttl: 5m
+ *       refresh-after: 1m
+ *       negative-ttl: 30s
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class NearCacheProperties {
+
+    private final Spec product = new Spec();
+    private final Spec client = new Spec();
+
+    public Spec getProduct() {
+        return product;
+    }
+
+    public Spec getClient() {
+        return client;
+    }
+
+    /**
+     * Paramètres communs d'un cache local.
+     */
+    public static class Spec {
+
+        // Nombre maximal d'entrées (éviction W-TinyLFU au-delà)
+        private long maximumSize = 10_000;
+
+        // Durée de vie d'une entrée positive
+        private Duration ttl = Duration.ofMinutes(5);
+
+        // Âge à partir duquel un accès déclenche un rechargement asynchrone (refresh-ahead)
+        private Duration refreshAfter = Duration.ofMinutes(1);
+
+        // Durée de vie d'une entrée négative (ressource inexistante)
+        private Duration negativeTtl = Duration.ofSeconds(30);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+
+        public Duration getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+    }
+}
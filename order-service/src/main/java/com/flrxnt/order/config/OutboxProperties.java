@@ -0,0 +1,114 @@
+package com.flrxnt.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés de l'outbox des événements de commande et de son relais.
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    // Publication des événements par le relais (l'écriture dans l'outbox reste active)
+    private boolean relayEnabled = true;
+
+    // Intervalle entre deux passages du relais
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    // Nombre d'événements publiés par lot
+    private int batchSize = 100;
+
+    // Nombre maximal de lots publiés par passage du relais
+    private int maxBatchesPerPoll = 10;
+
+    // Durée de conservation des événements publiés
+    private Duration retention = Duration.ofDays(7);
+
+    // Intervalle de purge des événements publiés
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    private Webhook webhook = new Webhook();
+
+    public boolean isRelayEnabled() {
+        return relayEnabled;
+    }
+
+    public void setRelayEnabled(boolean relayEnabled) {
+        this.relayEnabled = relayEnabled;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerPoll() {
+        return maxBatchesPerPoll;
+    }
+
+    public void setMaxBatchesPerPoll(int maxBatchesPerPoll) {
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public Webhook getWebhook() {
+        return webhook;
+    }
+
+    public void setWebhook(Webhook webhook) {
+        this.webhook = webhook;
+    }
+
+    /**
+     * Destinataire HTTP, désactivé tant que l'URL n'est pas renseignée
+     */
+    public static class Webhook {
+
+        private String url;
+
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.flrxnt.order.controller;
 
+import com.flrxnt.order.dto.CursorPageDTO;
 import com.flrxnt.order.dto.OrderCreateDTO;
 import com.flrxnt.order.dto.OrderDTO;
+import com.flrxnt.order.dto.OrderExpansion;
 import com.flrxnt.order.entity.Order;
+import com.flrxnt.order.mapper.FieldSelector;
+import com.flrxnt.order.service.IdempotencyService;
+import com.flrxnt.order.service.OrderExportService;
 import com.flrxnt.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,12 +25,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -40,10 +49,17 @@ public class OrderController {
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
     private final OrderService orderService;
+    private final FieldSelector fieldSelector;
+    private final OrderExportService orderExportService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, FieldSelector fieldSelector,
+                           OrderExportService orderExportService, IdempotencyService idempotencyService) {
         this.orderService = orderService;
+        this.fieldSelector = fieldSelector;
+        this.orderExportService = orderExportService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -55,15 +71,27 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = OrderDTO.class))),
             @ApiResponse(responseCode = "400", description = "Données de création invalides"),
             @ApiResponse(responseCode = "404", description = "Client ou produit non trouvé"),
+            @ApiResponse(responseCode = "409", description = "Requête de même clé d'idempotence en cours de traitement"),
+            @ApiResponse(responseCode = "422", description = "Clé d'idempotence déjà utilisée pour une autre requête"),
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder(
             @Parameter(description = "Données de création de la commande", required = true)
-            @Valid @RequestBody OrderCreateDTO orderCreateDTO) {
+            @Valid @RequestBody OrderCreateDTO orderCreateDTO,
+            @Parameter(description = "Clé d'idempotence : une requête répétée avec la même clé reçoit la réponse d'origine")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         logger.info("Création d'une nouvelle commande pour le client: {}", orderCreateDTO.getClientId());
 
+        if (idempotencyKey == null) {
+            return createOrder(orderCreateDTO);
+        }
+        return idempotencyService.execute(idempotencyKey, orderCreateDTO, OrderDTO.class,
+                () -> createOrder(orderCreateDTO));
+    }
+
+    private ResponseEntity<OrderDTO> createOrder(OrderCreateDTO orderCreateDTO) {
         OrderDTO createdOrder = orderService.createOrder(orderCreateDTO);
 
         logger.info("Commande créée avec succès avec l'ID: {}", createdOrder.getId());
@@ -82,15 +110,19 @@ public class OrderController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrderById(
+    public ResponseEntity<?> getOrderById(
             @Parameter(description = "Identifiant de la commande", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "Données à inclure : items, client, products (toutes si absent, commande minimale si vide)", example = "client")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Champs JSON à retourner, chemins pointés acceptés", example = "id,montant_total,items.product_id")
+            @RequestParam(required = false) String fields) {
 
         logger.debug("Récupération de la commande avec l'ID: {}", id);
 
-        OrderDTO order = orderService.findById(id);
+        OrderDTO order = orderService.findById(id, OrderExpansion.parse(expand));
 
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(FieldSelector.isRequested(fields) ? fieldSelector.select(order, fields) : order);
     }
 
     /**
@@ -102,7 +134,7 @@ public class OrderController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping
-    public ResponseEntity<Page<OrderDTO>> getAllOrders(
+    public ResponseEntity<?> getAllOrders(
             @Parameter(description = "Numéro de page (commence à 0)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Taille de la page", example = "10")
@@ -110,16 +142,32 @@ public class OrderController {
             @Parameter(description = "Critère de tri", example = "dateCommande")
             @RequestParam(defaultValue = "dateCommande") String sortBy,
             @Parameter(description = "Direction du tri", example = "desc")
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Données à inclure : items, client, products (toutes si absent, commande minimale si vide)", example = "client")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Champs JSON à retourner, chemins pointés acceptés", example = "id,montant_total,items.product_id")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "Curseur de pagination (vide pour la première page) : active la pagination par curseur, triée par date décroissante et sans comptage")
+            @RequestParam(required = false) String after) {
+
+        if (after != null) {
+            logger.debug("Récupération des commandes par curseur - size: {}", size);
+            CursorPageDTO<OrderDTO> orders = orderService.findAllAfter(after, size, OrderExpansion.parse(expand));
+            if (!FieldSelector.isRequested(fields)) {
+                return ResponseEntity.ok(orders);
+            }
+            return ResponseEntity.ok(new CursorPageDTO<>(fieldSelector.selectAll(orders.getContent(), fields),
+                    orders.getSize(), orders.getNextCursor()));
+        }
 
         logger.debug("Récupération de toutes les commandes - page: {}, size: {}", page, size);
 
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-        Page<OrderDTO> orders = orderService.findAll(pageable);
+        Page<OrderDTO> orders = orderService.findAll(pageable, OrderExpansion.parse(expand));
 
-        return ResponseEntity.ok(orders);
+        return okWithFields(orders, fields);
     }
 
     /**
@@ -132,15 +180,19 @@ public class OrderController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByClientId(
+    public ResponseEntity<?> getOrdersByClientId(
             @Parameter(description = "Identifiant du client", required = true, example = "1")
-            @PathVariable Long clientId) {
+            @PathVariable Long clientId,
+            @Parameter(description = "Données à inclure : items, client, products (toutes si absent, commande minimale si vide)", example = "client")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Champs JSON à retourner, chemins pointés acceptés", example = "id,montant_total,items.product_id")
+            @RequestParam(required = false) String fields) {
 
         logger.debug("Récupération des commandes du client: {}", clientId);
 
-        List<OrderDTO> orders = orderService.findByClientId(clientId);
+        List<OrderDTO> orders = orderService.findByClientId(clientId, OrderExpansion.parse(expand));
 
-        return ResponseEntity.ok(orders);
+        return okWithFields(orders, fields);
     }
 
     /**
@@ -148,7 +200,7 @@ public class OrderController {
      */
     @Operation(summary = "Lister les commandes d'un client avec pagination", description = "Récupère les commandes d'un client avec pagination")
     @GetMapping("/client/{clientId}/paged")
-    public ResponseEntity<Page<OrderDTO>> getOrdersByClientIdPaged(
+    public ResponseEntity<?> getOrdersByClientIdPaged(
             @Parameter(description = "Identifiant du client", required = true, example = "1")
             @PathVariable Long clientId,
             @Parameter(description = "Numéro de page (commence à 0)", example = "0")
@@ -158,16 +210,20 @@ public class OrderController {
             @Parameter(description = "Critère de tri", example = "dateCommande")
             @RequestParam(defaultValue = "dateCommande") String sortBy,
             @Parameter(description = "Direction du tri", example = "desc")
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Données à inclure : items, client, products (toutes si absent, commande minimale si vide)", example = "client")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Champs JSON à retourner, chemins pointés acceptés", example = "id,montant_total,items.product_id")
+            @RequestParam(required = false) String fields) {
 
         logger.debug("Récupération des commandes du client {} - page: {}, size: {}", clientId, page, size);
 
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-        Page<OrderDTO> orders = orderService.findByClientId(clientId, pageable);
+        Page<OrderDTO> orders = orderService.findByClientId(clientId, pageable, OrderExpansion.parse(expand));
 
-        return ResponseEntity.ok(orders);
+        return okWithFields(orders, fields);
     }
 
     /**
@@ -175,15 +231,19 @@ public class OrderController {
      */
     @Operation(summary = "Lister les commandes par statut", description = "Récupère toutes les commandes ayant un statut spécifique")
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByStatus(
+    public ResponseEntity<?> getOrdersByStatus(
             @Parameter(description = "Statut des commandes", required = true, example = "PENDING")
-            @PathVariable Order.OrderStatus status) {
+            @PathVariable Order.OrderStatus status,
+            @Parameter(description = "Données à inclure : items, client, products (toutes si absent, commande minimale si vide)", example = "client")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Champs JSON à retourner, chemins pointés acceptés", example = "id,montant_total,items.product_id")
+            @RequestParam(required = false) String fields) {
 
         logger.debug("Récupération des commandes avec le statut: {}", status);
 
-        List<OrderDTO> orders = orderService.findByStatut(status);
+        List<OrderDTO> orders = orderService.findByStatut(status, OrderExpansion.parse(expand));
 
-        return ResponseEntity.ok(orders);
+        return okWithFields(orders, fields);
     }
 
     /**
@@ -191,20 +251,24 @@ public class OrderController {
      */
     @Operation(summary = "Lister les commandes par statut avec pagination")
     @GetMapping("/status/{status}/paged")
-    public ResponseEntity<Page<OrderDTO>> getOrdersByStatusPaged(
+    public ResponseEntity<?> getOrdersByStatusPaged(
             @Parameter(description = "Statut des commandes", required = true, example = "PENDING")
             @PathVariable Order.OrderStatus status,
             @Parameter(description = "Numéro de page (commence à 0)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Taille de la page", example = "10")
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Données à inclure : items, client, products (toutes si absent, commande minimale si vide)", example = "client")
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Champs JSON à retourner, chemins pointés acceptés", example = "id,montant_total,items.product_id")
+            @RequestParam(required = false) String fields) {
 
         logger.debug("Récupération des commandes avec le statut {} - page: {}, size: {}", status, page, size);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateCommande"));
-        Page<OrderDTO> orders = orderService.findByStatut(status, pageable);
+        Page<OrderDTO> orders = orderService.findByStatut(status, pageable, OrderExpansion.parse(expand));
 
-        return ResponseEntity.ok(orders);
+        return okWithFields(orders, fields);
     }
 
     /**
@@ -225,6 +289,47 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Exporte les commandes d'une période en flux (NDJSON ou CSV)
+     */
+    @Operation(summary = "Exporter les commandes", description = "Exporte en flux les commandes d'une période, éventuellement filtrées par client, au format NDJSON ou CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export en cours de transmission"),
+            @ApiResponse(responseCode = "400", description = "Format ou période invalide")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Format d'export (ndjson ou csv)", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Date de début", required = true, example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateDebut,
+            @Parameter(description = "Date de fin", required = true, example = "2024-01-31T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateFin,
+            @Parameter(description = "Identifiant du client (optionnel)", example = "1")
+            @RequestParam(required = false) Long clientId) {
+
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Format d'export invalide: " + format + " (ndjson ou csv)");
+        }
+        if (dateDebut.isAfter(dateFin)) {
+            throw new IllegalArgumentException("La date de début doit être antérieure à la date de fin");
+        }
+
+        logger.info("Export {} des commandes entre {} et {}", exportFormat, dateDebut, dateFin);
+
+        StreamingResponseBody body = outputStream ->
+                orderExportService.exportOrders(exportFormat, clientId, dateDebut, dateFin, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     /**
      * Met à jour le statut d'une commande
      */
@@ -454,4 +559,24 @@ public class OrderController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Retourne la page telle quelle, ou réduite aux champs demandés par le paramètre {@code fields}
+     */
+    private ResponseEntity<?> okWithFields(Page<OrderDTO> orders, String fields) {
+        if (!FieldSelector.isRequested(fields)) {
+            return ResponseEntity.ok(orders);
+        }
+        return ResponseEntity.ok(orders.map(order -> fieldSelector.select(order, fields)));
+    }
+
+    /**
+     * Retourne la liste telle quelle, ou réduite aux champs demandés par le paramètre {@code fields}
+     */
+    private ResponseEntity<?> okWithFields(List<OrderDTO> orders, String fields) {
+        if (!FieldSelector.isRequested(fields)) {
+            return ResponseEntity.ok(orders);
+        }
+        return ResponseEntity.ok(fieldSelector.selectAll(orders, fields));
+    }
 }
@@ -0,0 +1,118 @@
+package com.flrxnt.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.flrxnt.order.entity.Order;
+import com.flrxnt.order.entity.OrderEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Événement du cycle de vie d'une commande tel que publié aux destinataires.
+ * Publication au moins une fois : un destinataire peut recevoir un même événement
+ * plusieurs fois et doit s'appuyer sur son ID pour ignorer les doublons.
+ */
+public class OrderEventDTO {
+
+    // ID croissant : ordre de publication des événements d'une même commande
+    private Long id;
+
+    @JsonProperty("order_id")
+    private Long orderId;
+
+    private OrderEvent.Type type;
+
+    private Order.OrderStatus statut;
+
+    @JsonProperty("client_id")
+    private Long clientId;
+
+    @JsonProperty("montant_total")
+    private BigDecimal montantTotal;
+
+    @JsonProperty("date_evenement")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dateEvenement;
+
+    // Constructeurs
+    public OrderEventDTO() {
+    }
+
+    public OrderEventDTO(OrderEvent event) {
+        this.id = event.getId();
+        this.orderId = event.getOrderId();
+        this.type = event.getType();
+        this.statut = event.getStatut();
+        this.clientId = event.getClientId();
+        this.montantTotal = event.getMontantTotal();
+        this.dateEvenement = event.getDateEvenement();
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public OrderEvent.Type getType() {
+        return type;
+    }
+
+    public void setType(OrderEvent.Type type) {
+        this.type = type;
+    }
+
+    public Order.OrderStatus getStatut() {
+        return statut;
+    }
+
+    public void setStatut(Order.OrderStatus statut) {
+        this.statut = statut;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public BigDecimal getMontantTotal() {
+        return montantTotal;
+    }
+
+    public void setMontantTotal(BigDecimal montantTotal) {
+        this.montantTotal = montantTotal;
+    }
+
+    public LocalDateTime getDateEvenement() {
+        return dateEvenement;
+    }
+
+    public void setDateEvenement(LocalDateTime dateEvenement) {
+        this.dateEvenement = dateEvenement;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderEventDTO{" +
+                "id=" + id +
+                ", orderId=" + orderId +
+                ", type=" + type +
+                ", statut=" + statut +
+                '}';
+    }
+}
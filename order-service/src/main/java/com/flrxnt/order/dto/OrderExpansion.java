@@ -0,0 +1,73 @@
+package com.flrxnt.order.dto;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Données à inclure dans les commandes retournées, issue du paramètre {@code expand}.
+ *
+ * - paramètre absent : items, client et produits (comportement historique) ;
+ * - paramètre vide ou {@code none} : commande minimale, sans items ni appel externe ;
+ * - sinon, liste de valeurs parmi {@code items}, {@code client} et {@code products}
+ *   ({@code products} implique {@code items}).
+ */
+public final class OrderExpansion {
+
+    private static final OrderExpansion ALL = new OrderExpansion(true, true, true);
+    private static final OrderExpansion NONE = new OrderExpansion(false, false, false);
+
+    private final boolean items;
+    private final boolean client;
+    private final boolean products;
+
+    private OrderExpansion(boolean items, boolean client, boolean products) {
+        this.items = items || products;
+        this.client = client;
+        this.products = products;
+    }
+
+    public static OrderExpansion all() {
+        return ALL;
+    }
+
+    /**
+     * Interprète la valeur du paramètre {@code expand}.
+     * @throws IllegalArgumentException si une valeur est inconnue
+     */
+    public static OrderExpansion parse(String expand) {
+        if (expand == null) {
+            return ALL;
+        }
+        if (expand.isBlank() || "none".equalsIgnoreCase(expand.trim())) {
+            return NONE;
+        }
+
+        boolean items = false;
+        boolean client = false;
+        boolean products = false;
+
+        for (String value : Arrays.stream(expand.split(",")).map(String::trim).filter(v -> !v.isEmpty()).toList()) {
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "items" -> items = true;
+                case "client" -> client = true;
+                case "products" -> products = true;
+                default -> throw new IllegalArgumentException("Valeur d'expansion invalide: " + value
+                        + " (valeurs acceptées: items, client, products)");
+            }
+        }
+
+        return new OrderExpansion(items, client, products);
+    }
+
+    public boolean includesItems() {
+        return items;
+    }
+
+    public boolean includesClient() {
+        return client;
+    }
+
+    public boolean includesProducts() {
+        return products;
+    }
+}
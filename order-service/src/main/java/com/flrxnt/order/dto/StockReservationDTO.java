@@ -0,0 +1,78 @@
+package com.flrxnt.order.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de réservation (ou de libération) du stock d'une commande auprès du service produit.
+ * Les noms de champs suivent le contrat du service produit.
+ */
+public class StockReservationDTO {
+
+    private List<Line> lignes = new ArrayList<>();
+
+    // Constructeurs
+    public StockReservationDTO() {
+    }
+
+    public StockReservationDTO(List<Line> lignes) {
+        this.lignes = lignes;
+    }
+
+    // Getters et Setters
+    public List<Line> getLignes() {
+        return lignes;
+    }
+
+    public void setLignes(List<Line> lignes) {
+        this.lignes = lignes;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationDTO{" +
+                "lignes=" + lignes +
+                '}';
+    }
+
+    /**
+     * Ligne de réservation : un produit et la quantité demandée
+     */
+    public static class Line {
+
+        private Long productId;
+        private Integer quantite;
+
+        public Line() {
+        }
+
+        public Line(Long productId, Integer quantite) {
+            this.productId = productId;
+            this.quantite = quantite;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantite() {
+            return quantite;
+        }
+
+        public void setQuantite(Integer quantite) {
+            this.quantite = quantite;
+        }
+
+        @Override
+        public String toString() {
+            return "Line{" +
+                    "productId=" + productId +
+                    ", quantite=" + quantite +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.flrxnt.order.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Résultat, ligne par ligne, d'une réservation de stock retourné par le service produit.
+ * Pour une réservation, {@code appliquee = false} signifie qu'aucune ligne n'a été décrémentée.
+ */
+public class StockReservationResultDTO {
+
+    private boolean appliquee;
+    private String reservationId;
+    private LocalDateTime dateExpiration;
+    private List<LineResult> lignes = new ArrayList<>();
+
+    // Constructeurs
+    public StockReservationResultDTO() {
+    }
+
+    public StockReservationResultDTO(boolean appliquee, List<LineResult> lignes) {
+        this.appliquee = appliquee;
+        this.lignes = lignes;
+    }
+
+    // Getters et Setters
+    public boolean isAppliquee() {
+        return appliquee;
+    }
+
+    public void setAppliquee(boolean appliquee) {
+        this.appliquee = appliquee;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public LocalDateTime getDateExpiration() {
+        return dateExpiration;
+    }
+
+    public void setDateExpiration(LocalDateTime dateExpiration) {
+        this.dateExpiration = dateExpiration;
+    }
+
+    public List<LineResult> getLignes() {
+        return lignes;
+    }
+
+    public void setLignes(List<LineResult> lignes) {
+        this.lignes = lignes;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationResultDTO{" +
+                "appliquee=" + appliquee +
+                ", reservationId='" + reservationId + '\'' +
+                ", lignes=" + lignes +
+                '}';
+    }
+
+    // Enum des statuts de ligne retournés par le service produit
+    public enum LineStatus {
+        RESERVEE,
+        LIBEREE,
+        DISPONIBLE,
+        STOCK_INSUFFISANT,
+        PRODUIT_INTROUVABLE
+    }
+
+    /**
+     * Résultat d'une ligne : quantités cumulées par produit et données du produit au moment de la réservation
+     */
+    public static class LineResult {
+
+        private Long productId;
+        private Integer quantiteDemandee;
+        private Integer quantiteDisponible;
+        private LineStatus statut;
+        private String nom;
+        private BigDecimal prix;
+
+        public LineResult() {
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantiteDemandee() {
+            return quantiteDemandee;
+        }
+
+        public void setQuantiteDemandee(Integer quantiteDemandee) {
+            this.quantiteDemandee = quantiteDemandee;
+        }
+
+        public Integer getQuantiteDisponible() {
+            return quantiteDisponible;
+        }
+
+        public void setQuantiteDisponible(Integer quantiteDisponible) {
+            this.quantiteDisponible = quantiteDisponible;
+        }
+
+        public LineStatus getStatut() {
+            return statut;
+        }
+
+        public void setStatut(LineStatus statut) {
+            this.statut = statut;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+
+        public void setNom(String nom) {
+            this.nom = nom;
+        }
+
+        public BigDecimal getPrix() {
+            return prix;
+        }
+
+        public void setPrix(BigDecimal prix) {
+            this.prix = prix;
+        }
+
+        @Override
+        public String toString() {
+            return "LineResult{" +
+                    "productId=" + productId +
+                    ", quantiteDemandee=" + quantiteDemandee +
+                    ", quantiteDisponible=" + quantiteDisponible +
+                    ", statut=" + statut +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.flrxnt.order.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clé d'idempotence d'une requête de création : réservée au début du traitement,
+ * puis complétée avec la réponse rejouée aux requêtes répétées jusqu'à son expiration.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "cle", length = 255)
+    private String cle;
+
+    // Empreinte du corps de la requête : une clé ne peut pas être réutilisée pour une autre requête
+    @Column(name = "empreinte", nullable = false, length = 64)
+    private String empreinte;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false, length = 20)
+    private Status statut = Status.EN_COURS;
+
+    @Column(name = "code_http")
+    private Integer codeHttp;
+
+    @Column(name = "reponse", columnDefinition = "TEXT")
+    private String reponse;
+
+    // Début du traitement en cours : renouvelée à chaque nouvelle réservation d'une clé abandonnée
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_expiration", nullable = false)
+    private LocalDateTime dateExpiration;
+
+    // Toujours inséré, jamais fusionné : deux réservations concurrentes de la même clé se heurtent à la clé primaire
+    @Transient
+    private boolean nouveau;
+
+    // Constructeurs
+    public IdempotencyKey() {
+    }
+
+    public IdempotencyKey(String cle, String empreinte, LocalDateTime dateCreation, LocalDateTime dateExpiration) {
+        this.cle = cle;
+        this.empreinte = empreinte;
+        this.dateCreation = dateCreation;
+        this.dateExpiration = dateExpiration;
+        this.nouveau = true;
+    }
+
+    // Méthodes utilitaires
+    public boolean isExpired(LocalDateTime now) {
+        return dateExpiration.isBefore(now);
+    }
+
+    @Override
+    public String getId() {
+        return cle;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nouveau;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.nouveau = false;
+    }
+
+    // Getters et Setters
+    public String getCle() {
+        return cle;
+    }
+
+    public String getEmpreinte() {
+        return empreinte;
+    }
+
+    public Status getStatut() {
+        return statut;
+    }
+
+    public Integer getCodeHttp() {
+        return codeHttp;
+    }
+
+    public String getReponse() {
+        return reponse;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public LocalDateTime getDateExpiration() {
+        return dateExpiration;
+    }
+
+    public enum Status {
+        // Requête d'origine en cours de traitement
+        EN_COURS,
+        // Réponse enregistrée, rejouée aux requêtes répétées
+        TERMINEE
+    }
+}
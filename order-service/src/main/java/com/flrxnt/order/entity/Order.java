@@ -54,6 +54,10 @@ public class Order {
     @Column(name = "commentaire", length = 500)
     private String commentaire;
 
+    // Réservation de stock du service produit, confirmée ou libérée avec la commande
+    @Column(name = "reservation_id", length = 36)
+    private String reservationId;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -156,6 +160,14 @@ public class Order {
         this.commentaire = commentaire;
     }
 
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
@@ -0,0 +1,96 @@
+package com.flrxnt.order.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Événement du cycle de vie d'une commande, écrit dans la même transaction que la commande
+ * (outbox) puis publié par le relais.
+ */
+@Entity
+@Table(name = "order_events")
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private Type type;
+
+    // Statut de la commande après l'événement
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false, length = 20)
+    private Order.OrderStatus statut;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "montant_total", nullable = false, precision = 10, scale = 2)
+    private BigDecimal montantTotal;
+
+    @Column(name = "date_evenement", nullable = false, updatable = false)
+    private LocalDateTime dateEvenement;
+
+    @Column(name = "date_publication")
+    private LocalDateTime datePublication;
+
+    // Constructeurs
+    public OrderEvent() {
+    }
+
+    public OrderEvent(Order order, Type type) {
+        this.orderId = order.getId();
+        this.type = type;
+        this.statut = order.getStatut();
+        this.clientId = order.getClientId();
+        this.montantTotal = order.getMontantTotal();
+        this.dateEvenement = LocalDateTime.now();
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Order.OrderStatus getStatut() {
+        return statut;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public BigDecimal getMontantTotal() {
+        return montantTotal;
+    }
+
+    public LocalDateTime getDateEvenement() {
+        return dateEvenement;
+    }
+
+    public LocalDateTime getDatePublication() {
+        return datePublication;
+    }
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        CANCELLED,
+        DELETED
+    }
+}
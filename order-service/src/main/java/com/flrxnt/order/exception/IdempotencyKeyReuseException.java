@@ -0,0 +1,18 @@
+package com.flrxnt.order.exception;
+
+/**
+ * Exception levée quand une clé d'idempotence est réutilisée avec un corps de requête différent
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyReuseException(String idempotencyKey) {
+        super("La clé d'idempotence " + idempotencyKey + " a déjà été utilisée pour une requête différente");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
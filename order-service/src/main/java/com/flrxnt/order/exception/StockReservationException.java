@@ -0,0 +1,21 @@
+package com.flrxnt.order.exception;
+
+import com.flrxnt.order.dto.StockReservationResultDTO;
+
+/**
+ * Exception levée lorsque le service produit refuse une réservation de stock (HTTP 409).
+ * Porte le résultat ligne par ligne retourné par le service.
+ */
+public class StockReservationException extends RuntimeException {
+
+    private final transient StockReservationResultDTO result;
+
+    public StockReservationException(String message, StockReservationResultDTO result) {
+        super(message);
+        this.result = result;
+    }
+
+    public StockReservationResultDTO getResult() {
+        return result;
+    }
+}
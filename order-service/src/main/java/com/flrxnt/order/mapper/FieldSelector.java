@@ -0,0 +1,103 @@
+package com.flrxnt.order.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sélection des champs sérialisés d'une réponse, à partir du paramètre {@code fields}.
+ *
+ * Les noms sont ceux du JSON (ex. {@code montant_total}) ; un chemin pointé sélectionne un
+ * sous-champ d'un objet ou de chaque élément d'une liste (ex. {@code items.product_id,items.product.nom}).
+ * Un champ sélectionné sans sous-chemin est conservé en entier.
+ */
+@Component
+public class FieldSelector {
+
+    private final ObjectMapper objectMapper;
+
+    public FieldSelector(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Indique si un paramètre {@code fields} a été fourni.
+     */
+    public static boolean isRequested(String fields) {
+        return fields != null && !fields.isBlank();
+    }
+
+    /**
+     * Convertit l'objet en JSON en ne conservant que les champs demandés.
+     */
+    public JsonNode select(Object value, String fields) {
+        JsonNode node = objectMapper.valueToTree(value);
+        retain(node, parse(fields));
+        return node;
+    }
+
+    /**
+     * Applique la même sélection à chaque élément d'une liste.
+     */
+    public List<JsonNode> selectAll(List<?> values, String fields) {
+        FieldTree tree = parse(fields);
+        List<JsonNode> nodes = new ArrayList<>(values.size());
+        for (Object value : values) {
+            JsonNode node = objectMapper.valueToTree(value);
+            retain(node, tree);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private FieldTree parse(String fields) {
+        FieldTree root = new FieldTree();
+        for (String path : fields.split(",")) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            FieldTree current = root;
+            for (String segment : trimmed.split("\\.")) {
+                current = current.children.computeIfAbsent(segment, s -> new FieldTree());
+            }
+        }
+        return root;
+    }
+
+    private void retain(JsonNode node, FieldTree tree) {
+        if (tree.children.isEmpty() || node == null) {
+            return;
+        }
+
+        if (node instanceof ArrayNode array) {
+            array.forEach(element -> retain(element, tree));
+            return;
+        }
+
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fieldsIterator = object.fields();
+            while (fieldsIterator.hasNext()) {
+                Map.Entry<String, JsonNode> field = fieldsIterator.next();
+                FieldTree child = tree.children.get(field.getKey());
+                if (child == null) {
+                    fieldsIterator.remove();
+                } else {
+                    retain(field.getValue(), child);
+                }
+            }
+        }
+    }
+
+    private static final class FieldTree {
+        private final Map<String, FieldTree> children = new LinkedHashMap<>();
+    }
+}
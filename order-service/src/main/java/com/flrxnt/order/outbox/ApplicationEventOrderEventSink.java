@@ -0,0 +1,32 @@
+package com.flrxnt.order.outbox;
+
+import com.flrxnt.order.dto.OrderEventDTO;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publication dans le processus : chaque événement est diffusé aux méthodes
+ * {@code @EventListener(OrderEventDTO.class)} de l'application, de façon synchrone.
+ * Un écouteur en échec fait republier le lot.
+ */
+@Component
+public class ApplicationEventOrderEventSink implements OrderEventSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventOrderEventSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<OrderEventDTO> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,110 @@
+package com.flrxnt.order.outbox;
+
+import com.flrxnt.order.config.OutboxProperties;
+import com.flrxnt.order.dto.OrderEventDTO;
+import com.flrxnt.order.entity.OrderEvent;
+import com.flrxnt.order.repository.OrderEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Relais de l'outbox : publie les événements de commande non publiés, par lots, à tous les destinataires.
+ *
+ * - ordre : les lots sont lus dans l'ordre des IDs et verrouillés le temps de la publication,
+ *   si bien que les événements d'une même commande sont publiés dans leur ordre d'écriture,
+ *   y compris avec plusieurs instances ;
+ * - au moins une fois : un lot n'est marqué publié qu'après acceptation par tous les destinataires ;
+ *   en cas d'échec, il est republié en entier au passage suivant, et les lots suivants attendent.
+ */
+@Component
+public class OrderEventRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventRelay.class);
+
+    private final OrderEventRepository orderEventRepository;
+    private final List<OrderEventSink> sinks;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderEventRelay(OrderEventRepository orderEventRepository,
+                           List<OrderEventSink> sinks,
+                           OutboxProperties properties,
+                           PlatformTransactionManager transactionManager) {
+        this.orderEventRepository = orderEventRepository;
+        this.sinks = sinks;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        logger.info("Relais des événements de commande vers: {}",
+                   sinks.stream().map(OrderEventSink::getName).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Publie les événements en attente, lot par lot
+     *
+     * @return le nombre d'événements publiés
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500ms}")
+    public int relay() {
+        if (!properties.isRelayEnabled()) {
+            return 0;
+        }
+
+        int published = 0;
+        try {
+            for (int i = 0; i < properties.getMaxBatchesPerPoll(); i++) {
+                Integer count = transactionTemplate.execute(status -> publishBatch());
+                published += count;
+                if (count < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Échec de la publication d'un lot d'événements de commande, nouvelle tentative au prochain passage: {}",
+                       e.getMessage());
+        }
+        return published;
+    }
+
+    /**
+     * Purge périodique des événements publiés au-delà de la durée de conservation
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:1h}")
+    public void purgePublishedEvents() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    orderEventRepository.deletePublishedBefore(LocalDateTime.now().minus(properties.getRetention())));
+            if (deleted != null && deleted > 0) {
+                logger.info("{} événements de commande publiés supprimés", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Échec de la purge des événements de commande publiés: {}", e.getMessage());
+        }
+    }
+
+    private int publishBatch() {
+        List<OrderEvent> events = orderEventRepository.findUnpublishedForUpdate(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderEventDTO> dtos = events.stream().map(OrderEventDTO::new).collect(Collectors.toList());
+        for (OrderEventSink sink : sinks) {
+            sink.publish(dtos);
+        }
+
+        orderEventRepository.markPublished(events.stream().map(OrderEvent::getId).collect(Collectors.toList()),
+                LocalDateTime.now());
+        logger.debug("{} événements de commande publiés (IDs {} à {})",
+                    events.size(), events.get(0).getId(), events.get(events.size() - 1).getId());
+        return events.size();
+    }
+}
@@ -0,0 +1,25 @@
+package com.flrxnt.order.outbox;
+
+import com.flrxnt.order.dto.OrderEventDTO;
+
+import java.util.List;
+
+/**
+ * Destinataire des événements de commande publiés par le relais de l'outbox.
+ *
+ * Un lot est considéré publié quand tous les destinataires l'ont accepté. Une exception
+ * fait republier le lot entier plus tard, à tous les destinataires : la publication est
+ * au moins une fois, dans l'ordre des IDs d'événement.
+ */
+public interface OrderEventSink {
+
+    /**
+     * Nom du destinataire (logs)
+     */
+    String getName();
+
+    /**
+     * Publie un lot d'événements, triés par ID
+     */
+    void publish(List<OrderEventDTO> events);
+}
@@ -0,0 +1,48 @@
+package com.flrxnt.order.outbox;
+
+import com.flrxnt.order.config.OutboxProperties;
+import com.flrxnt.order.dto.OrderEventDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Publication HTTP : chaque lot est envoyé en un POST JSON (tableau d'événements) à l'URL
+ * configurée. Actif uniquement si {@code app.outbox.webhook.url} est renseignée ; un bouchon
+ * local peut servir de destinataire en développement.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox.webhook", name = "url")
+public class WebhookOrderEventSink implements OrderEventSink {
+
+    private final RestClient restClient;
+    private final String url;
+
+    public WebhookOrderEventSink(RestClient.Builder restClientBuilder, OutboxProperties properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getWebhook().getTimeout());
+        requestFactory.setReadTimeout(properties.getWebhook().getTimeout());
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.url = properties.getWebhook().getUrl();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void publish(List<OrderEventDTO> events) {
+        // Toute réponse hors 2xx lève une exception : le lot sera republié
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
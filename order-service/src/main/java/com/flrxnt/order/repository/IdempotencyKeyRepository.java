@@ -0,0 +1,74 @@
+package com.flrxnt.order.repository;
+
+import com.flrxnt.order.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository des clés d'idempotence. La réservation et la libération d'une clé s'exécutent dans
+ * leur propre transaction : la clé doit être visible des autres instances avant le traitement
+ * de la requête. L'enregistrement de la réponse rejoint la transaction du traitement.
+ *
+ * Une réservation est identifiée par la date de début du traitement ({@code dateCreation}) :
+ * une clé reprise par une autre instance ne peut plus être complétée ni libérée par la précédente.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Enregistre la réponse de la requête d'origine, si la clé est toujours réservée par ce traitement
+     * (0 ligne modifiée sinon)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.statut = com.flrxnt.order.entity.IdempotencyKey.Status.TERMINEE, " +
+           "k.codeHttp = :codeHttp, k.reponse = :reponse " +
+           "WHERE k.cle = :cle AND k.dateCreation = :dateCreation " +
+           "AND k.statut = com.flrxnt.order.entity.IdempotencyKey.Status.EN_COURS")
+    int complete(@Param("cle") String cle, @Param("dateCreation") LocalDateTime dateCreation,
+                 @Param("codeHttp") int codeHttp, @Param("reponse") String reponse);
+
+    /**
+     * Reprend une clé en cours dont le traitement a dépassé son bail (0 ligne modifiée si elle a
+     * été reprise ou complétée entre-temps)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.dateCreation = :dateCreation, k.dateExpiration = :dateExpiration " +
+           "WHERE k.cle = :cle AND k.dateCreation = :precedente " +
+           "AND k.statut = com.flrxnt.order.entity.IdempotencyKey.Status.EN_COURS")
+    int reclaim(@Param("cle") String cle, @Param("precedente") LocalDateTime precedente,
+                @Param("dateCreation") LocalDateTime dateCreation,
+                @Param("dateExpiration") LocalDateTime dateExpiration);
+
+    /**
+     * Libère une clé réservée par ce traitement après un échec (0 ligne supprimée si elle a été reprise)
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.cle = :cle AND k.dateCreation = :dateCreation " +
+           "AND k.statut = com.flrxnt.order.entity.IdempotencyKey.Status.EN_COURS")
+    int release(@Param("cle") String cle, @Param("dateCreation") LocalDateTime dateCreation);
+
+    /**
+     * Supprime une clé si elle a expiré (0 ligne supprimée sinon)
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.cle = :cle AND k.dateExpiration < :date")
+    int deleteIfExpired(@Param("cle") String cle, @Param("date") LocalDateTime date);
+
+    /**
+     * Purge les clés expirées
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.dateExpiration < :date")
+    int deleteExpired(@Param("date") LocalDateTime date);
+}
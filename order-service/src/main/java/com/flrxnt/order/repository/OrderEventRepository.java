@@ -0,0 +1,39 @@
+package com.flrxnt.order.repository;
+
+import com.flrxnt.order.entity.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /**
+     * Verrouille les plus anciens événements non publiés, dans l'ordre des IDs. Sans SKIP LOCKED :
+     * les relais de plusieurs instances se succèdent sur les mêmes lignes au lieu de publier
+     * en parallèle des événements d'une même commande.
+     */
+    @Query(value = "SELECT * FROM order_events WHERE date_publication IS NULL ORDER BY id LIMIT :limit FOR UPDATE",
+           nativeQuery = true)
+    List<OrderEvent> findUnpublishedForUpdate(@Param("limit") int limit);
+
+    /**
+     * Marque des événements comme publiés
+     */
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.datePublication = :date WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("date") LocalDateTime date);
+
+    /**
+     * Supprime les événements publiés avant la date indiquée
+     */
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.datePublication < :date")
+    int deletePublishedBefore(@Param("date") LocalDateTime date);
+}
@@ -3,26 +3,41 @@ package com.flrxnt.order.repository;
 
 import com.flrxnt.order.entity.Order;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 
 /**
@@ -31,6 +46,11 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    /**
+     * Nombre de lignes lues par aller-retour JDBC lors des exports en flux
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
     /**
      * Trouve toutes les commandes d'un client spécifique
      * @param clientId l'identifiant du client
@@ -39,12 +59,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByClientIdOrderByDateCommandeDesc(Long clientId);
 
     /**
-     * Trouve toutes les commandes d'un client avec pagination
+     * Trouve toutes les commandes d'un client avec pagination, items compris
+     * (pagination en deux temps, voir {@link #loadPageWithItems(Page)})
      * @param clientId l'identifiant du client
      * @param pageable pagination
      * @return page des commandes du client
      */
-    Page<Order> findByClientId(Long clientId, Pageable pageable);
+    default Page<Order> findByClientId(Long clientId, Pageable pageable) {
+        return loadPageWithItems(findPageIdsByClientId(clientId, withIdTieBreaker(pageable)));
+    }
 
     /**
      * Trouve toutes les commandes par statut
@@ -54,12 +77,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatutOrderByDateCommandeDesc(Order.OrderStatus statut);
 
     /**
-     * Trouve toutes les commandes par statut avec pagination
+     * Trouve toutes les commandes par statut avec pagination, items compris
+     * (pagination en deux temps, voir {@link #loadPageWithItems(Page)})
      * @param statut le statut recherché
      * @param pageable pagination
      * @return page des commandes avec ce statut
      */
-    Page<Order> findByStatut(Order.OrderStatus statut, Pageable pageable);
+    default Page<Order> findByStatut(Order.OrderStatus statut, Pageable pageable) {
+        return loadPageWithItems(findPageIdsByStatut(statut, withIdTieBreaker(pageable)));
+    }
 
     /**
      * Trouve les commandes créées entre deux dates
@@ -111,17 +137,117 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
 
     /**
+     * Trouve les commandes avec leurs items
+     * (pagination en deux temps, voir {@link #loadPageWithItems(Page)})
+     * @param pageable pagination
+     * @return page des commandes avec leurs items
+     */
+    default Page<Order> findAllWithItems(Pageable pageable) {
+        return loadPageWithItems(findPageIds(withIdTieBreaker(pageable)));
+    }
 
-     * Trouve les commandes avec leurs items (pagination-safe via EntityGraph)
+    /**
+     * Sélectionne une page d'identifiants de commandes (sans jointure, via l'index de pagination)
      * @param pageable pagination
+     * @return page des identifiants
+     */
+    @Query(value = "SELECT o.id FROM Order o",
+           countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Long> findPageIds(Pageable pageable);
 
-     * @return page des commandes avec leurs items
+    /**
+     * Sélectionne une page d'identifiants des commandes d'un client
+     * @param clientId l'identifiant du client
+     * @param pageable pagination
+     * @return page des identifiants
+     */
+    @Query(value = "SELECT o.id FROM Order o WHERE o.clientId = :clientId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.clientId = :clientId")
+    Page<Long> findPageIdsByClientId(@Param("clientId") Long clientId, Pageable pageable);
 
+    /**
+     * Sélectionne une page d'identifiants des commandes ayant un statut
+     * @param statut le statut recherché
+     * @param pageable pagination
+     * @return page des identifiants
      */
+    @Query(value = "SELECT o.id FROM Order o WHERE o.statut = :statut",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.statut = :statut")
+    Page<Long> findPageIdsByStatut(@Param("statut") Order.OrderStatus statut, Pageable pageable);
 
-    @EntityGraph(attributePaths = "items")
-    @Query("SELECT o FROM Order o")
-    Page<Order> findAllWithItems(Pageable pageable);
+    /**
+     * Charge des commandes et leurs items en une seule requête
+     * @param ids les identifiants des commandes
+     * @return les commandes avec leurs items (ordre non garanti)
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Second temps de la pagination : charge les commandes d'une page d'identifiants
+     * avec leurs items (une requête, sans pagination en mémoire) et restitue l'ordre de la page.
+     * Une page coûte ainsi un nombre constant de requêtes, quelle que soit sa taille.
+     * @param ids page d'identifiants
+     * @return page des commandes correspondantes
+     */
+    default Page<Order> loadPageWithItems(Page<Long> ids) {
+        return new PageImpl<>(loadWithItemsInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Charge les commandes et leurs items en une requête, dans l'ordre des identifiants fournis
+     * @param ids les identifiants des commandes, dans l'ordre attendu
+     * @return les commandes trouvées, dans le même ordre
+     */
+    default List<Order> loadWithItemsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Order> ordersById = findAllWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        return ids.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pagination par curseur : identifiants des premières commandes, des plus récentes aux plus anciennes
+     * (parcours de l'index {@code idx_orders_pagination}, sans comptage)
+     * @param limit nombre maximal d'identifiants
+     * @return les identifiants, dans l'ordre (date_commande DESC, id)
+     */
+    @Query("SELECT o.id FROM Order o ORDER BY o.dateCommande DESC, o.id ASC")
+    List<Long> findKeysetIds(Limit limit);
+
+    /**
+     * Pagination par curseur : identifiants des commandes situées après la position (dateCommande, id)
+     * dans l'ordre (date_commande DESC, id)
+     * @param dateCommande date de la dernière commande de la page précédente
+     * @param id identifiant de la dernière commande de la page précédente
+     * @param limit nombre maximal d'identifiants
+     * @return les identifiants suivants, dans l'ordre
+     */
+    @Query("SELECT o.id FROM Order o " +
+           "WHERE o.dateCommande < :dateCommande OR (o.dateCommande = :dateCommande AND o.id > :id) " +
+           "ORDER BY o.dateCommande DESC, o.id ASC")
+    List<Long> findKeysetIdsAfter(@Param("dateCommande") LocalDateTime dateCommande,
+                                  @Param("id") Long id,
+                                  Limit limit);
+
+    /**
+     * Complète le tri demandé par l'identifiant afin d'obtenir un ordre stable entre pages
+     * (correspond à l'index {@code idx_orders_pagination (date_commande DESC, id)}).
+     */
+    private static Pageable withIdTieBreaker(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by("id")));
+    }
 
 
     /**
@@ -141,6 +267,40 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByClientIdWithItems(@Param("clientId") Long clientId);
 
 
+    /**
+     * Parcourt en flux les commandes d'une période, pour l'export (lecture par lots JDBC, entités en lecture seule).
+     * Doit être consommé dans une transaction et fermé après usage.
+     * @param dateDebut date de début
+     * @param dateFin date de fin
+     * @return flux des commandes (sans leurs items)
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.dateCommande BETWEEN :dateDebut AND :dateFin ORDER BY o.dateCommande DESC, o.id")
+    Stream<Order> streamByDateRange(@Param("dateDebut") LocalDateTime dateDebut,
+                                    @Param("dateFin") LocalDateTime dateFin);
+
+    /**
+     * Parcourt en flux les commandes d'un client sur une période, pour l'export.
+     * Doit être consommé dans une transaction et fermé après usage.
+     * @param clientId l'identifiant du client
+     * @param dateDebut date de début
+     * @param dateFin date de fin
+     * @return flux des commandes (sans leurs items)
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.clientId = :clientId AND o.dateCommande BETWEEN :dateDebut AND :dateFin " +
+           "ORDER BY o.dateCommande DESC, o.id")
+    Stream<Order> streamByClientIdAndDateRange(@Param("clientId") Long clientId,
+                                               @Param("dateDebut") LocalDateTime dateDebut,
+                                               @Param("dateFin") LocalDateTime dateFin);
+
+
     /**
 
      * Calcule le montant total des commandes d'un client
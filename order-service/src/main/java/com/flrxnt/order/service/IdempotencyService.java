@@ -0,0 +1,35 @@
+package com.flrxnt.order.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Interface du service d'idempotence des requêtes de création
+ */
+public interface IdempotencyService {
+
+    /**
+     * En-tête portant la clé d'idempotence choisie par le client
+     */
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * En-tête ajouté aux réponses rejouées
+     */
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Exécute l'action une seule fois par clé. Les requêtes répétées avec la même clé reçoivent
+     * la réponse enregistrée ; celles arrivant pendant le traitement attendent son résultat.
+     * L'action s'exécute dans une transaction qui enregistre aussi la réponse de la clé.
+     * Un échec de l'action libère la clé : la requête peut alors être rejouée.
+     *
+     * @param key la clé d'idempotence
+     * @param request le corps de la requête, dont l'empreinte est associée à la clé
+     * @param bodyType le type du corps de la réponse
+     * @param action le traitement de la requête d'origine
+     * @return la réponse d'origine ou la réponse enregistrée
+     */
+    <T> ResponseEntity<T> execute(String key, Object request, Class<T> bodyType, Supplier<ResponseEntity<T>> action);
+}
@@ -0,0 +1,48 @@
+package com.flrxnt.order.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Interface du service d'export des commandes en flux
+ */
+public interface OrderExportService {
+
+    /**
+     * Formats d'export disponibles
+     */
+    enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Écrit les commandes d'une période (et éventuellement d'un client) directement dans le flux de sortie,
+     * sans charger l'ensemble des commandes en mémoire
+     * @param format format d'export
+     * @param clientId l'identifiant du client, ou null pour tous les clients
+     * @param dateDebut date de début
+     * @param dateFin date de fin
+     * @param outputStream flux de sortie (non fermé par cette méthode)
+     * @return le nombre de commandes exportées
+     */
+    long exportOrders(Format format, Long clientId, LocalDateTime dateDebut, LocalDateTime dateFin,
+                      OutputStream outputStream) throws IOException;
+}
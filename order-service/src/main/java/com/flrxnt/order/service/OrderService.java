@@ -1,7 +1,9 @@
 package com.flrxnt.order.service;
 
+import com.flrxnt.order.dto.CursorPageDTO;
 import com.flrxnt.order.dto.OrderCreateDTO;
 import com.flrxnt.order.dto.OrderDTO;
+import com.flrxnt.order.dto.OrderExpansion;
 import com.flrxnt.order.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +30,14 @@ public interface OrderService {
      */
     OrderDTO findById(Long id);
 
+    /**
+     * Trouve une commande par son identifiant en limitant les données incluses
+     * @param id l'identifiant de la commande
+     * @param expansion les données à inclure (items, client, produits)
+     * @return la commande trouvée
+     */
+    OrderDTO findById(Long id, OrderExpansion expansion);
+
     /**
      * Trouve toutes les commandes avec pagination
      * @param pageable pagination
@@ -35,6 +45,23 @@ public interface OrderService {
      */
     Page<OrderDTO> findAll(Pageable pageable);
 
+    /**
+     * Trouve toutes les commandes avec pagination en limitant les données incluses
+     * @param pageable pagination
+     * @param expansion les données à inclure (items, client, produits)
+     * @return page des commandes
+     */
+    Page<OrderDTO> findAll(Pageable pageable, OrderExpansion expansion);
+
+    /**
+     * Trouve les commandes par curseur (pagination keyset sur date_commande DESC, id, sans comptage)
+     * @param after curseur retourné par la page précédente, null ou vide pour la première page
+     * @param size taille de la page
+     * @param expansion les données à inclure (items, client, produits)
+     * @return page des commandes avec le curseur de la page suivante
+     */
+    CursorPageDTO<OrderDTO> findAllAfter(String after, int size, OrderExpansion expansion);
+
     /**
      * Trouve toutes les commandes d'un client
      * @param clientId l'identifiant du client
@@ -42,6 +69,14 @@ public interface OrderService {
      */
     List<OrderDTO> findByClientId(Long clientId);
 
+    /**
+     * Trouve toutes les commandes d'un client en limitant les données incluses
+     * @param clientId l'identifiant du client
+     * @param expansion les données à inclure (items, client, produits)
+     * @return la liste des commandes du client
+     */
+    List<OrderDTO> findByClientId(Long clientId, OrderExpansion expansion);
+
     /**
      * Trouve toutes les commandes d'un client avec pagination
      * @param clientId l'identifiant du client
@@ -50,6 +85,15 @@ public interface OrderService {
      */
     Page<OrderDTO> findByClientId(Long clientId, Pageable pageable);
 
+    /**
+     * Trouve toutes les commandes d'un client avec pagination en limitant les données incluses
+     * @param clientId l'identifiant du client
+     * @param pageable pagination
+     * @param expansion les données à inclure (items, client, produits)
+     * @return page des commandes du client
+     */
+    Page<OrderDTO> findByClientId(Long clientId, Pageable pageable, OrderExpansion expansion);
+
     /**
      * Trouve toutes les commandes par statut
      * @param statut le statut recherché
@@ -57,6 +101,14 @@ public interface OrderService {
      */
     List<OrderDTO> findByStatut(Order.OrderStatus statut);
 
+    /**
+     * Trouve toutes les commandes par statut en limitant les données incluses
+     * @param statut le statut recherché
+     * @param expansion les données à inclure (items, client, produits)
+     * @return la liste des commandes avec ce statut
+     */
+    List<OrderDTO> findByStatut(Order.OrderStatus statut, OrderExpansion expansion);
+
     /**
      * Trouve toutes les commandes par statut avec pagination
      * @param statut le statut recherché
@@ -65,6 +117,15 @@ public interface OrderService {
      */
     Page<OrderDTO> findByStatut(Order.OrderStatus statut, Pageable pageable);
 
+    /**
+     * Trouve toutes les commandes par statut avec pagination en limitant les données incluses
+     * @param statut le statut recherché
+     * @param pageable pagination
+     * @param expansion les données à inclure (items, client, produits)
+     * @return page des commandes avec ce statut
+     */
+    Page<OrderDTO> findByStatut(Order.OrderStatus statut, Pageable pageable, OrderExpansion expansion);
+
     /**
      * Trouve les commandes créées entre deux dates
      * @param dateDebut date de début
@@ -0,0 +1,117 @@
+package com.flrxnt.order.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Fan-out des appels distants d'une requête entrante sur un pool partagé.
+ *
+ * Au plus {@code maxConcurrency} tâches de ce fan-out s'exécutent simultanément, les suivantes
+ * attendent qu'une place se libère. Toutes les attentes partagent une même échéance, fixée
+ * à la création. L'annulation empêche le démarrage des tâches en attente ; les appels HTTP
+ * déjà en cours se terminent en arrière-plan et leur résultat est ignoré.
+ *
+ * Instance à usage unique, non partagée entre requêtes.
+ */
+final class BoundedFanOut {
+
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final long deadlineNanos;
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private final List<CompletableFuture<?>> submitted = new ArrayList<>();
+    private int running;
+
+    BoundedFanOut(Executor executor, int maxConcurrency, Duration timeout) {
+        this.executor = executor;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Soumet une tâche ; elle démarre immédiatement si la limite de concurrence le permet.
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable start = () -> start(task, future);
+
+        synchronized (this) {
+            submitted.add(future);
+            if (running >= maxConcurrency) {
+                pending.add(start);
+                return future;
+            }
+            running++;
+        }
+
+        start.run();
+        return future;
+    }
+
+    /**
+     * Attend le résultat d'une tâche sans dépasser l'échéance du fan-out.
+     */
+    <T> T await(CompletableFuture<T> future) throws InterruptedException, ExecutionException, TimeoutException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0 && !future.isDone()) {
+            throw new TimeoutException();
+        }
+        return future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Annule toutes les tâches non terminées de ce fan-out.
+     */
+    void cancelAll() {
+        List<CompletableFuture<?>> toCancel;
+        synchronized (this) {
+            pending.clear();
+            toCancel = new ArrayList<>(submitted);
+        }
+        toCancel.forEach(future -> future.cancel(false));
+    }
+
+    private <T> void start(Supplier<T> task, CompletableFuture<T> future) {
+        try {
+            executor.execute(() -> run(task, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+            release();
+        }
+    }
+
+    private <T> void run(Supplier<T> task, CompletableFuture<T> future) {
+        try {
+            if (!future.isDone()) {
+                future.complete(task.get());
+            }
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            release();
+        }
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = pending.poll();
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        next.run();
+    }
+}
@@ -0,0 +1,276 @@
+package com.flrxnt.order.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flrxnt.order.config.IdempotencyProperties;
+import com.flrxnt.order.entity.IdempotencyKey;
+import com.flrxnt.order.exception.IdempotencyKeyReuseException;
+import com.flrxnt.order.repository.IdempotencyKeyRepository;
+import com.flrxnt.order.service.IdempotencyService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotence des requêtes de création, en deux niveaux :
+ *
+ * - un cache local (Caffeine) des requêtes en cours et des réponses récentes : les répétitions
+ *   concurrentes sur la même instance attendent le résultat de la requête d'origine ;
+ * - la table {@code idempotency_keys}, qui réserve la clé avant le traitement et conserve la
+ *   réponse pour les répétitions reçues par une autre instance ou après un redémarrage.
+ *
+ * Le traitement et l'enregistrement de sa réponse partagent une transaction. Une clé réservée par
+ * une autre instance et toujours en cours de traitement donne un 409 ; au-delà du bail de traitement
+ * ({@code app.idempotency.processing-timeout}), elle est reprise par la requête suivante.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    // Longueur maximale d'une clé (colonne idempotency_keys.cle)
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  IdempotencyProperties properties,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    @Override
+    public <T> ResponseEntity<T> execute(String key, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "La clé d'idempotence doit être non vide et contenir au plus " + MAX_KEY_LENGTH + " caractères");
+        }
+
+        String empreinte = fingerprint(request);
+        Entry entry = new Entry(empreinte, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            // Répétition reçue par cette instance : réponse enregistrée ou attente de la requête d'origine
+            if (!existing.empreinte().equals(empreinte)) {
+                throw new IdempotencyKeyReuseException(key);
+            }
+            return replay(key, await(key, existing), bodyType);
+        }
+
+        Claim claim;
+        try {
+            claim = claim(key, empreinte);
+        } catch (RuntimeException e) {
+            abandon(key, entry, e);
+            throw e;
+        }
+        if (claim.stored() != null) {
+            entry.response().complete(claim.stored());
+            return replay(key, claim.stored(), bodyType);
+        }
+
+        // La réponse est enregistrée dans la transaction du traitement : une commande validée a toujours sa clé TERMINEE
+        Processed<T> processed;
+        try {
+            processed = transactionTemplate.execute(status -> {
+                ResponseEntity<T> response = action.get();
+                StoredResponse stored = new StoredResponse(response.getStatusCode().value(), write(response.getBody()));
+                if (idempotencyKeyRepository.complete(key, claim.dateCreation(), stored.codeHttp(), stored.body()) == 0) {
+                    // Bail expiré et clé reprise par une autre requête : ce traitement est annulé
+                    throw alreadyInProgress(key);
+                }
+                return new Processed<>(response, stored);
+            });
+        } catch (RuntimeException e) {
+            // Échec : la clé est libérée pour permettre une nouvelle tentative
+            release(key, claim.dateCreation());
+            abandon(key, entry, e);
+            throw e;
+        }
+
+        entry.response().complete(processed.stored());
+        return processed.response();
+    }
+
+    /**
+     * Purge périodique des clés expirées
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:1h}")
+    public void purgeExpiredKeys() {
+        try {
+            int deleted = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                logger.info("{} clés d'idempotence expirées supprimées", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Échec de la purge des clés d'idempotence expirées: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Réserve la clé en base, ou retourne la réponse déjà enregistrée pour cette clé. Une clé restée
+     * en cours au-delà du bail de traitement (instance arrêtée en plein traitement) est reprise.
+     */
+    private Claim claim(String key, String empreinte) {
+        // Précision de la colonne date_creation, qui identifie la réservation
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime expiration = now.plus(properties.getTtl());
+        Optional<IdempotencyKey> found = idempotencyKeyRepository.findById(key);
+        if (found.isPresent() && idempotencyKeyRepository.deleteIfExpired(key, now) == 0) {
+            IdempotencyKey idempotencyKey = found.get();
+            if (!idempotencyKey.getEmpreinte().equals(empreinte)) {
+                throw new IdempotencyKeyReuseException(key);
+            }
+            if (idempotencyKey.getStatut() == IdempotencyKey.Status.TERMINEE) {
+                return Claim.replayed(new StoredResponse(idempotencyKey.getCodeHttp(), idempotencyKey.getReponse()));
+            }
+            LocalDateTime leaseEnd = idempotencyKey.getDateCreation().plus(properties.getProcessingTimeout());
+            if (leaseEnd.isBefore(now)
+                    && idempotencyKeyRepository.reclaim(key, idempotencyKey.getDateCreation(), now, expiration) == 1) {
+                logger.warn("Clé d'idempotence {} en cours depuis {}, reprise après expiration du bail de traitement",
+                        key, idempotencyKey.getDateCreation());
+                return Claim.claimed(now);
+            }
+            throw alreadyInProgress(key);
+        }
+
+        try {
+            idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(key, empreinte, now, expiration));
+        } catch (DataIntegrityViolationException e) {
+            // Réservée entre-temps par une autre instance
+            throw alreadyInProgress(key);
+        }
+        return Claim.claimed(now);
+    }
+
+    private void release(String key, LocalDateTime dateCreation) {
+        try {
+            idempotencyKeyRepository.release(key, dateCreation);
+        } catch (RuntimeException e) {
+            // La clé sera reprise à l'expiration du bail de traitement
+            logger.error("Impossible de libérer la clé d'idempotence {}: {}", key, e.getMessage());
+        }
+    }
+
+    private StoredResponse await(String key, Entry entry) {
+        try {
+            return entry.response().get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw alreadyInProgress(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw alreadyInProgress(key);
+        } catch (ExecutionException e) {
+            // Même erreur que la requête d'origine
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Échec de la requête d'origine de la clé d'idempotence " + key, e.getCause());
+        }
+    }
+
+    private void abandon(String key, Entry entry, RuntimeException cause) {
+        entries.asMap().remove(key, entry);
+        entry.response().completeExceptionally(cause);
+    }
+
+    private <T> ResponseEntity<T> replay(String key, StoredResponse stored, Class<T> bodyType) {
+        logger.info("Requête répétée avec la clé d'idempotence {}, réponse d'origine rejouée", key);
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), bodyType) : null;
+            return ResponseEntity.status(stored.codeHttp())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse enregistrée illisible pour la clé d'idempotence " + key, e);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse non sérialisable", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(
+                    objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Impossible de calculer l'empreinte de la requête", e);
+        }
+    }
+
+    private static IllegalStateException alreadyInProgress(String key) {
+        return new IllegalStateException(
+                "Une requête avec la clé d'idempotence " + key + " est déjà en cours de traitement");
+    }
+
+    /**
+     * Réponse d'origine : code HTTP et corps JSON
+     */
+    private record StoredResponse(int codeHttp, String body) {
+    }
+
+    /**
+     * Résultat de la réservation : date de début du traitement réservé, ou réponse déjà enregistrée
+     */
+    private record Claim(LocalDateTime dateCreation, StoredResponse stored) {
+
+        static Claim claimed(LocalDateTime dateCreation) {
+            return new Claim(dateCreation, null);
+        }
+
+        static Claim replayed(StoredResponse stored) {
+            return new Claim(null, stored);
+        }
+    }
+
+    /**
+     * Réponse de la requête d'origine et sa forme enregistrée
+     */
+    private record Processed<T>(ResponseEntity<T> response, StoredResponse stored) {
+    }
+
+    /**
+     * Requête en cours ou traitée sur cette instance
+     */
+    private record Entry(String empreinte, CompletableFuture<StoredResponse> response) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.flrxnt.order.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flrxnt.order.entity.Order;
+import com.flrxnt.order.repository.OrderRepository;
+import com.flrxnt.order.service.OrderExportService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export des commandes en flux : les commandes sont lues par lots JDBC, écrites une par une
+ * dans la réponse puis détachées du contexte de persistance, de sorte que la mémoire
+ * utilisée reste constante quel que soit le volume exporté.
+ *
+ * Seules les données de niveau commande sont exportées (le nombre d'items imposerait
+ * une lecture supplémentaire par commande).
+ */
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportServiceImpl.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final String CSV_HEADER = "id,client_id,date_commande,date_modification,montant_total,statut,commentaire";
+
+    // Fréquence de vidage du flux de sortie (en nombre de commandes)
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory;
+
+    public OrderExportServiceImpl(OrderRepository orderRepository,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    public long exportOrders(Format format, Long clientId, LocalDateTime dateDebut, LocalDateTime dateFin,
+                             OutputStream outputStream) throws IOException {
+        if (dateDebut.isAfter(dateFin)) {
+            throw new IllegalArgumentException("La date de début doit être antérieure à la date de fin");
+        }
+
+        logger.info("Export {} des commandes entre {} et {} (client: {})", format, dateDebut, dateFin, clientId);
+
+        try {
+            Long exported = readOnlyTransaction.execute(status -> {
+                try (Stream<Order> orders = clientId != null
+                        ? orderRepository.streamByClientIdAndDateRange(clientId, dateDebut, dateFin)
+                        : orderRepository.streamByDateRange(dateDebut, dateFin)) {
+                    return format == Format.CSV
+                            ? writeCsv(orders.iterator(), outputStream)
+                            : writeNdjson(orders.iterator(), outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            logger.info("Export terminé: {} commandes", exported);
+            return exported != null ? exported : 0L;
+        } catch (UncheckedIOException e) {
+            // Typiquement une déconnexion du client pendant l'export
+            logger.warn("Export interrompu: {}", e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private long writeNdjson(Iterator<Order> orders, OutputStream outputStream) throws IOException {
+        long count = 0;
+        JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Une commande par ligne, sans séparateur supplémentaire entre objets racine
+        generator.setRootValueSeparator(null);
+
+        while (orders.hasNext()) {
+            Order order = orders.next();
+
+            generator.writeStartObject();
+            generator.writeNumberField("id", order.getId());
+            generator.writeNumberField("client_id", order.getClientId());
+            generator.writeStringField("date_commande", format(order.getDateCommande()));
+            generator.writeStringField("date_modification", format(order.getDateModification()));
+            generator.writeNumberField("montant_total", order.getMontantTotal());
+            generator.writeStringField("statut", order.getStatut().name());
+            generator.writeStringField("commentaire", order.getCommentaire());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            entityManager.detach(order);
+            if (++count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+
+        generator.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Order> orders, OutputStream outputStream) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        while (orders.hasNext()) {
+            Order order = orders.next();
+
+            writer.write(String.valueOf(order.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(order.getClientId()));
+            writer.write(',');
+            writer.write(format(order.getDateCommande()));
+            writer.write(',');
+            writer.write(order.getDateModification() != null ? format(order.getDateModification()) : "");
+            writer.write(',');
+            writer.write(order.getMontantTotal().toPlainString());
+            writer.write(',');
+            writer.write(order.getStatut().name());
+            writer.write(',');
+            writer.write(escapeCsv(order.getCommentaire()));
+            writer.write('\n');
+
+            entityManager.detach(order);
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(DATE_FORMAT) : null;
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,32 +1,57 @@
 package com.flrxnt.order.service.impl;
 
+import com.flrxnt.order.cache.NearCache;
+import com.flrxnt.order.cache.RequestLookupMemo;
 import com.flrxnt.order.client.ClientServiceClient;
 import com.flrxnt.order.client.ProductServiceClient;
+import com.flrxnt.order.config.FanOutProperties;
 import com.flrxnt.order.dto.*;
 import com.flrxnt.order.entity.Order;
+import com.flrxnt.order.entity.OrderEvent;
 import com.flrxnt.order.entity.OrderItem;
 import com.flrxnt.order.exception.ClientNotValidException;
 import com.flrxnt.order.exception.OrderNotFoundException;
 import com.flrxnt.order.exception.ProductNotValidException;
+import com.flrxnt.order.exception.StockReservationException;
 import com.flrxnt.order.mapper.OrderMapper;
+import com.flrxnt.order.repository.OrderEventRepository;
 import com.flrxnt.order.repository.OrderRepository;
 import com.flrxnt.order.service.OrderService;
 import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,40 +63,88 @@ public class OrderServiceImpl implements OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
 
+    // Taille maximale d'un appel groupé vers les services Product et Customer (limite imposée côté service)
+    private static final int BATCH_SIZE = 100;
+
+    // Taille maximale d'une page en pagination par curseur
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Types de ressources distantes (mémo de requête, métriques et logs)
+    private static final String CLIENTS = "clients";
+    private static final String PRODUCTS = "produits";
+
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final ClientServiceClient clientServiceClient;
     private final ProductServiceClient productServiceClient;
+    private final NearCache<ClientDTO> clientCache;
+    private final NearCache<ProductDTO> productCache;
+    private final Executor fanOutExecutor;
+    private final FanOutProperties fanOutProperties;
+    private final RequestLookupMemo requestLookupMemo;
+    private final OrderEventRepository orderEventRepository;
 
     @Autowired
     public OrderServiceImpl(OrderRepository orderRepository,
                           OrderMapper orderMapper,
                           ClientServiceClient clientServiceClient,
-                          ProductServiceClient productServiceClient) {
+                          ProductServiceClient productServiceClient,
+                          NearCache<ClientDTO> clientCache,
+                          NearCache<ProductDTO> productCache,
+                          @Qualifier("fanOutExecutor") Executor fanOutExecutor,
+                          FanOutProperties fanOutProperties,
+                          RequestLookupMemo requestLookupMemo,
+                          OrderEventRepository orderEventRepository) {
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
         this.clientServiceClient = clientServiceClient;
         this.productServiceClient = productServiceClient;
+        this.clientCache = clientCache;
+        this.productCache = productCache;
+        this.fanOutExecutor = fanOutExecutor;
+        this.fanOutProperties = fanOutProperties;
+        this.requestLookupMemo = requestLookupMemo;
+        this.orderEventRepository = orderEventRepository;
     }
 
     @Override
     public OrderDTO createOrder(OrderCreateDTO orderCreateDTO) {
         logger.info("Création d'une nouvelle commande pour le client {}", orderCreateDTO.getClientId());
 
-        // Validation du client
-        ClientDTO client = validateClient(orderCreateDTO.getClientId());
+        RequestLookupMemo.Memo memo = requestLookupMemo.current();
+
+        // Validation du client en parallèle de la réservation du stock
+        BoundedFanOut fanOut = new BoundedFanOut(fanOutExecutor,
+                fanOutProperties.getMaxConcurrencyPerRequest(), fanOutProperties.getValidationTimeout());
+
+        CompletableFuture<ClientDTO> clientFuture =
+                fanOut.submit(() -> validateClient(orderCreateDTO.getClientId()));
 
-        // Validation des produits et création des items
-        List<OrderItem> orderItems = validateAndCreateOrderItems(orderCreateDTO.getItems());
+        // La réservation reste sur le thread de la requête : seule écriture distante, elle n'est jamais abandonnée en cours
+        StockReservationResultDTO reservation;
+        try {
+            reservation = reserveStock(orderCreateDTO.getItems());
+        } catch (RuntimeException e) {
+            fanOut.cancelAll();
+            throw e;
+        }
+
+        // En cas d'échec, l'annulation de la transaction libère le stock réservé
+        awaitAllOrFailFast(fanOut, clientFuture);
 
-        // Création de la commande
+        ClientDTO client = clientFuture.join();
+        memo.put(CLIENTS, client.getId(), client);
+
+        // Création de la commande, liée à sa réservation de stock (confirmée ou libérée avec elle)
         Order order = new Order(orderCreateDTO.getClientId(), orderCreateDTO.getCommentaire());
+        order.setReservationId(reservation.getReservationId());
 
         // Ajout des items à la commande
-        orderItems.forEach(order::addItem);
+        createOrderItems(orderCreateDTO.getItems(), reservation).forEach(order::addItem);
 
         // Sauvegarde
         Order savedOrder = orderRepository.save(order);
+        recordEvent(savedOrder, OrderEvent.Type.CREATED);
 
         logger.info("Commande créée avec succès avec l'ID: {}", savedOrder.getId());
 
@@ -85,78 +158,121 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
+        return findById(id, OrderExpansion.all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderDTO findById(Long id, OrderExpansion expansion) {
         logger.debug("Recherche de la commande avec l'ID: {}", id);
 
         Order order = orderRepository.findByIdWithItems(id)
                 .orElseThrow(() -> new OrderNotFoundException("Commande non trouvée avec l'ID: " + id));
 
-        OrderDTO orderDTO = orderMapper.toDTO(order);
-        enrichOrderWithExternalData(orderDTO, null);
-
-        return orderDTO;
+        return toExpandedDTOs(List.of(order), expansion).get(0);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDTO> findAll(Pageable pageable) {
+        return findAll(pageable, OrderExpansion.all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderDTO> findAll(Pageable pageable, OrderExpansion expansion) {
         logger.debug("Recherche de toutes les commandes avec pagination: {}", pageable);
 
         Page<Order> orders = orderRepository.findAllWithItems(pageable);
-        return orders.map(order -> {
-            OrderDTO orderDTO = orderMapper.toDTO(order);
-            enrichOrderWithExternalData(orderDTO, null);
-            return orderDTO;
-        });
+        return toExpandedDTOs(orders, expansion);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> findAllAfter(String after, int size, OrderExpansion expansion) {
+        int pageSize = Math.min(Math.max(1, size), MAX_CURSOR_PAGE_SIZE);
+
+        // Un élément de plus que la taille de page pour savoir s'il existe une page suivante
+        Limit limit = Limit.of(pageSize + 1);
+        List<Long> ids;
+        if (after == null || after.isBlank()) {
+            ids = orderRepository.findKeysetIds(limit);
+        } else {
+            OrderCursor cursor = OrderCursor.decode(after);
+            logger.debug("Recherche des commandes après ({}, {}) - taille: {}", cursor.dateCommande(), cursor.id(), pageSize);
+            ids = orderRepository.findKeysetIdsAfter(cursor.dateCommande(), cursor.id(), limit);
+        }
+
+        boolean hasNext = ids.size() > pageSize;
+        List<Order> orders = orderRepository.loadWithItemsInOrder(hasNext ? ids.subList(0, pageSize) : ids);
+
+        String nextCursor = null;
+        if (hasNext && !orders.isEmpty()) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new OrderCursor(last.getDateCommande(), last.getId()).encode();
+        }
+
+        return new CursorPageDTO<>(toExpandedDTOs(orders, expansion), pageSize, nextCursor);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderDTO> findByClientId(Long clientId) {
+        return findByClientId(clientId, OrderExpansion.all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDTO> findByClientId(Long clientId, OrderExpansion expansion) {
         logger.debug("Recherche des commandes du client: {}", clientId);
 
         List<Order> orders = orderRepository.findByClientIdWithItems(clientId);
-        return orders.stream()
-                .map(orderMapper::toDTO)
-                .peek(orderDTO -> enrichOrderWithExternalData(orderDTO, null))
-                .collect(Collectors.toList());
+        return toExpandedDTOs(orders, expansion);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDTO> findByClientId(Long clientId, Pageable pageable) {
+        return findByClientId(clientId, pageable, OrderExpansion.all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderDTO> findByClientId(Long clientId, Pageable pageable, OrderExpansion expansion) {
         logger.debug("Recherche des commandes du client {} avec pagination: {}", clientId, pageable);
 
         Page<Order> orders = orderRepository.findByClientId(clientId, pageable);
-        return orders.map(order -> {
-            OrderDTO orderDTO = orderMapper.toDTO(order);
-            enrichOrderWithExternalData(orderDTO, null);
-            return orderDTO;
-        });
+        return toExpandedDTOs(orders, expansion);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderDTO> findByStatut(Order.OrderStatus statut) {
+        return findByStatut(statut, OrderExpansion.all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDTO> findByStatut(Order.OrderStatus statut, OrderExpansion expansion) {
         logger.debug("Recherche des commandes avec le statut: {}", statut);
 
         List<Order> orders = orderRepository.findByStatutOrderByDateCommandeDesc(statut);
-        return orders.stream()
-                .map(orderMapper::toDTO)
-                .peek(orderDTO -> enrichOrderWithExternalData(orderDTO, null))
-                .collect(Collectors.toList());
+        return toExpandedDTOs(orders, expansion);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDTO> findByStatut(Order.OrderStatus statut, Pageable pageable) {
+        return findByStatut(statut, pageable, OrderExpansion.all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderDTO> findByStatut(Order.OrderStatus statut, Pageable pageable, OrderExpansion expansion) {
         logger.debug("Recherche des commandes avec le statut {} et pagination: {}", statut, pageable);
 
         Page<Order> orders = orderRepository.findByStatut(statut, pageable);
-        return orders.map(order -> {
-            OrderDTO orderDTO = orderMapper.toDTO(order);
-            enrichOrderWithExternalData(orderDTO, null);
-            return orderDTO;
-        });
+        return toExpandedDTOs(orders, expansion);
     }
 
     @Override
@@ -165,10 +281,9 @@ public class OrderServiceImpl implements OrderService {
         logger.debug("Recherche des commandes entre {} et {}", dateDebut, dateFin);
 
         List<Order> orders = orderRepository.findByDateCommandeBetweenOrderByDateCommandeDesc(dateDebut, dateFin);
-        return orders.stream()
-                .map(orderMapper::toDTO)
-                .peek(orderDTO -> enrichOrderWithExternalData(orderDTO, null))
-                .collect(Collectors.toList());
+        List<OrderDTO> orderDTOs = orderMapper.toDTOList(orders);
+        enrichOrdersWithExternalData(orderDTOs);
+        return orderDTOs;
     }
 
     @Override
@@ -181,8 +296,18 @@ public class OrderServiceImpl implements OrderService {
         // Validation des transitions de statut
         validateStatusTransition(order.getStatut(), nouveauStatut);
 
+        // La réservation de stock suit la commande : confirmée avec elle, libérée après le commit de son annulation
+        if (nouveauStatut == Order.OrderStatus.CONFIRMED) {
+            confirmReservation(order);
+        } else if (nouveauStatut == Order.OrderStatus.CANCELLED) {
+            releaseReservationAfterCommit(order);
+        }
+
         order.setStatut(nouveauStatut);
         Order savedOrder = orderRepository.save(order);
+        recordEvent(savedOrder, nouveauStatut == Order.OrderStatus.CANCELLED
+                ? OrderEvent.Type.CANCELLED
+                : OrderEvent.Type.STATUS_CHANGED);
 
         logger.info("Statut de la commande {} mis à jour vers {}", id, nouveauStatut);
 
@@ -223,8 +348,11 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("La commande ne peut plus être annulée dans son état actuel: " + order.getStatut());
         }
 
+        releaseReservationAfterCommit(order);
+
         order.setStatut(Order.OrderStatus.CANCELLED);
         Order savedOrder = orderRepository.save(order);
+        recordEvent(savedOrder, OrderEvent.Type.CANCELLED);
 
         logger.info("Commande {} annulée avec succès", id);
 
@@ -245,7 +373,10 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("La commande ne peut pas être supprimée dans son état actuel: " + order.getStatut());
         }
 
+        releaseReservationAfterCommit(order);
+
         orderRepository.delete(order);
+        recordEvent(order, OrderEvent.Type.DELETED);
         logger.info("Commande {} supprimée avec succès", id);
     }
 
@@ -286,10 +417,9 @@ public class OrderServiceImpl implements OrderService {
     public List<OrderDTO> findRecentOrders() {
         LocalDateTime since = LocalDateTime.now().minusHours(24);
         List<Order> orders = orderRepository.findRecentOrders(since);
-        return orders.stream()
-                .map(orderMapper::toDTO)
-                .peek(orderDTO -> enrichOrderWithExternalData(orderDTO, null))
-                .collect(Collectors.toList());
+        List<OrderDTO> orderDTOs = orderMapper.toDTOList(orders);
+        enrichOrdersWithExternalData(orderDTOs);
+        return orderDTOs;
     }
 
     @Override
@@ -302,10 +432,9 @@ public class OrderServiceImpl implements OrderService {
         );
 
         List<Order> orders = orderRepository.findOrdersNeedingAttention(threeDaysAgo, statusesToCheck);
-        return orders.stream()
-                .map(orderMapper::toDTO)
-                .peek(orderDTO -> enrichOrderWithExternalData(orderDTO, null))
-                .collect(Collectors.toList());
+        List<OrderDTO> orderDTOs = orderMapper.toDTOList(orders);
+        enrichOrdersWithExternalData(orderDTOs);
+        return orderDTOs;
     }
 
     @Override
@@ -319,10 +448,9 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public List<OrderDTO> findByProductId(Long productId) {
         List<Order> orders = orderRepository.findByProductId(productId);
-        return orders.stream()
-                .map(orderMapper::toDTO)
-                .peek(orderDTO -> enrichOrderWithExternalData(orderDTO, null))
-                .collect(Collectors.toList());
+        List<OrderDTO> orderDTOs = orderMapper.toDTOList(orders);
+        enrichOrdersWithExternalData(orderDTOs);
+        return orderDTOs;
     }
 
     @Override
@@ -351,7 +479,8 @@ public class OrderServiceImpl implements OrderService {
 
     private ClientDTO validateClient(Long clientId) {
         try {
-            ClientDTO client = clientServiceClient.findById(clientId);
+            // Lecture à jour exigée (statut), revalidée par ETag : corps transféré seulement si le client a changé
+            ClientDTO client = clientCache.revalidate(clientId, clientServiceClient::findById);
             if (client == null) {
                 throw new ClientNotValidException("Client non trouvé avec l'ID: " + clientId);
             }
@@ -367,48 +496,215 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
-    private List<OrderItem> validateAndCreateOrderItems(List<OrderItemCreateDTO> itemCreateDTOs) {
-        List<OrderItem> orderItems = new ArrayList<>();
+    /**
+     * Réserve le stock de toute la commande en un seul appel. La réservation est libérée
+     * si la transaction de création de commande n'est pas validée, et expire d'elle-même
+     * côté service produit si cette libération échoue.
+     */
+    private StockReservationResultDTO reserveStock(List<OrderItemCreateDTO> itemCreateDTOs) {
+        StockReservationDTO reservation = new StockReservationDTO(itemCreateDTOs.stream()
+                .map(item -> new StockReservationDTO.Line(item.getProductId(), item.getQuantite()))
+                .collect(Collectors.toList()));
+
+        StockReservationResultDTO result;
+        try {
+            result = productServiceClient.reserveStock(reservation);
+        } catch (StockReservationException e) {
+            throw toProductNotValidException(e.getResult());
+        } catch (FeignException e) {
+            logger.error("Erreur lors de la réservation du stock: {}", e.getMessage());
+            throw new ProductNotValidException("Impossible de réserver le stock de la commande");
+        }
+
+        releaseReservationOnRollback(result.getReservationId());
+        return result;
+    }
 
+    /**
+     * Construit les items de la commande à partir des nom et prix retournés par la réservation.
+     */
+    private List<OrderItem> createOrderItems(List<OrderItemCreateDTO> itemCreateDTOs, StockReservationResultDTO result) {
+        Map<Long, StockReservationResultDTO.LineResult> lines = result.getLignes().stream()
+                .collect(Collectors.toMap(StockReservationResultDTO.LineResult::getProductId, Function.identity()));
+
+        List<OrderItem> orderItems = new ArrayList<>();
         for (OrderItemCreateDTO itemCreateDTO : itemCreateDTOs) {
-            ProductDTO product = validateProduct(itemCreateDTO.getProductId(), itemCreateDTO.getQuantite());
+            StockReservationResultDTO.LineResult line = lines.get(itemCreateDTO.getProductId());
+            if (line == null) {
+                throw new IllegalStateException("Ligne absente de la réservation pour le produit " + itemCreateDTO.getProductId());
+            }
 
-            OrderItem orderItem = new OrderItem(
-                    product.getId(),
-                    product.getNom(),
+            orderItems.add(new OrderItem(
+                    line.getProductId(),
+                    line.getNom(),
                     itemCreateDTO.getQuantite(),
-                    product.getPrix()
-            );
-
-            orderItems.add(orderItem);
+                    line.getPrix()
+            ));
         }
 
         return orderItems;
     }
 
-    private ProductDTO validateProduct(Long productId, Integer requestedQuantity) {
-        try {
-            ProductDTO product = productServiceClient.findById(productId);
-            if (product == null) {
-                throw new ProductNotValidException("Produit non trouvé avec l'ID: " + productId);
+    /**
+     * Libère la réservation si la transaction de création de commande n'est pas validée
+     * (client invalide, échec de sauvegarde ou de commit).
+     */
+    private void releaseReservationOnRollback(String reservationId) {
+        if (reservationId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    productServiceClient.releaseReservation(reservationId);
+                    logger.info("Réservation de stock {} libérée après l'échec de la création de commande", reservationId);
+                } catch (RuntimeException e) {
+                    logger.error("Impossible de libérer la réservation de stock {}, elle expirera: {}",
+                                reservationId, e.getMessage());
+                }
             }
+        });
+    }
+
+    /**
+     * Confirme la réservation de stock d'une commande ; une réservation expirée n'est plus garantie
+     * et empêche la confirmation. Si la transaction est ensuite annulée, la commande reste en attente :
+     * la confirmation de la réservation est alors annulée.
+     */
+    private void confirmReservation(Order order) {
+        String reservationId = order.getReservationId();
+        if (reservationId == null) {
+            return;
+        }
+        try {
+            productServiceClient.confirmReservation(reservationId);
+        } catch (FeignException.Conflict e) {
+            throw new IllegalStateException("La réservation de stock de la commande " + order.getId()
+                    + " a expiré, la commande ne peut plus être confirmée");
+        } catch (FeignException e) {
+            logger.error("Erreur lors de la confirmation de la réservation {}: {}", reservationId, e.getMessage());
+            throw new IllegalStateException("Impossible de confirmer la réservation de stock de la commande " + order.getId());
+        }
 
-            if (!product.isAvailable()) {
-                throw new ProductNotValidException("Le produit avec l'ID " + productId + " n'est pas disponible");
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Issue inconnue : la commande est peut-être confirmée, la réservation le reste
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    productServiceClient.revertConfirmation(reservationId);
+                    logger.info("Confirmation de la réservation de stock {} annulée avec la transaction", reservationId);
+                } catch (RuntimeException e) {
+                    logger.error("Impossible d'annuler la confirmation de la réservation de stock {}: {}",
+                                reservationId, e.getMessage());
+                }
             }
+        });
+    }
 
-            if (!product.hasStock(requestedQuantity)) {
-                throw new ProductNotValidException(
-                        String.format("Stock insuffisant pour le produit %d. Stock disponible: %d, demandé: %d",
-                                productId, product.getQuantiteStock(), requestedQuantity));
+    /**
+     * Libère la réservation de stock d'une commande annulée ou supprimée, une fois la transaction
+     * validée : le stock n'est jamais restitué pour une commande restée active (idempotent côté service produit).
+     */
+    private void releaseReservationAfterCommit(Order order) {
+        String reservationId = order.getReservationId();
+        if (reservationId == null) {
+            return;
+        }
+        Long orderId = order.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseReservation(reservationId, orderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseReservation(reservationId, orderId);
             }
+        });
+    }
 
-            return product;
+    private void releaseReservation(String reservationId, Long orderId) {
+        try {
+            productServiceClient.releaseReservation(reservationId);
         } catch (FeignException.NotFound e) {
-            throw new ProductNotValidException("Produit non trouvé avec l'ID: " + productId);
-        } catch (FeignException e) {
-            logger.error("Erreur lors de la validation du produit {}: {}", productId, e.getMessage());
-            throw new ProductNotValidException("Impossible de valider le produit avec l'ID: " + productId);
+            logger.warn("Réservation de stock {} inconnue du service produit, rien à libérer", reservationId);
+        } catch (RuntimeException e) {
+            // Commande déjà annulée : une réservation active expirera, une réservation confirmée doit être libérée à la main
+            logger.error("Impossible de libérer la réservation de stock {} de la commande {}: {}",
+                        reservationId, orderId, e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit l'événement dans l'outbox, dans la transaction qui modifie la commande :
+     * il n'est publié que si cette transaction est validée.
+     */
+    private void recordEvent(Order order, OrderEvent.Type type) {
+        orderEventRepository.save(new OrderEvent(order, type));
+    }
+
+    private ProductNotValidException toProductNotValidException(StockReservationResultDTO result) {
+        List<StockReservationResultDTO.LineResult> failures = result == null ? List.of() : result.getLignes().stream()
+                .filter(line -> line.getStatut() == StockReservationResultDTO.LineStatus.STOCK_INSUFFISANT
+                        || line.getStatut() == StockReservationResultDTO.LineStatus.PRODUIT_INTROUVABLE)
+                .collect(Collectors.toList());
+
+        if (failures.isEmpty()) {
+            return new ProductNotValidException("Réservation du stock refusée");
+        }
+
+        String message = failures.stream()
+                .map(line -> line.getStatut() == StockReservationResultDTO.LineStatus.PRODUIT_INTROUVABLE
+                        ? "Produit non trouvé avec l'ID: " + line.getProductId()
+                        : String.format("Stock insuffisant pour le produit %d. Stock disponible: %d, demandé: %d",
+                                line.getProductId(), line.getQuantiteDisponible(), line.getQuantiteDemandee()))
+                .collect(Collectors.joining("; "));
+        return new ProductNotValidException(message, failures.get(0).getProductId());
+    }
+
+    /**
+     * Attend la fin de toutes les validations ; dès qu'une validation échoue, les autres
+     * sont annulées et l'exception d'origine est relancée telle quelle.
+     */
+    private void awaitAllOrFailFast(BoundedFanOut fanOut, CompletableFuture<?>... futures) {
+        CompletableFuture<Object> firstFailure = new CompletableFuture<>();
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    firstFailure.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            fanOut.await(CompletableFuture.anyOf(CompletableFuture.allOf(futures), firstFailure));
+        } catch (ExecutionException e) {
+            fanOut.cancelAll();
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Erreur lors de la validation de la commande", cause);
+        } catch (TimeoutException e) {
+            fanOut.cancelAll();
+            logger.error("Délai de validation de la commande dépassé");
+            throw new RuntimeException("Délai de validation de la commande dépassé");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fanOut.cancelAll();
+            throw new RuntimeException("Validation de la commande interrompue");
         }
     }
 
@@ -432,29 +728,200 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private void enrichOrderWithExternalData(OrderDTO orderDTO, ClientDTO existingClient) {
-        // Enrichissement avec les données du client
+        // Client déjà connu (création de commande) : seul l'enrichissement produit est nécessaire
         if (existingClient != null) {
             orderDTO.setClient(existingClient);
+            enrichOrdersWithExternalData(List.of(orderDTO), false, true);
         } else {
-            try {
-                ClientDTO client = clientServiceClient.findById(orderDTO.getClientId());
-                orderDTO.setClient(client);
-            } catch (FeignException e) {
-                logger.warn("Impossible de récupérer les données du client {}: {}",
-                           orderDTO.getClientId(), e.getMessage());
+            enrichOrdersWithExternalData(List.of(orderDTO), true, true);
+        }
+    }
+
+    private void enrichOrdersWithExternalData(List<OrderDTO> orderDTOs) {
+        enrichOrdersWithExternalData(orderDTOs, true, true);
+    }
+
+    /**
+     * Convertit les commandes selon l'expansion demandée : commande minimale sans items
+     * si les items ne sont pas demandés, et appels externes limités aux données demandées.
+     */
+    private List<OrderDTO> toExpandedDTOs(List<Order> orders, OrderExpansion expansion) {
+        List<OrderDTO> orderDTOs = expansion.includesItems()
+                ? orderMapper.toDTOList(orders)
+                : orderMapper.toMinimalDTOList(orders);
+        enrichOrdersWithExternalData(orderDTOs, expansion.includesClient(), expansion.includesProducts());
+        return orderDTOs;
+    }
+
+    private Page<OrderDTO> toExpandedDTOs(Page<Order> orders, OrderExpansion expansion) {
+        Page<OrderDTO> orderDTOs = expansion.includesItems()
+                ? orders.map(orderMapper::toDTO)
+                : orders.map(orderMapper::toMinimalDTO);
+        enrichOrdersWithExternalData(orderDTOs.getContent(), expansion.includesClient(), expansion.includesProducts());
+        return orderDTOs;
+    }
+
+    /**
+     * Enrichit un ensemble de commandes (page ou liste) en regroupant les appels
+     * externes : les clients distincts et les produits distincts de toutes les
+     * commandes sont récupérés par appels groupés, exécutés en parallèle sous une
+     * limite de concurrence et une échéance globale. En cas d'échec ou de dépassement
+     * du délai, les champs concernés restent null.
+     */
+    private void enrichOrdersWithExternalData(List<OrderDTO> orderDTOs, boolean withClients, boolean withProducts) {
+        if (orderDTOs == null || orderDTOs.isEmpty() || (!withClients && !withProducts)) {
+            return;
+        }
+
+        Set<Long> clientIds = withClients
+                ? orderDTOs.stream()
+                        .map(OrderDTO::getClientId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(LinkedHashSet::new))
+                : Set.of();
+
+        Set<Long> productIds = !withProducts ? Set.of() : orderDTOs.stream()
+                .map(OrderDTO::getItems)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .map(OrderItemDTO::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        BoundedFanOut fanOut = new BoundedFanOut(fanOutExecutor,
+                fanOutProperties.getMaxConcurrencyPerRequest(), fanOutProperties.getEnrichmentTimeout());
+
+        RequestLookupMemo.Memo memo = requestLookupMemo.current();
+
+        CompletableFuture<Map<Long, ClientDTO>> clientsFuture =
+                fetchMemoized(fanOut, memo, clientIds, clientCache::findByIds, ClientDTO::getId, CLIENTS);
+        CompletableFuture<Map<Long, ProductDTO>> productsFuture =
+                fetchMemoized(fanOut, memo, productIds, productCache::findByIds, ProductDTO::getId, PRODUCTS);
+
+        if (withClients) {
+            Map<Long, ClientDTO> clients = awaitOrEmpty(fanOut, clientsFuture, CLIENTS);
+            for (OrderDTO orderDTO : orderDTOs) {
+                orderDTO.setClient(clients.get(orderDTO.getClientId()));
             }
         }
 
-        // Enrichissement avec les données des produits pour chaque item
-        if (orderDTO.getItems() != null) {
+        if (!withProducts) {
+            return;
+        }
+
+        Map<Long, ProductDTO> products = awaitOrEmpty(fanOut, productsFuture, PRODUCTS);
+        for (OrderDTO orderDTO : orderDTOs) {
+            if (orderDTO.getItems() == null) {
+                continue;
+            }
             for (OrderItemDTO item : orderDTO.getItems()) {
+                item.setProduct(products.get(item.getProductId()));
+            }
+        }
+    }
+
+    /**
+     * Résout un ensemble d'identifiants en ne sollicitant le cache local et les services
+     * distants que pour les IDs pas encore résolus au cours de la requête courante.
+     */
+    private <T> CompletableFuture<Map<Long, T>> fetchMemoized(BoundedFanOut fanOut,
+                                                              RequestLookupMemo.Memo memo,
+                                                              Set<Long> ids,
+                                                              Function<List<Long>, List<T>> batchLookup,
+                                                              Function<T, Long> idExtractor,
+                                                              String resourceName) {
+        Map<Long, T> known = memo.lookup(resourceName, ids);
+        if (known.size() == ids.size()) {
+            return CompletableFuture.completedFuture(known);
+        }
+
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(known.keySet());
+
+        return fetchInBatches(fanOut, missing, batchLookup, idExtractor, resourceName)
+                .thenApply(fetched -> {
+                    memo.putAll(resourceName, fetched);
+                    Map<Long, T> results = new HashMap<>(known);
+                    results.putAll(fetched);
+                    return results;
+                });
+    }
+
+    /**
+     * Résout un ensemble d'identifiants via le cache local (les clés manquantes sont chargées
+     * par l'endpoint groupé du service distant), par tranches de {@link #BATCH_SIZE} soumises
+     * au fan-out. Une tranche en échec est journalisée et ignorée.
+     */
+    private <T> CompletableFuture<Map<Long, T>> fetchInBatches(BoundedFanOut fanOut,
+                                                               Collection<Long> idsToFetch,
+                                                               Function<List<Long>, List<T>> batchLookup,
+                                                               Function<T, Long> idExtractor,
+                                                               String resourceName) {
+        if (idsToFetch.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        List<Long> ids = new ArrayList<>(idsToFetch);
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = List.copyOf(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+            chunks.add(fanOut.submit(() -> {
                 try {
-                    ProductDTO product = productServiceClient.findById(item.getProductId());
-                    item.setProduct(product);
+                    List<T> found = batchLookup.apply(chunk);
+                    return found != null ? found : List.<T>of();
                 } catch (FeignException e) {
-                    logger.warn("Impossible de récupérer les données du produit {}: {}",
-                               item.getProductId(), e.getMessage());
+                    logger.warn("Impossible de récupérer les données des {} {}: {}",
+                               resourceName, chunk, e.getMessage());
+                    return List.<T>of();
                 }
+            }));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<Long, T> results = new HashMap<>();
+                    chunks.forEach(chunk -> chunk.join()
+                            .forEach(value -> results.put(idExtractor.apply(value), value)));
+                    return results;
+                });
+    }
+
+    private <T> Map<Long, T> awaitOrEmpty(BoundedFanOut fanOut, CompletableFuture<Map<Long, T>> future,
+                                          String resourceName) {
+        try {
+            return fanOut.await(future);
+        } catch (TimeoutException e) {
+            logger.warn("Délai d'enrichissement dépassé pour les {}, données laissées vides", resourceName);
+            fanOut.cancelAll();
+        } catch (ExecutionException e) {
+            logger.warn("Impossible de récupérer les données des {}: {}",
+                       resourceName, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fanOut.cancelAll();
+        }
+        return Map.of();
+    }
+
+    /**
+     * Position opaque dans l'ordre (date_commande DESC, id) : Base64 de "date|id".
+     */
+    private record OrderCursor(LocalDateTime dateCommande, Long id) {
+
+        String encode() {
+            String raw = dateCommande + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static OrderCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide: " + cursor);
             }
         }
     }
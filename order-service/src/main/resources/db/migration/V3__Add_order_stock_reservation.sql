@@ -0,0 +1,8 @@
+-- Migration V3: Réservation de stock des commandes
+-- Auteur: Order Management System
+-- Date: 2026-10-16
+
+-- Identifiant de la réservation de stock du service produit (absent pour les commandes antérieures)
+ALTER TABLE orders ADD COLUMN reservation_id VARCHAR(36);
+
+COMMENT ON COLUMN orders.reservation_id IS 'Identifiant de la réservation de stock, confirmée ou libérée avec la commande';
@@ -0,0 +1,22 @@
+-- Migration V4: Clés d'idempotence des créations de commande
+-- Auteur: Order Management System
+-- Date: 2026-10-16
+
+-- Une ligne par clé : réservée au début du traitement, puis complétée avec la réponse à rejouer
+CREATE TABLE idempotency_keys (
+    cle VARCHAR(255) PRIMARY KEY,
+    empreinte VARCHAR(64) NOT NULL,
+    statut VARCHAR(20) NOT NULL DEFAULT 'EN_COURS',
+    code_http INTEGER,
+    reponse TEXT,
+    date_creation TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    date_expiration TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT chk_idempotency_keys_statut CHECK (statut IN ('EN_COURS', 'TERMINEE'))
+);
+
+-- Purge périodique des clés expirées
+CREATE INDEX idx_idempotency_keys_date_expiration ON idempotency_keys (date_expiration);
+
+COMMENT ON TABLE idempotency_keys IS 'Clés d''idempotence (en-tête Idempotency-Key) et réponses enregistrées';
+COMMENT ON COLUMN idempotency_keys.empreinte IS 'Empreinte SHA-256 du corps de la requête d''origine';
+COMMENT ON COLUMN idempotency_keys.reponse IS 'Corps JSON de la réponse d''origine, rejoué pour les requêtes répétées';
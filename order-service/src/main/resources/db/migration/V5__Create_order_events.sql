@@ -0,0 +1,26 @@
+-- Migration V5: Outbox des événements du cycle de vie des commandes
+-- Auteur: Order Management System
+-- Date: 2026-10-16
+
+-- Événements écrits dans la transaction qui modifie la commande, publiés ensuite par le relais
+CREATE TABLE order_events (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    statut VARCHAR(20) NOT NULL,
+    client_id BIGINT NOT NULL,
+    montant_total DECIMAL(10,2) NOT NULL,
+    date_evenement TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    date_publication TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT chk_order_events_type CHECK (type IN ('CREATED', 'STATUS_CHANGED', 'CANCELLED', 'DELETED'))
+);
+
+-- Événements à publier, dans l'ordre d'écriture
+CREATE INDEX idx_order_events_non_publies ON order_events (id) WHERE date_publication IS NULL;
+
+-- Purge des événements publiés
+CREATE INDEX idx_order_events_date_publication ON order_events (date_publication);
+
+COMMENT ON TABLE order_events IS 'Outbox des événements de commande, publiés au moins une fois dans l''ordre des IDs';
+COMMENT ON COLUMN order_events.order_id IS 'Commande concernée (pas de clé étrangère : la commande peut avoir été supprimée)';
+COMMENT ON COLUMN order_events.date_publication IS 'Date de publication vers tous les destinataires, NULL tant que l''événement reste à publier';
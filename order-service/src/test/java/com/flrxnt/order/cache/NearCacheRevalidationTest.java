@@ -0,0 +1,60 @@
+package com.flrxnt.order.cache;
+
+import com.flrxnt.order.config.NearCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Revalidation par ETag des entrées du cache local.
+ */
+class NearCacheRevalidationTest {
+
+    private final List<String> sentEtags = new ArrayList<>();
+    private final NearCache<String> cache = new NearCache<>("test", new NearCacheProperties.Spec(),
+            ids -> List.of(), value -> Long.valueOf(value.substring(0, 1)), new SimpleMeterRegistry());
+
+    @Test
+    void unchangedValueIsServedFromCacheOn304() {
+        assertThat(cache.revalidate(1L, this::fullResponse)).isEqualTo("1-v1");
+
+        String value = cache.revalidate(1L, (id, etag) -> {
+            sentEtags.add(etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        });
+
+        assertThat(sentEtags).containsExactly(null, "\"1-v1\"");
+        assertThat(value).isEqualTo("1-v1");
+        assertThat(cache.get(1L)).isEqualTo("1-v1");
+    }
+
+    @Test
+    void changedValueReplacesCachedCopy() {
+        cache.revalidate(2L, this::fullResponse);
+
+        String value = cache.revalidate(2L, (id, etag) -> ResponseEntity.ok().eTag("\"2-v2\"").body("2-v2"));
+
+        assertThat(value).isEqualTo("2-v2");
+        assertThat(cache.get(2L)).isEqualTo("2-v2");
+    }
+
+    @Test
+    void valueWithoutEtagIsFetchedUnconditionally() {
+        cache.put(3L, "3-batch");
+
+        cache.revalidate(3L, this::fullResponse);
+
+        assertThat(sentEtags).containsExactly((String) null);
+    }
+
+    private ResponseEntity<String> fullResponse(Long id, String etag) {
+        sentEtags.add(etag);
+        return ResponseEntity.ok().eTag("\"" + id + "-v1\"").body(id + "-v1");
+    }
+}
@@ -0,0 +1,113 @@
+package com.flrxnt.order.outbox;
+
+import com.flrxnt.order.dto.OrderEventDTO;
+import com.flrxnt.order.entity.Order;
+import com.flrxnt.order.entity.OrderEvent;
+import com.flrxnt.order.repository.OrderEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relais de l'outbox : ordre de publication par commande et publication au moins une fois.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.outbox.poll-interval=1h",
+        "app.outbox.batch-size=2"
+})
+@ActiveProfiles("test")
+class OrderEventRelayTest {
+
+    @Autowired
+    private OrderEventRelay relay;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        relay.relay();
+        orderEventRepository.deleteAll();
+        listener.received.clear();
+        listener.failNext.set(false);
+    }
+
+    @Test
+    void eventsArePublishedInWriteOrderAndOnlyOnce() {
+        record(1L, OrderEvent.Type.CREATED, Order.OrderStatus.PENDING);
+        record(2L, OrderEvent.Type.CREATED, Order.OrderStatus.PENDING);
+        record(1L, OrderEvent.Type.STATUS_CHANGED, Order.OrderStatus.CONFIRMED);
+        record(1L, OrderEvent.Type.CANCELLED, Order.OrderStatus.CANCELLED);
+        record(2L, OrderEvent.Type.DELETED, Order.OrderStatus.PENDING);
+
+        assertThat(relay.relay()).isEqualTo(5);
+        assertThat(relay.relay()).isZero();
+
+        assertThat(listener.received).extracting(OrderEventDTO::getOrderId).containsExactly(1L, 2L, 1L, 1L, 2L);
+        assertThat(listener.received.stream().filter(event -> event.getOrderId() == 1L).map(OrderEventDTO::getType))
+                .containsExactly(OrderEvent.Type.CREATED, OrderEvent.Type.STATUS_CHANGED, OrderEvent.Type.CANCELLED);
+        assertThat(orderEventRepository.findAll()).allSatisfy(event -> assertThat(event.getDatePublication()).isNotNull());
+    }
+
+    @Test
+    void failedBatchIsRepublishedBeforeLaterEvents() {
+        record(3L, OrderEvent.Type.CREATED, Order.OrderStatus.PENDING);
+        record(3L, OrderEvent.Type.STATUS_CHANGED, Order.OrderStatus.CONFIRMED);
+        record(3L, OrderEvent.Type.STATUS_CHANGED, Order.OrderStatus.PROCESSING);
+        listener.failNext.set(true);
+
+        assertThat(relay.relay()).isZero();
+        assertThat(orderEventRepository.findAll()).allSatisfy(event -> assertThat(event.getDatePublication()).isNull());
+
+        assertThat(relay.relay()).isEqualTo(3);
+        // Le premier événement a été reçu deux fois (au moins une fois), l'ordre est conservé
+        assertThat(listener.received).extracting(OrderEventDTO::getStatut).containsExactly(
+                Order.OrderStatus.PENDING,
+                Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PROCESSING);
+    }
+
+    private void record(Long orderId, OrderEvent.Type type, Order.OrderStatus statut) {
+        Order order = new Order(100L, null);
+        order.setId(orderId);
+        order.setStatut(statut);
+        orderEventRepository.save(new OrderEvent(order, type));
+    }
+
+    @TestConfiguration
+    static class ListenerConfig {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener {
+
+        final List<OrderEventDTO> received = new CopyOnWriteArrayList<>();
+        final AtomicBoolean failNext = new AtomicBoolean();
+
+        @EventListener
+        void onOrderEvent(OrderEventDTO event) {
+            received.add(event);
+            if (failNext.compareAndSet(true, false)) {
+                throw new IllegalStateException("Destinataire indisponible");
+            }
+        }
+    }
+}
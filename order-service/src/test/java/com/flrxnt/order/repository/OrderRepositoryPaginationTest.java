@@ -0,0 +1,130 @@
+package com.flrxnt.order.repository;
+
+import com.flrxnt.order.entity.Order;
+import com.flrxnt.order.entity.OrderItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que la pagination des commandes avec leurs items exécute un nombre
+ * constant de requêtes SQL par page, quelle que soit la taille de la page.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // Relais de l'outbox arrêté : ses lectures périodiques fausseraient le comptage des requêtes
+        "app.outbox.relay-enabled=false"
+})
+@ActiveProfiles("test")
+class OrderRepositoryPaginationTest {
+
+    private static final long CLIENT_ID = 42L;
+    private static final int ORDER_COUNT = 40;
+
+    // Page d'identifiants + comptage + chargement des commandes avec leurs items
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                Order order = new Order(CLIENT_ID, "Commande " + i);
+                for (int j = 0; j < 3; j++) {
+                    order.addItem(new OrderItem((long) j + 1, "Produit " + j, j + 1, new BigDecimal("10.00")));
+                }
+                orderRepository.save(order);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> orderRepository.deleteAll());
+    }
+
+    @Test
+    void findAllWithItemsUsesConstantStatementCount() {
+        assertConstantStatementCount(orderRepository::findAllWithItems);
+    }
+
+    @Test
+    void findByClientIdUsesConstantStatementCount() {
+        assertConstantStatementCount(pageable -> orderRepository.findByClientId(CLIENT_ID, pageable));
+    }
+
+    @Test
+    void findByStatutUsesConstantStatementCount() {
+        assertConstantStatementCount(pageable -> orderRepository.findByStatut(Order.OrderStatus.PENDING, pageable));
+    }
+
+    @Test
+    void pagesDoNotOverlapAndKeepRequestedOrder() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "dateCommande");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Page<Order> first = orderRepository.findAllWithItems(PageRequest.of(0, 15, sort));
+            Page<Order> second = orderRepository.findAllWithItems(PageRequest.of(1, 15, sort));
+
+            assertThat(first.getTotalElements()).isEqualTo(ORDER_COUNT);
+            assertThat(first.getContent()).hasSize(15);
+            assertThat(second.getContent()).hasSize(15);
+            assertThat(first.getContent()).doesNotContainAnyElementsOf(second.getContent());
+            assertThat(first.getContent())
+                    .extracting(Order::getDateCommande)
+                    .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        });
+    }
+
+    private void assertConstantStatementCount(Function<Pageable, Page<Order>> pageQuery) {
+        long smallPage = countStatements(pageQuery, PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "dateCommande")));
+        long largePage = countStatements(pageQuery, PageRequest.of(0, 30, Sort.by(Sort.Direction.DESC, "dateCommande")));
+
+        assertThat(smallPage).isEqualTo(STATEMENTS_PER_PAGE);
+        assertThat(largePage).isEqualTo(STATEMENTS_PER_PAGE);
+    }
+
+    private long countStatements(Function<Pageable, Page<Order>> pageQuery, Pageable pageable) {
+        return transactionTemplate.execute(status -> {
+            statistics.clear();
+
+            Page<Order> page = pageQuery.apply(pageable);
+
+            // Parcours des items comme le fait OrderMapper.toDTO
+            int itemCount = page.getContent().stream().mapToInt(order -> order.getItems().size()).sum();
+            assertThat(page.getContent()).hasSize(pageable.getPageSize());
+            assertThat(itemCount).isEqualTo(pageable.getPageSize() * 3);
+
+            return statistics.getPrepareStatementCount();
+        });
+    }
+}
@@ -0,0 +1,163 @@
+package com.flrxnt.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flrxnt.order.dto.OrderDTO;
+import com.flrxnt.order.entity.IdempotencyKey;
+import com.flrxnt.order.exception.IdempotencyKeyReuseException;
+import com.flrxnt.order.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotence des créations : une seule exécution par clé, réponse d'origine rejouée.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentDuplicatesWaitForTheOriginalResponse() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<ResponseEntity<OrderDTO>> action = () -> {
+            executions.incrementAndGet();
+            sleep(200);
+            OrderDTO order = new OrderDTO();
+            order.setId(1000L + executions.get());
+            return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<OrderDTO>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute("cle-concurrente", Map.of("clientId", 1), OrderDTO.class, action);
+                }));
+            }
+            start.countDown();
+            for (Future<ResponseEntity<OrderDTO>> future : futures) {
+                ResponseEntity<OrderDTO> response = future.get(30, TimeUnit.SECONDS);
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                assertThat(response.getBody().getId()).isEqualTo(1001L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findById("cle-concurrente")).get()
+                .satisfies(key -> assertThat(key.getCodeHttp()).isEqualTo(201));
+    }
+
+    @Test
+    void keyCannotBeReusedForAnotherRequest() {
+        idempotencyService.execute("cle-reutilisee", Map.of("clientId", 1), OrderDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(new OrderDTO()));
+
+        assertThatThrownBy(() -> idempotencyService.execute("cle-reutilisee", Map.of("clientId", 2), OrderDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(new OrderDTO())))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+    }
+
+    @Test
+    void failedRequestReleasesTheKey() {
+        assertThatThrownBy(() -> idempotencyService.execute("cle-echec", Map.of("clientId", 1), OrderDTO.class,
+                () -> {
+                    throw new IllegalArgumentException("Commande invalide");
+                }))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        ResponseEntity<OrderDTO> retried = idempotencyService.execute("cle-echec", Map.of("clientId", 1), OrderDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(new OrderDTO()));
+
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void staleInProgressKeyIsReclaimedAfterTheProcessingLease() throws Exception {
+        // Clé réservée par une instance arrêtée en plein traitement, bail de traitement expiré
+        LocalDateTime abandonnee = LocalDateTime.now().minusMinutes(10).truncatedTo(ChronoUnit.MICROS);
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey("cle-abandonnee", fingerprint(Map.of("clientId", 1)),
+                abandonnee, abandonnee.plusHours(24)));
+
+        ResponseEntity<OrderDTO> response = idempotencyService.execute("cle-abandonnee", Map.of("clientId", 1),
+                OrderDTO.class, () -> ResponseEntity.status(HttpStatus.CREATED).body(new OrderDTO()));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(idempotencyKeyRepository.findById("cle-abandonnee")).get()
+                .satisfies(key -> {
+                    assertThat(key.getStatut()).isEqualTo(IdempotencyKey.Status.TERMINEE);
+                    assertThat(key.getCodeHttp()).isEqualTo(201);
+                });
+    }
+
+    @Test
+    void inProgressKeyWithinTheProcessingLeaseIsNotReclaimed() throws Exception {
+        LocalDateTime reservee = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey("cle-en-cours", fingerprint(Map.of("clientId", 1)),
+                reservee, reservee.plusHours(24)));
+
+        AtomicInteger executions = new AtomicInteger();
+        assertThatThrownBy(() -> idempotencyService.execute("cle-en-cours", Map.of("clientId", 1), OrderDTO.class,
+                () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.status(HttpStatus.CREATED).body(new OrderDTO());
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(executions.get()).isZero();
+        assertThat(idempotencyKeyRepository.findById("cle-en-cours")).get()
+                .satisfies(key -> assertThat(key.getStatut()).isEqualTo(IdempotencyKey.Status.EN_COURS));
+    }
+
+    private String fingerprint(Object request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.flrxnt.product.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active les propriétés du journal des changements de produits.
+ */
+@Configuration
+@EnableConfigurationProperties(ProductChangeFeedProperties.class)
+public class ProductChangeFeedConfig {
+}
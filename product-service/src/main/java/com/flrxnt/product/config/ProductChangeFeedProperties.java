@@ -0,0 +1,80 @@
+package com.flrxnt.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés du journal des changements de produits.
+ */
+@ConfigurationProperties(prefix = "app.business.changes")
+public class ProductChangeFeedProperties {
+
+    // Attente maximale d'une requête en long-poll (inférieure au délai des requêtes asynchrones du conteneur)
+    private Duration maxWait = Duration.ofSeconds(25);
+
+    // Intervalle de relecture du journal pour les requêtes en attente (écritures des autres instances)
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    // Attente d'un numéro manquant d'origine inconnue (transaction d'une autre instance), depuis sa
+    // première observation ; au-delà, les consommateurs reçoivent un reset. Doit dépasser la durée
+    // de la plus longue transaction d'écriture.
+    private Duration gapGrace = Duration.ofSeconds(30);
+
+    // Nombre maximal de changements lus par requête
+    private int maxLimit = 1000;
+
+    // Durée de conservation du journal
+    private Duration retention = Duration.ofDays(7);
+
+    // Intervalle de purge du journal
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getGapGrace() {
+        return gapGrace;
+    }
+
+    public void setGapGrace(Duration gapGrace) {
+        this.gapGrace = gapGrace;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
@@ -0,0 +1,79 @@
+package com.flrxnt.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés du regroupement des décréments de stock concurrents d'un même produit.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   business:
+ *     stock:
+ *       batching:
+ *         enabled: true
+ *         window: 2ms
+ *         max-batch-size: 64
+ *         flush-threads: 4
+ *         transaction-timeout: 5s
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.business.stock.batching")
+public class StockBatchingProperties {
+
+    private boolean enabled = true;
+
+    // Durée maximale d'attente d'un décrément avant application de son lot
+    private Duration window = Duration.ofMillis(2);
+
+    // Taille à partir de laquelle un lot est appliqué sans attendre la fin de la fenêtre
+    private int maxBatchSize = 64;
+
+    // Threads appliquant les lots
+    private int flushThreads = 4;
+
+    // Délai de la transaction d'un lot ; un appelant attend au plus la fenêtre plus deux fois ce délai
+    private Duration transactionTimeout = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getFlushThreads() {
+        return flushThreads;
+    }
+
+    public void setFlushThreads(int flushThreads) {
+        this.flushThreads = flushThreads;
+    }
+
+    public Duration getTransactionTimeout() {
+        return transactionTimeout;
+    }
+
+    public void setTransactionTimeout(Duration transactionTimeout) {
+        this.transactionTimeout = transactionTimeout;
+    }
+}
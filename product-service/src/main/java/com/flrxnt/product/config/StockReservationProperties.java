@@ -0,0 +1,56 @@
+package com.flrxnt.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés des réservations de stock.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   business:
+ *     stock:
+ *       reservation:
+ *         ttl: 15m
+ *         sweep-interval: 30s
+ *         sweep-batch-size: 100
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.business.stock.reservation")
+public class StockReservationProperties {
+
+    // Durée de validité d'une réservation non confirmée
+    private Duration ttl = Duration.ofMinutes(15);
+
+    // Intervalle entre deux balayages des réservations expirées
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    // Nombre de réservations expirées libérées par transaction
+    private int sweepBatchSize = 100;
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public int getSweepBatchSize() {
+        return sweepBatchSize;
+    }
+
+    public void setSweepBatchSize(int sweepBatchSize) {
+        this.sweepBatchSize = sweepBatchSize;
+    }
+}
@@ -0,0 +1,16 @@
+package com.flrxnt.product.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les propriétés de gestion du stock (partitionnement, regroupement des décréments,
+ * réservations) et le balayage périodique des réservations expirées.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({StockShardingProperties.class, StockBatchingProperties.class,
+        StockReservationProperties.class})
+public class StockShardingConfig {
+}
@@ -0,0 +1,79 @@
+package com.flrxnt.product.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés du stock partitionné (shards) des produits très demandés.
+ *
+ * Exemple :
+ * <pre>
+ * app:
+ *   business:
+ *     stock:
+ *       sharding:
+ *         auto-enabled: true
+ *         shard-count: 8
+ *         contention-threshold: 4
+ *         trigger-count: 50
+ *         window: 10s
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.business.stock.sharding")
+public class StockShardingProperties {
+
+    // Bascule automatique des produits dont les décréments se concurrencent
+    private boolean autoEnabled = true;
+
+    // Nombre de compartiments créés lors d'une bascule (automatique ou sans nombre explicite)
+    private int shardCount = 8;
+
+    // Décréments simultanés du même produit à partir desquels un décrément est compté comme contendu
+    private int contentionThreshold = 4;
+
+    // Nombre de décréments contendus dans la fenêtre déclenchant la bascule
+    private int triggerCount = 50;
+
+    private Duration window = Duration.ofSeconds(10);
+
+    public boolean isAutoEnabled() {
+        return autoEnabled;
+    }
+
+    public void setAutoEnabled(boolean autoEnabled) {
+        this.autoEnabled = autoEnabled;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int getContentionThreshold() {
+        return contentionThreshold;
+    }
+
+    public void setContentionThreshold(int contentionThreshold) {
+        this.contentionThreshold = contentionThreshold;
+    }
+
+    public int getTriggerCount() {
+        return triggerCount;
+    }
+
+    public void setTriggerCount(int triggerCount) {
+        this.triggerCount = triggerCount;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+}
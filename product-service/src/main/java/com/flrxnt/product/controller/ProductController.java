@@ -1,8 +1,12 @@
 package com.flrxnt.product.controller;
 
+import com.flrxnt.product.dto.ProductChangesDTO;
 import com.flrxnt.product.dto.ProductCreateDTO;
 import com.flrxnt.product.dto.ProductDTO;
 import com.flrxnt.product.dto.ProductUpdateDTO;
+import com.flrxnt.product.dto.StockReservationDTO;
+import com.flrxnt.product.dto.StockReservationResultDTO;
+import com.flrxnt.product.service.ProductChangeService;
 import com.flrxnt.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,8 +27,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/products")
@@ -35,9 +45,11 @@ public class ProductController {
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
     private final ProductService productService;
+    private final ProductChangeService productChangeService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductChangeService productChangeService) {
         this.productService = productService;
+        this.productChangeService = productChangeService;
     }
 
     @Operation(summary = "Récupérer tous les produits avec pagination",
@@ -48,7 +60,7 @@ public class ProductController {
         @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @Parameter(description = "Numéro de la page (commence à 0)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Taille de la page")
@@ -56,7 +68,14 @@ public class ProductController {
             @Parameter(description = "Champ de tri")
             @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Direction du tri (asc ou desc)")
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Curseur de pagination (vide pour la première page) : active la pagination par curseur, triée par ID et sans comptage")
+            @RequestParam(required = false) String after) {
+
+        if (after != null) {
+            logger.debug("Récupération des produits par curseur - taille: {}", size);
+            return ResponseEntity.ok(productService.getProductsAfter(after, size));
+        }
 
         logger.debug("Récupération de tous les produits - page: {}, taille: {}, tri: {} {}",
                     page, size, sortBy, sortDir);
@@ -82,11 +101,36 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @Operation(summary = "Lire le journal des changements de produits",
+               description = "Retourne, pour chaque produit modifié après le numéro de séquence indiqué, son dernier changement. "
+                       + "Avec wait > 0, la requête attend au plus wait secondes qu'un changement survienne. "
+                       + "reset = true signale que des changements ont été purgés sans être lus, ou qu'un changement manquant "
+                       + "n'a pas pu être attendu : le catalogue doit être rechargé")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changements lus (éventuellement aucun)"),
+        @ApiResponse(responseCode = "400", description = "Numéro de séquence invalide")
+    })
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<ProductChangesDTO>> getChanges(
+            @Parameter(description = "Dernier numéro de séquence lu (nextSeq de la réponse précédente)")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Nombre maximal de changements lus")
+            @RequestParam(defaultValue = "500") int limit,
+            @Parameter(description = "Attente maximale en secondes si aucun changement n'est disponible")
+            @RequestParam(defaultValue = "0") int wait) {
+
+        logger.debug("Lecture du journal des changements après la séquence {}", since);
+
+        return productChangeService.awaitChanges(since, limit, Duration.ofSeconds(Math.max(0, wait)))
+                .thenApply(ResponseEntity::ok);
+    }
+
     @Operation(summary = "Récupérer un produit par ID",
                description = "Récupère un produit spécifique en utilisant son identifiant")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Produit trouvé",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Produit inchangé depuis la version désignée par If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Produit non trouvé"),
         @ApiResponse(responseCode = "400", description = "ID invalide")
     })
@@ -98,7 +142,41 @@ public class ProductController {
         logger.debug("Récupération du produit avec ID: {}", id);
 
         ProductDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        return withValidators(ResponseEntity.ok(), product).body(product);
+    }
+
+    @Operation(summary = "Récupérer plusieurs produits par leurs IDs",
+               description = "Récupère en un seul appel les produits correspondant aux IDs fournis (les IDs inconnus sont ignorés)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Produits trouvés"),
+        @ApiResponse(responseCode = "400", description = "Liste d'IDs invalide ou trop longue")
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductDTO>> getProductsByIds(
+            @Parameter(description = "IDs des produits séparés par des virgules", required = true)
+            @RequestParam List<Long> ids) {
+
+        logger.debug("Récupération groupée des produits: {}", ids);
+
+        List<ProductDTO> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Récupérer plusieurs produits par leurs IDs (corps de requête)",
+               description = "Variante POST de la récupération groupée, pour les listes d'IDs trop longues pour l'URL")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Produits trouvés"),
+        @ApiResponse(responseCode = "400", description = "Liste d'IDs invalide ou trop longue")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductDTO>> getProductsByIdsPost(
+            @Parameter(description = "Liste des IDs des produits", required = true)
+            @RequestBody List<Long> ids) {
+
+        logger.debug("Récupération groupée des produits (POST): {}", ids);
+
+        List<ProductDTO> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
     }
 
     @Operation(summary = "Créer un nouveau produit",
@@ -216,6 +294,115 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    @Operation(summary = "Partitionner le stock d'un produit",
+               description = "Répartit le stock d'un produit très demandé sur plusieurs compartiments "
+                       + "afin que les décréments concurrents ne se sérialisent plus sur une seule ligne")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock partitionné avec succès"),
+        @ApiResponse(responseCode = "404", description = "Produit non trouvé"),
+        @ApiResponse(responseCode = "400", description = "Nombre de compartiments invalide")
+    })
+    @PutMapping("/{id}/stock/shards")
+    public ResponseEntity<ProductDTO> enableStockSharding(
+            @Parameter(description = "ID du produit", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Nombre de compartiments (valeur configurée par défaut si absent)")
+            @RequestBody(required = false) Map<String, Integer> sharding) {
+
+        Integer shards = sharding != null ? sharding.get("shards") : null;
+        logger.debug("Partitionnement du stock du produit ID {} en {} compartiments", id, shards);
+
+        ProductDTO product = productService.enableStockSharding(id, shards);
+        return ResponseEntity.ok(product);
+    }
+
+    @Operation(summary = "Regrouper le stock d'un produit",
+               description = "Ramène le stock d'un produit partitionné sur sa ligne produit")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock regroupé avec succès"),
+        @ApiResponse(responseCode = "404", description = "Produit non trouvé")
+    })
+    @DeleteMapping("/{id}/stock/shards")
+    public ResponseEntity<ProductDTO> disableStockSharding(
+            @Parameter(description = "ID du produit", required = true)
+            @PathVariable Long id) {
+
+        logger.debug("Regroupement du stock du produit ID {}", id);
+
+        ProductDTO product = productService.disableStockSharding(id);
+        return ResponseEntity.ok(product);
+    }
+
+    @Operation(summary = "Réserver le stock d'un panier",
+               description = "Décrémente le stock de toutes les lignes en une seule transaction (tout ou rien) "
+                       + "et retourne le résultat ligne par ligne ; la réservation est restituée si elle "
+                       + "n'est pas confirmée avant son expiration")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock réservé pour toutes les lignes, identifiant de réservation retourné"),
+        @ApiResponse(responseCode = "409", description = "Au moins une ligne en échec, aucun stock réservé"),
+        @ApiResponse(responseCode = "400", description = "Réservation invalide")
+    })
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<StockReservationResultDTO> reserveStock(
+            @Parameter(description = "Lignes du panier à réserver", required = true)
+            @Valid @RequestBody StockReservationDTO reservation) {
+
+        logger.debug("Réservation de stock: {}", reservation);
+
+        StockReservationResultDTO result = productService.reserveStock(reservation);
+        return ResponseEntity.status(result.isAppliquee() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
+
+    @Operation(summary = "Confirmer une réservation de stock",
+               description = "Confirme une réservation active : le stock reste décompté et n'expire plus")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Réservation confirmée (ou déjà confirmée)"),
+        @ApiResponse(responseCode = "404", description = "Réservation non trouvée"),
+        @ApiResponse(responseCode = "409", description = "Réservation déjà libérée ou expirée")
+    })
+    @PostMapping("/stock/reservations/{reservationId}/confirm")
+    public ResponseEntity<StockReservationResultDTO> confirmReservation(
+            @Parameter(description = "ID de la réservation", required = true)
+            @PathVariable String reservationId) {
+
+        logger.debug("Confirmation de la réservation de stock {}", reservationId);
+
+        return ResponseEntity.ok(productService.confirmReservation(reservationId));
+    }
+
+    @Operation(summary = "Annuler la confirmation d'une réservation de stock",
+               description = "Rend active une réservation confirmée dont la commande n'a pas pu être confirmée : "
+                       + "elle expire de nouveau à sa date initiale")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Réservation active (ou déjà libérée ou expirée)"),
+        @ApiResponse(responseCode = "404", description = "Réservation non trouvée")
+    })
+    @PostMapping("/stock/reservations/{reservationId}/unconfirm")
+    public ResponseEntity<StockReservationResultDTO> revertConfirmation(
+            @Parameter(description = "ID de la réservation", required = true)
+            @PathVariable String reservationId) {
+
+        logger.debug("Annulation de la confirmation de la réservation de stock {}", reservationId);
+
+        return ResponseEntity.ok(productService.revertConfirmation(reservationId));
+    }
+
+    @Operation(summary = "Libérer une réservation de stock",
+               description = "Restitue le stock d'une réservation active ou confirmée (commande annulée ou non aboutie)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock restitué (ou déjà restitué), résultat ligne par ligne"),
+        @ApiResponse(responseCode = "404", description = "Réservation non trouvée")
+    })
+    @PostMapping("/stock/reservations/{reservationId}/release")
+    public ResponseEntity<StockReservationResultDTO> releaseReservation(
+            @Parameter(description = "ID de la réservation", required = true)
+            @PathVariable String reservationId) {
+
+        logger.debug("Libération de la réservation de stock {}", reservationId);
+
+        return ResponseEntity.ok(productService.releaseReservation(reservationId));
+    }
+
     @Operation(summary = "Rechercher des produits par nom",
                description = "Recherche des produits dont le nom contient le texte spécifié")
     @ApiResponse(responseCode = "200", description = "Résultats de la recherche")
@@ -340,4 +527,24 @@ public class ProductController {
         boolean hasEnoughStock = productService.hasEnoughStock(id, quantite);
         return ResponseEntity.ok(Map.of("hasEnoughStock", hasEnoughStock));
     }
+
+    /**
+     * Ajoute les validateurs HTTP d'un produit : les requêtes conditionnelles (If-None-Match,
+     * If-Modified-Since) dont la version est à jour reçoivent un 304 sans corps.
+     *
+     * Le stock partitionné évolue sans mise à jour de la ligne produit : l'ETag inclut donc le
+     * stock disponible, et Last-Modified n'est pas fourni pour ces produits.
+     */
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, ProductDTO product) {
+        if (product.getDateModification() == null) {
+            return builder;
+        }
+        ZonedDateTime modification = product.getDateModification().atZone(ZoneId.systemDefault());
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, modification.toInstant());
+        builder.eTag(product.getId() + "-" + Long.toHexString(micros) + "-" + product.getQuantiteStock());
+        if (product.getStockShards() == null || product.getStockShards() == 0) {
+            builder.lastModified(modification);
+        }
+        return builder;
+    }
 }
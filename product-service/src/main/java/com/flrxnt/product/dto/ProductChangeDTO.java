@@ -0,0 +1,61 @@
+package com.flrxnt.product.dto;
+
+import com.flrxnt.product.entity.ProductChange.ChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Dernier changement d'un produit dans une page du journal")
+public class ProductChangeDTO {
+
+    @Schema(description = "Numéro de séquence du changement", example = "1042")
+    private Long seq;
+
+    @Schema(description = "Identifiant du produit", example = "1")
+    private Long productId;
+
+    @Schema(description = "Type du dernier changement (SUPPRESSION : le produit n'existe plus)")
+    private ChangeType type;
+
+    // Constructeurs
+    public ProductChangeDTO() {
+    }
+
+    public ProductChangeDTO(Long seq, Long productId, ChangeType type) {
+        this.seq = seq;
+        this.productId = productId;
+        this.type = type;
+    }
+
+    // Getters et Setters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductChangeDTO{" +
+                "seq=" + seq +
+                ", productId=" + productId +
+                ", type=" + type +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package com.flrxnt.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Page du journal des changements de produits. Les changements d'un même produit sont
+ * fusionnés : seul le dernier est retourné. La page suivante s'obtient en passant
+ * {@code nextSeq} dans le paramètre {@code since}.
+ */
+@Schema(description = "Page du journal des changements de produits")
+public class ProductChangesDTO {
+
+    @Schema(description = "Produits modifiés depuis le numéro demandé, dernier changement de chacun")
+    private List<ProductChangeDTO> changes;
+
+    @Schema(description = "Numéro à passer dans since pour la suite du journal", example = "1042")
+    private long nextSeq;
+
+    @Schema(description = "Indique que d'autres changements sont déjà disponibles", example = "false")
+    private boolean hasMore;
+
+    @Schema(description = "Numéro demandé antérieur au journal conservé, ou changement manquant franchi sans être lu : "
+            + "le consommateur doit vider son cache",
+            example = "false")
+    private boolean reset;
+
+    public ProductChangesDTO() {
+    }
+
+    public ProductChangesDTO(List<ProductChangeDTO> changes, long nextSeq, boolean hasMore, boolean reset) {
+        this.changes = changes;
+        this.nextSeq = nextSeq;
+        this.hasMore = hasMore;
+        this.reset = reset;
+    }
+
+    public List<ProductChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ProductChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public long getNextSeq() {
+        return nextSeq;
+    }
+
+    public void setNextSeq(long nextSeq) {
+        this.nextSeq = nextSeq;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+}
@@ -35,6 +35,9 @@ public class ProductDTO {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dateModification;
 
+    @Schema(description = "Nombre de compartiments du stock (0 si le stock n'est pas partitionné)", example = "0")
+    private Integer stockShards;
+
     // Constructeurs
     public ProductDTO() {
     }
@@ -117,6 +120,14 @@ public class ProductDTO {
         this.dateModification = dateModification;
     }
 
+    public Integer getStockShards() {
+        return stockShards;
+    }
+
+    public void setStockShards(Integer stockShards) {
+        this.stockShards = stockShards;
+    }
+
     @Override
     public String toString() {
         return "ProductDTO{" +
@@ -128,6 +139,7 @@ public class ProductDTO {
                 ", categorie='" + categorie + '\'' +
                 ", dateCreation=" + dateCreation +
                 ", dateModification=" + dateModification +
+                ", stockShards=" + stockShards +
                 '}';
     }
 }
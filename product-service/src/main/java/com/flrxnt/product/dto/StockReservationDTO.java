@@ -0,0 +1,43 @@
+package com.flrxnt.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "DTO pour réserver ou libérer le stock de tout un panier en une seule opération")
+public class StockReservationDTO {
+
+    @NotEmpty(message = "La réservation doit contenir au moins une ligne")
+    @Size(max = 100, message = "La réservation ne peut pas dépasser 100 lignes")
+    @Valid
+    @Schema(description = "Lignes du panier (un même produit peut apparaître plusieurs fois)", required = true)
+    private List<StockReservationLineDTO> lignes = new ArrayList<>();
+
+    // Constructeurs
+    public StockReservationDTO() {
+    }
+
+    public StockReservationDTO(List<StockReservationLineDTO> lignes) {
+        this.lignes = lignes;
+    }
+
+    // Getters et Setters
+    public List<StockReservationLineDTO> getLignes() {
+        return lignes;
+    }
+
+    public void setLignes(List<StockReservationLineDTO> lignes) {
+        this.lignes = lignes;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationDTO{" +
+                "lignes=" + lignes +
+                '}';
+    }
+}
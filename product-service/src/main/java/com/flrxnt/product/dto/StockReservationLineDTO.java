@@ -0,0 +1,52 @@
+package com.flrxnt.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Ligne d'une réservation de stock : un produit et la quantité demandée")
+public class StockReservationLineDTO {
+
+    @NotNull(message = "L'ID du produit est obligatoire")
+    @Schema(description = "Identifiant du produit", example = "1", required = true)
+    private Long productId;
+
+    @NotNull(message = "La quantité est obligatoire")
+    @Min(value = 1, message = "La quantité doit être au moins de 1")
+    @Schema(description = "Quantité à réserver ou à libérer", example = "2", required = true)
+    private Integer quantite;
+
+    // Constructeurs
+    public StockReservationLineDTO() {
+    }
+
+    public StockReservationLineDTO(Long productId, Integer quantite) {
+        this.productId = productId;
+        this.quantite = quantite;
+    }
+
+    // Getters et Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantite() {
+        return quantite;
+    }
+
+    public void setQuantite(Integer quantite) {
+        this.quantite = quantite;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationLineDTO{" +
+                "productId=" + productId +
+                ", quantite=" + quantite +
+                '}';
+    }
+}
@@ -0,0 +1,119 @@
+package com.flrxnt.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Résultat d'une réservation ou d'une libération de stock pour un produit")
+public class StockReservationLineResultDTO {
+
+    @Schema(description = "Identifiant du produit", example = "1")
+    private Long productId;
+
+    @Schema(description = "Quantité demandée (lignes d'un même produit cumulées)", example = "2")
+    private Integer quantiteDemandee;
+
+    @Schema(description = "Quantité en stock avant l'opération, relue pour les lignes non appliquées d'une réservation refusée (absente si le produit n'existe pas)", example = "150")
+    private Integer quantiteDisponible;
+
+    @Schema(description = "Statut de la ligne")
+    private LineStatus statut;
+
+    @Schema(description = "Nom du produit au moment de l'opération", example = "Smartphone Samsung Galaxy")
+    private String nom;
+
+    @Schema(description = "Prix unitaire du produit au moment de l'opération", example = "299.99")
+    private BigDecimal prix;
+
+    // Enum pour les statuts de ligne
+    public enum LineStatus {
+        RESERVEE("Stock réservé"),
+        LIBEREE("Stock libéré"),
+        DISPONIBLE("Stock suffisant, mais réservation annulée à cause d'une autre ligne"),
+        STOCK_INSUFFISANT("Stock insuffisant"),
+        PRODUIT_INTROUVABLE("Produit non trouvé");
+
+        private final String description;
+
+        LineStatus(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    // Constructeurs
+    public StockReservationLineResultDTO() {
+    }
+
+    public StockReservationLineResultDTO(Long productId, Integer quantiteDemandee, Integer quantiteDisponible,
+                                         LineStatus statut, String nom, BigDecimal prix) {
+        this.productId = productId;
+        this.quantiteDemandee = quantiteDemandee;
+        this.quantiteDisponible = quantiteDisponible;
+        this.statut = statut;
+        this.nom = nom;
+        this.prix = prix;
+    }
+
+    // Getters et Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantiteDemandee() {
+        return quantiteDemandee;
+    }
+
+    public void setQuantiteDemandee(Integer quantiteDemandee) {
+        this.quantiteDemandee = quantiteDemandee;
+    }
+
+    public Integer getQuantiteDisponible() {
+        return quantiteDisponible;
+    }
+
+    public void setQuantiteDisponible(Integer quantiteDisponible) {
+        this.quantiteDisponible = quantiteDisponible;
+    }
+
+    public LineStatus getStatut() {
+        return statut;
+    }
+
+    public void setStatut(LineStatus statut) {
+        this.statut = statut;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public BigDecimal getPrix() {
+        return prix;
+    }
+
+    public void setPrix(BigDecimal prix) {
+        this.prix = prix;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationLineResultDTO{" +
+                "productId=" + productId +
+                ", quantiteDemandee=" + quantiteDemandee +
+                ", quantiteDisponible=" + quantiteDisponible +
+                ", statut=" + statut +
+                '}';
+    }
+}
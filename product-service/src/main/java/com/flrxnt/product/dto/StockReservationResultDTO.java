@@ -0,0 +1,89 @@
+package com.flrxnt.product.dto;
+
+import com.flrxnt.product.entity.StockReservation.ReservationStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Résultat d'une réservation ou d'une libération de stock, ligne par ligne")
+public class StockReservationResultDTO {
+
+    @Schema(description = "Vrai si toutes les lignes ont été appliquées ; pour une réservation, faux signifie qu'aucune ne l'a été",
+            example = "true")
+    private boolean appliquee;
+
+    @Schema(description = "Identifiant de la réservation (absent si la réservation est refusée)",
+            example = "3f2b8c1e-6a4d-4f0e-9b7a-2d5c8e1f0a3b")
+    private String reservationId;
+
+    @Schema(description = "Statut de la réservation")
+    private ReservationStatus statut;
+
+    @Schema(description = "Date à laquelle une réservation non confirmée est libérée", example = "2026-10-16T10:45:00")
+    private LocalDateTime dateExpiration;
+
+    @Schema(description = "Résultat par produit, trié par ID de produit")
+    private List<StockReservationLineResultDTO> lignes;
+
+    // Constructeurs
+    public StockReservationResultDTO() {
+    }
+
+    public StockReservationResultDTO(boolean appliquee, List<StockReservationLineResultDTO> lignes) {
+        this.appliquee = appliquee;
+        this.lignes = lignes;
+    }
+
+    // Getters et Setters
+    public boolean isAppliquee() {
+        return appliquee;
+    }
+
+    public void setAppliquee(boolean appliquee) {
+        this.appliquee = appliquee;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public ReservationStatus getStatut() {
+        return statut;
+    }
+
+    public void setStatut(ReservationStatus statut) {
+        this.statut = statut;
+    }
+
+    public LocalDateTime getDateExpiration() {
+        return dateExpiration;
+    }
+
+    public void setDateExpiration(LocalDateTime dateExpiration) {
+        this.dateExpiration = dateExpiration;
+    }
+
+    public List<StockReservationLineResultDTO> getLignes() {
+        return lignes;
+    }
+
+    public void setLignes(List<StockReservationLineResultDTO> lignes) {
+        this.lignes = lignes;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationResultDTO{" +
+                "appliquee=" + appliquee +
+                ", reservationId='" + reservationId + '\'' +
+                ", statut=" + statut +
+                ", dateExpiration=" + dateExpiration +
+                ", lignes=" + lignes +
+                '}';
+    }
+}
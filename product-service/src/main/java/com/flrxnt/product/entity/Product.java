@@ -2,6 +2,7 @@ package com.flrxnt.product.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Formula;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -37,6 +38,16 @@ public class Product {
     @Column(nullable = false)
     private String categorie;
 
+    // Nombre de compartiments de stock (0 = stock entièrement porté par quantiteStock)
+    @Column(name = "stock_shards", nullable = false)
+    private Integer stockShards = 0;
+
+    // Stock réparti dans les compartiments, lu avec le produit (sous-requête évitée si non partitionné)
+    @Formula("(CASE WHEN stock_shards > 0 THEN "
+            + "(SELECT COALESCE(SUM(s.quantite), 0) FROM product_stock_shards s WHERE s.product_id = id) "
+            + "ELSE 0 END)")
+    private Integer stockEnShards;
+
     @Column(name = "date_creation", nullable = false, updatable = false)
     private LocalDateTime dateCreation;
 
@@ -114,6 +125,26 @@ public class Product {
         this.quantiteStock = quantiteStock;
     }
 
+    public Integer getStockShards() {
+        return stockShards;
+    }
+
+    public void setStockShards(Integer stockShards) {
+        this.stockShards = stockShards;
+    }
+
+    public boolean hasStockShards() {
+        return stockShards != null && stockShards > 0;
+    }
+
+    /**
+     * Stock disponible : quantité de la ligne produit plus celle des compartiments éventuels
+     */
+    public Integer getStockDisponible() {
+        int enShards = stockEnShards != null ? stockEnShards : 0;
+        return quantiteStock != null ? quantiteStock + enShards : enShards;
+    }
+
     public String getCategorie() {
         return categorie;
     }
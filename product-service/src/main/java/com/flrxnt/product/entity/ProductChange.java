@@ -0,0 +1,65 @@
+package com.flrxnt.product.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changement d'un produit, numéroté par une séquence croissante : les consommateurs
+ * suivent le journal à partir du dernier numéro lu.
+ */
+@Entity
+@Table(name = "product_changes")
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeType type;
+
+    @Column(name = "date_changement", nullable = false, updatable = false)
+    private LocalDateTime dateChangement;
+
+    // Constructeurs
+    public ProductChange() {
+    }
+
+    public ProductChange(Long productId, ChangeType type) {
+        this.productId = productId;
+        this.type = type;
+        this.dateChangement = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public LocalDateTime getDateChangement() {
+        return dateChangement;
+    }
+
+    public enum ChangeType {
+        CREATION,
+        MODIFICATION,
+        // Stock disponible modifié (décrément, incrément, réservation, libération)
+        STOCK,
+        SUPPRESSION,
+        // Numéro d'une transaction annulée : comble le trou de séquence, jamais transmis aux consommateurs
+        ANNULATION
+    }
+}
@@ -0,0 +1,100 @@
+package com.flrxnt.product.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Compartiment de stock d'un produit partitionné : les décréments concurrents
+ * se répartissent sur plusieurs lignes au lieu de se sérialiser sur la ligne produit.
+ */
+@Entity
+@Table(name = "product_stock_shards")
+@IdClass(ProductStockShard.ShardId.class)
+public class ProductStockShard {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "shard")
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Integer quantite;
+
+    // Constructeurs
+    public ProductStockShard() {
+    }
+
+    public ProductStockShard(Long productId, Integer shard, Integer quantite) {
+        this.productId = productId;
+        this.shard = shard;
+        this.quantite = quantite;
+    }
+
+    // Getters et Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getShard() {
+        return shard;
+    }
+
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
+
+    public Integer getQuantite() {
+        return quantite;
+    }
+
+    public void setQuantite(Integer quantite) {
+        this.quantite = quantite;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductStockShard{" +
+                "productId=" + productId +
+                ", shard=" + shard +
+                ", quantite=" + quantite +
+                '}';
+    }
+
+    /**
+     * Clé composite (produit, numéro de compartiment)
+     */
+    public static class ShardId implements Serializable {
+
+        private Long productId;
+        private Integer shard;
+
+        public ShardId() {
+        }
+
+        public ShardId(Long productId, Integer shard) {
+            this.productId = productId;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ShardId other)) return false;
+            return Objects.equals(productId, other.productId) && Objects.equals(shard, other.shard);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(productId, shard);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.flrxnt.product.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réservation de stock d'une commande en attente.
+ *
+ * Le stock réservé est décompté du stock disponible dès la réservation : le stock disponible
+ * reste un compteur maintenu, sans somme des réservations actives à la lecture. Une réservation
+ * confirmée conserve son stock ; libérée ou expirée, elle le restitue.
+ */
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus statut = ReservationStatus.ACTIVE;
+
+    @Column(name = "date_expiration", nullable = false)
+    private LocalDateTime dateExpiration;
+
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_modification")
+    private LocalDateTime dateModification;
+
+    @ElementCollection
+    @CollectionTable(name = "stock_reservation_lines", joinColumns = @JoinColumn(name = "reservation_id"))
+    @OrderBy("productId")
+    private List<StockReservationLine> lignes = new ArrayList<>();
+
+    // Constructeurs
+    public StockReservation() {
+    }
+
+    public StockReservation(String id, LocalDateTime dateExpiration, List<StockReservationLine> lignes) {
+        this.id = id;
+        this.dateExpiration = dateExpiration;
+        this.lignes = lignes;
+    }
+
+    // Méthodes de cycle de vie JPA
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.dateCreation = now;
+        this.dateModification = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.dateModification = LocalDateTime.now();
+    }
+
+    // Getters et Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public ReservationStatus getStatut() {
+        return statut;
+    }
+
+    public void setStatut(ReservationStatus statut) {
+        this.statut = statut;
+    }
+
+    public LocalDateTime getDateExpiration() {
+        return dateExpiration;
+    }
+
+    public void setDateExpiration(LocalDateTime dateExpiration) {
+        this.dateExpiration = dateExpiration;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+
+    public List<StockReservationLine> getLignes() {
+        return lignes;
+    }
+
+    public void setLignes(List<StockReservationLine> lignes) {
+        this.lignes = lignes;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservation{" +
+                "id='" + id + '\'' +
+                ", statut=" + statut +
+                ", dateExpiration=" + dateExpiration +
+                ", lignes=" + lignes +
+                '}';
+    }
+
+    public enum ReservationStatus {
+        // Stock retenu, restitué à l'expiration
+        ACTIVE,
+        // Commande confirmée : le stock reste décompté
+        CONFIRMEE,
+        // Commande annulée ou non aboutie : stock restitué
+        LIBEREE,
+        // Expirée sans confirmation : stock restitué par le balayage périodique
+        EXPIREE
+    }
+}
@@ -0,0 +1,51 @@
+package com.flrxnt.product.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Quantité réservée d'un produit dans une réservation de stock.
+ */
+@Embeddable
+public class StockReservationLine {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantite;
+
+    // Constructeurs
+    public StockReservationLine() {
+    }
+
+    public StockReservationLine(Long productId, Integer quantite) {
+        this.productId = productId;
+        this.quantite = quantite;
+    }
+
+    // Getters et Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantite() {
+        return quantite;
+    }
+
+    public void setQuantite(Integer quantite) {
+        this.quantite = quantite;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationLine{" +
+                "productId=" + productId +
+                ", quantite=" + quantite +
+                '}';
+    }
+}
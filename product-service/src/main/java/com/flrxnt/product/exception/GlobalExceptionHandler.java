@@ -59,6 +59,46 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Gère les exceptions StockReservationNotFoundException
+     */
+    @ExceptionHandler(StockReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleStockReservationNotFoundException(
+            StockReservationNotFoundException ex, WebRequest request) {
+
+        logger.warn("Réservation de stock non trouvée: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                "STOCK_RESERVATION_NOT_FOUND",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", ""),
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Gère les exceptions StockReservationStateException
+     */
+    @ExceptionHandler(StockReservationStateException.class)
+    public ResponseEntity<ErrorResponse> handleStockReservationStateException(
+            StockReservationStateException ex, WebRequest request) {
+
+        logger.warn("Opération de réservation refusée: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "STOCK_RESERVATION_STATE",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", ""),
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Gère les erreurs de validation des champs (@Valid)
      */
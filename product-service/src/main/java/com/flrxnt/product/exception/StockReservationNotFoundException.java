@@ -0,0 +1,15 @@
+package com.flrxnt.product.exception;
+
+public class StockReservationNotFoundException extends RuntimeException {
+
+    private final String reservationId;
+
+    public StockReservationNotFoundException(String reservationId) {
+        super(String.format("Réservation de stock %s introuvable", reservationId));
+        this.reservationId = reservationId;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.flrxnt.product.exception;
+
+import com.flrxnt.product.entity.StockReservation.ReservationStatus;
+
+/**
+ * Opération impossible dans le statut actuel de la réservation (confirmation d'une réservation expirée...)
+ */
+public class StockReservationStateException extends RuntimeException {
+
+    private final String reservationId;
+    private final ReservationStatus statut;
+
+    public StockReservationStateException(String reservationId, ReservationStatus statut, String operation) {
+        super(String.format("Impossible de %s la réservation de stock %s: statut %s", operation, reservationId, statut));
+        this.reservationId = reservationId;
+        this.statut = statut;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public ReservationStatus getStatut() {
+        return statut;
+    }
+}
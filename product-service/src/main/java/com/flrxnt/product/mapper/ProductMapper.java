@@ -20,16 +20,18 @@ public class ProductMapper {
             return null;
         }
 
-        return new ProductDTO(
+        ProductDTO dto = new ProductDTO(
                 product.getId(),
                 product.getNom(),
                 product.getDescription(),
                 product.getPrix(),
-                product.getQuantiteStock(),
+                product.getStockDisponible(),
                 product.getCategorie(),
                 product.getDateCreation(),
                 product.getDateModification()
         );
+        dto.setStockShards(product.getStockShards());
+        return dto;
     }
 
     /**
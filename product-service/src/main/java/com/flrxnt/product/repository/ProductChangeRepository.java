@@ -0,0 +1,54 @@
+package com.flrxnt.product.repository;
+
+import com.flrxnt.product.entity.ProductChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    /**
+     * Changements postérieurs au numéro indiqué, dans l'ordre de la séquence
+     */
+    @Query("SELECT c FROM ProductChange c WHERE c.seq > :since ORDER BY c.seq")
+    List<ProductChange> findAfter(@Param("since") long since, Limit limit);
+
+    /**
+     * Dernier numéro de séquence visible (0 si le journal est vide)
+     */
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM ProductChange c")
+    long findMaxSeq();
+
+    /**
+     * Plus petit numéro de séquence encore conservé (0 si le journal est vide)
+     */
+    @Query("SELECT COALESCE(MIN(c.seq), 0) FROM ProductChange c")
+    long findMinSeq();
+
+    /**
+     * Occupe le numéro d'un changement dont la transaction a été annulée : les lecteurs
+     * franchissent ce numéro sans attendre l'expiration du trou
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO product_changes (seq, product_id, type, date_changement) " +
+                   "VALUES (:seq, :productId, 'ANNULATION', :date)", nativeQuery = true)
+    int insertCancellation(@Param("seq") long seq, @Param("productId") long productId,
+                           @Param("date") LocalDateTime date);
+
+    /**
+     * Supprime les changements antérieurs à la date indiquée
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.dateChangement < :date")
+    int deleteOlderThan(@Param("date") LocalDateTime date);
+}
@@ -1,6 +1,7 @@
 package com.flrxnt.product.repository;
 
 import com.flrxnt.product.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,12 +11,23 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    /**
+     * Stock disponible en JPQL : ligne produit plus compartiments éventuels (voir {@link Product#getStockDisponible()})
+     */
+    String STOCK_DISPONIBLE = "(p.quantiteStock + p.stockEnShards)";
+
+    /**
+     * Pagination par curseur : produits d'ID strictement supérieur, triés par ID (parcours de la clé primaire)
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     /**
      * Trouve tous les produits par catégorie
      */
@@ -44,17 +56,21 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * Trouve les produits avec un stock supérieur à la quantité spécifiée
      */
-    List<Product> findByQuantiteStockGreaterThan(Integer quantite);
+    @Query("SELECT p FROM Product p WHERE " + STOCK_DISPONIBLE + " > :quantite")
+    List<Product> findByQuantiteStockGreaterThan(@Param("quantite") Integer quantite);
 
     /**
      * Trouve les produits avec un stock inférieur ou égal à la quantité spécifiée (produits en rupture/faible stock)
      */
-    List<Product> findByQuantiteStockLessThanEqual(Integer quantite);
+    @Query("SELECT p FROM Product p WHERE " + STOCK_DISPONIBLE + " <= :quantite")
+    List<Product> findByQuantiteStockLessThanEqual(@Param("quantite") Integer quantite);
 
     /**
      * Trouve les produits par catégorie et avec un stock supérieur à zéro
      */
-    List<Product> findByCategorieAndQuantiteStockGreaterThan(String categorie, Integer quantite);
+    @Query("SELECT p FROM Product p WHERE p.categorie = :categorie AND " + STOCK_DISPONIBLE + " > :quantite")
+    List<Product> findByCategorieAndQuantiteStockGreaterThan(@Param("categorie") String categorie,
+                                                             @Param("quantite") Integer quantite);
 
     /**
      * Vérifie si un produit existe avec le nom spécifié
@@ -74,7 +90,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "(:categorie IS NULL OR p.categorie = :categorie) AND " +
            "(:prixMin IS NULL OR p.prix >= :prixMin) AND " +
            "(:prixMax IS NULL OR p.prix <= :prixMax) AND " +
-           "(:stockMin IS NULL OR p.quantiteStock >= :stockMin)")
+           "(:stockMin IS NULL OR " + STOCK_DISPONIBLE + " >= :stockMin)")
     Page<Product> findProductsByCriteria(
             @Param("nom") String nom,
             @Param("categorie") String categorie,
@@ -84,31 +100,55 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             Pageable pageable);
 
     /**
-     * Met à jour le stock d'un produit
+     * Verrouille en écriture un produit (changement de mode de stock).
+     * Requête native : le FOR UPDATE généré par le dialecte PostgreSQL n'est pas compris par H2 (profil dev)
+     */
+    @Query(value = "SELECT id FROM products WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Retourne le nombre de compartiments de stock d'un produit (0 si non partitionné)
      */
-    @Modifying
-    @Query("UPDATE Product p SET p.quantiteStock = :nouvelleQuantite WHERE p.id = :id")
+    @Query("SELECT p.stockShards FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockShardsById(@Param("id") Long id);
+
+    /**
+     * Change le mode de stock d'un produit : nombre de compartiments et quantité restant sur la ligne produit
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockShards = :stockShards, p.quantiteStock = :quantiteStock, " +
+           "p.dateModification = CURRENT_TIMESTAMP WHERE p.id = :id")
+    int updateStockMode(@Param("id") Long id, @Param("stockShards") Integer stockShards,
+                        @Param("quantiteStock") Integer quantiteStock);
+
+    /**
+     * Met à jour le stock d'un produit en une seule instruction.
+     * Le contexte de persistance est vidé afin qu'une relecture retourne la valeur en base
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantiteStock = :nouvelleQuantite, p.dateModification = CURRENT_TIMESTAMP WHERE p.id = :id")
     int updateStock(@Param("id") Long id, @Param("nouvelleQuantite") Integer nouvelleQuantite);
 
     /**
-     * Décrémente le stock d'un produit
+     * Décrémente le stock d'un produit si la quantité disponible est suffisante (0 ligne modifiée sinon)
      */
-    @Modifying
-    @Query("UPDATE Product p SET p.quantiteStock = p.quantiteStock - :quantite WHERE p.id = :id AND p.quantiteStock >= :quantite")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantiteStock = p.quantiteStock - :quantite, p.dateModification = CURRENT_TIMESTAMP " +
+           "WHERE p.id = :id AND p.quantiteStock >= :quantite")
     int decrementStock(@Param("id") Long id, @Param("quantite") Integer quantite);
 
     /**
      * Incrémente le stock d'un produit
      */
-    @Modifying
-    @Query("UPDATE Product p SET p.quantiteStock = p.quantiteStock + :quantite WHERE p.id = :id")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantiteStock = p.quantiteStock + :quantite, p.dateModification = CURRENT_TIMESTAMP WHERE p.id = :id")
     int incrementStock(@Param("id") Long id, @Param("quantite") Integer quantite);
 
     /**
      * Trouve les produits les plus vendus (nécessiterait une table de commandes pour être vraiment utile)
      * Pour l'instant, on trie par stock décroissant comme approximation
      */
-    @Query("SELECT p FROM Product p ORDER BY p.quantiteStock DESC")
+    @Query("SELECT p FROM Product p ORDER BY " + STOCK_DISPONIBLE + " DESC")
     List<Product> findTopSellingProducts(Pageable pageable);
 
     /**
@@ -126,12 +166,18 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * Trouve les produits avec le stock le plus faible
      */
-    @Query("SELECT p FROM Product p WHERE p.quantiteStock > 0 ORDER BY p.quantiteStock ASC")
+    @Query("SELECT p FROM Product p WHERE " + STOCK_DISPONIBLE + " > 0 ORDER BY " + STOCK_DISPONIBLE + " ASC")
     List<Product> findLowStockProducts(Pageable pageable);
 
+    /**
+     * Relit en base le stock disponible de plusieurs produits : lignes (ID, stock disponible)
+     */
+    @Query("SELECT p.id, " + STOCK_DISPONIBLE + " FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockDisponibleByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Vérifie si un produit a suffisamment de stock
      */
-    @Query("SELECT CASE WHEN p.quantiteStock >= :quantiteRequise THEN true ELSE false END FROM Product p WHERE p.id = :id")
+    @Query("SELECT CASE WHEN " + STOCK_DISPONIBLE + " >= :quantiteRequise THEN true ELSE false END FROM Product p WHERE p.id = :id")
     Optional<Boolean> hasEnoughStock(@Param("id") Long id, @Param("quantiteRequise") Integer quantiteRequise);
 }
@@ -0,0 +1,52 @@
+package com.flrxnt.product.repository;
+
+import com.flrxnt.product.entity.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, ProductStockShard.ShardId> {
+
+    /**
+     * Décrémente un compartiment si sa quantité est suffisante (0 ligne modifiée sinon)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductStockShard s SET s.quantite = s.quantite - :quantite " +
+           "WHERE s.productId = :productId AND s.shard = :shard AND s.quantite >= :quantite")
+    int decrementShard(@Param("productId") Long productId, @Param("shard") Integer shard, @Param("quantite") Integer quantite);
+
+    /**
+     * Incrémente un compartiment
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductStockShard s SET s.quantite = s.quantite + :quantite " +
+           "WHERE s.productId = :productId AND s.shard = :shard")
+    int incrementShard(@Param("productId") Long productId, @Param("shard") Integer shard, @Param("quantite") Integer quantite);
+
+    /**
+     * Fixe la quantité d'un compartiment
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductStockShard s SET s.quantite = :quantite WHERE s.productId = :productId AND s.shard = :shard")
+    int updateShard(@Param("productId") Long productId, @Param("shard") Integer shard, @Param("quantite") Integer quantite);
+
+    /**
+     * Verrouille tous les compartiments d'un produit, dans l'ordre des numéros de compartiment.
+     * Requête native : le FOR UPDATE généré par le dialecte PostgreSQL n'est pas compris par H2 (profil dev)
+     */
+    @Query(value = "SELECT * FROM product_stock_shards WHERE product_id = :productId ORDER BY shard FOR UPDATE",
+           nativeQuery = true)
+    List<ProductStockShard> findAllByProductIdForUpdate(@Param("productId") Long productId);
+
+    /**
+     * Supprime les compartiments d'un produit
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
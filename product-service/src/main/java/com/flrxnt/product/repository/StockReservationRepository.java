@@ -0,0 +1,44 @@
+package com.flrxnt.product.repository;
+
+import com.flrxnt.product.entity.StockReservation;
+import com.flrxnt.product.entity.StockReservation.ReservationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /**
+     * Change le statut d'une réservation si son statut actuel fait partie de ceux attendus
+     * (0 ligne modifiée sinon) : une seule transition concurrente l'emporte
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.statut = :nouveauStatut, r.dateModification = CURRENT_TIMESTAMP " +
+           "WHERE r.id = :id AND r.statut IN :statutsAttendus")
+    int transition(@Param("id") String id,
+                   @Param("statutsAttendus") Collection<ReservationStatus> statutsAttendus,
+                   @Param("nouveauStatut") ReservationStatus nouveauStatut);
+
+    /**
+     * IDs des réservations dans le statut donné expirées avant la date indiquée, les plus anciennes d'abord
+     */
+    @Query("SELECT r.id FROM StockReservation r WHERE r.statut = :statut AND r.dateExpiration < :date " +
+           "ORDER BY r.dateExpiration")
+    List<String> findIdsByStatutAndDateExpirationBefore(@Param("statut") ReservationStatus statut,
+                                                        @Param("date") LocalDateTime date,
+                                                        Limit limit);
+
+    /**
+     * Réservations avec leurs lignes, en une seule requête
+     */
+    @Query("SELECT DISTINCT r FROM StockReservation r LEFT JOIN FETCH r.lignes WHERE r.id IN :ids")
+    List<StockReservation> findAllWithLignesByIdIn(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,32 @@
+package com.flrxnt.product.service;
+
+import com.flrxnt.product.dto.ProductChangesDTO;
+import com.flrxnt.product.entity.ProductChange.ChangeType;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface du journal des changements de produits
+ */
+public interface ProductChangeService {
+
+    /**
+     * Lit les changements postérieurs au numéro de séquence indiqué
+     *
+     * @param since dernier numéro de séquence déjà lu (0 pour lire depuis le début du journal)
+     * @param limit nombre maximal de changements lus
+     */
+    ProductChangesDTO getChanges(long since, int limit);
+
+    /**
+     * Comme {@link #getChanges}, mais attend au plus {@code wait} qu'un changement survienne
+     * si aucun n'est encore disponible (long-poll) ; la page retournée est alors vide
+     */
+    CompletableFuture<ProductChangesDTO> awaitChanges(long since, int limit, Duration wait);
+
+    /**
+     * Ajoute un changement au journal dans la transaction courante (requise)
+     */
+    void record(Long productId, ChangeType type);
+}
@@ -1,12 +1,16 @@
 package com.flrxnt.product.service;
 
+import com.flrxnt.product.dto.CursorPageDTO;
 import com.flrxnt.product.dto.ProductCreateDTO;
 import com.flrxnt.product.dto.ProductDTO;
 import com.flrxnt.product.dto.ProductUpdateDTO;
+import com.flrxnt.product.dto.StockReservationDTO;
+import com.flrxnt.product.dto.StockReservationResultDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductService {
@@ -21,11 +25,23 @@ public interface ProductService {
      */
     List<ProductDTO> getAllProducts();
 
+    /**
+     * Récupère une page de produits triés par ID à partir d'un curseur (pagination keyset, sans comptage)
+     * @param after curseur retourné par la page précédente, null ou vide pour la première page
+     * @param size taille de la page
+     */
+    CursorPageDTO<ProductDTO> getProductsAfter(String after, int size);
+
     /**
      * Récupère un produit par son ID
      */
     ProductDTO getProductById(Long id);
 
+    /**
+     * Récupère plusieurs produits en une seule requête (les IDs inconnus sont ignorés)
+     */
+    List<ProductDTO> getProductsByIds(Collection<Long> ids);
+
     /**
      * Crée un nouveau produit
      */
@@ -56,6 +72,46 @@ public interface ProductService {
      */
     ProductDTO incrementStock(Long id, Integer quantite);
 
+    /**
+     * Réserve en une seule transaction le stock de toutes les lignes d'un panier :
+     * soit toutes les lignes sont décrémentées, soit aucune. Une réservation appliquée
+     * est restituée si elle n'est pas confirmée avant son expiration
+     */
+    StockReservationResultDTO reserveStock(StockReservationDTO reservation);
+
+    /**
+     * Confirme une réservation active : le stock reste décompté et n'expire plus
+     */
+    StockReservationResultDTO confirmReservation(String reservationId);
+
+    /**
+     * Annule la confirmation d'une réservation (commande dont la confirmation n'a pas été validée) :
+     * elle redevient active et expire à sa date initiale. Sans effet si elle n'est plus confirmée
+     */
+    StockReservationResultDTO revertConfirmation(String reservationId);
+
+    /**
+     * Libère une réservation active ou confirmée et restitue son stock (commande annulée ou non aboutie)
+     */
+    StockReservationResultDTO releaseReservation(String reservationId);
+
+    /**
+     * Restitue le stock d'au plus {@code limit} réservations actives expirées
+     *
+     * @return le nombre de réservations expirées examinées
+     */
+    int releaseExpiredReservations(int limit);
+
+    /**
+     * Partitionne le stock d'un produit en compartiments (produits très demandés)
+     */
+    ProductDTO enableStockSharding(Long id, Integer shards);
+
+    /**
+     * Regroupe le stock d'un produit partitionné sur sa ligne produit
+     */
+    ProductDTO disableStockSharding(Long id);
+
     /**
      * Recherche des produits par nom (recherche partielle, insensible à la casse)
      */
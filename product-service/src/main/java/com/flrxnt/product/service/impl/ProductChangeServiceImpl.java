@@ -0,0 +1,296 @@
+package com.flrxnt.product.service.impl;
+
+import com.flrxnt.product.config.ProductChangeFeedProperties;
+import com.flrxnt.product.dto.ProductChangeDTO;
+import com.flrxnt.product.dto.ProductChangesDTO;
+import com.flrxnt.product.entity.ProductChange;
+import com.flrxnt.product.entity.ProductChange.ChangeType;
+import com.flrxnt.product.repository.ProductChangeRepository;
+import com.flrxnt.product.service.ProductChangeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Journal des changements de produits.
+ *
+ * Chaque écriture sur un produit ajoute une ligne au journal dans sa propre transaction.
+ * La séquence est attribuée à l'insertion mais les transactions ne sont pas validées dans
+ * cet ordre : la lecture s'arrête devant un numéro manquant, qui peut être une transaction
+ * encore en cours. Un numéro n'est jamais franchi sans en informer le consommateur :
+ *
+ * - numéro d'une transaction en cours sur cette instance : la lecture l'attend ;
+ * - transaction annulée : son numéro est occupé par une ligne {@code ANNULATION} après le
+ *   rollback, franchie sans délai (un échec de réservation ne bloque pas le journal) ;
+ * - origine inconnue (autre instance, ou instance arrêtée avant d'occuper le numéro) : attente
+ *   de {@code gap-grace} depuis sa première observation, puis reset du consommateur, qui vide
+ *   son cache et reprend après le trou.
+ *
+ * Les requêtes en long-poll sont réveillées après chaque commit sur cette instance, et
+ * relues périodiquement pour les écritures des autres instances.
+ */
+@Service
+public class ProductChangeServiceImpl implements ProductChangeService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeServiceImpl.class);
+
+    private final ProductChangeRepository changeRepository;
+    private final ProductChangeFeedProperties properties;
+    private final TransactionTemplate requiresNew;
+
+    // Numéros attribués aux transactions en cours sur cette instance
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Première observation (System.nanoTime) de chaque numéro manquant d'origine inconnue
+    private final ConcurrentMap<Long, Long> gapsFirstSeen = new ConcurrentHashMap<>();
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+
+    public ProductChangeServiceImpl(ProductChangeRepository changeRepository, ProductChangeFeedProperties properties,
+                                    PlatformTransactionManager transactionManager) {
+        this.changeRepository = changeRepository;
+        this.properties = properties;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangesDTO getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Le numéro de séquence ne peut pas être négatif");
+        }
+        int pageSize = Math.min(Math.max(1, limit), properties.getMaxLimit());
+
+        // Numéro antérieur au journal conservé : des changements ont été purgés sans être lus
+        long minSeq = changeRepository.findMinSeq();
+        if (since > 0 && since < minSeq - 1) {
+            return new ProductChangesDTO(List.of(), minSeq - 1, true, true);
+        }
+
+        List<ProductChange> rows = changeRepository.findAfter(since, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        long now = System.nanoTime();
+
+        // Dernier changement de chaque produit, dans l'ordre de la séquence
+        Map<Long, ProductChange> latest = new LinkedHashMap<>();
+        long nextSeq = since;
+        for (ProductChange row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+            // Depuis le début du journal, le premier changement conservé n'a pas de prédécesseur attendu
+            if (nextSeq > 0 && row.getSeq() != nextSeq + 1) {
+                Gap gap = gap(nextSeq + 1, row.getSeq(), now);
+                if (gap == Gap.PENDING) {
+                    // Transaction peut-être encore en cours : lecture reprise au prochain appel
+                    hasMore = false;
+                    break;
+                }
+                if (nextSeq > since) {
+                    // Trou expiré : changements lus rendus d'abord, le reset suit au prochain appel
+                    hasMore = true;
+                    break;
+                }
+                logger.warn("Changements {} à {} absents du journal depuis plus de {}, reset des consommateurs",
+                        nextSeq + 1, row.getSeq() - 1, properties.getGapGrace());
+                return new ProductChangesDTO(List.of(), row.getSeq() - 1, true, true);
+            }
+            if (row.getType() != ChangeType.ANNULATION) {
+                latest.remove(row.getProductId());
+                latest.put(row.getProductId(), row);
+            }
+            nextSeq = row.getSeq();
+        }
+
+        List<ProductChangeDTO> changes = latest.values().stream()
+                .map(change -> new ProductChangeDTO(change.getSeq(), change.getProductId(), change.getType()))
+                .collect(Collectors.toList());
+        return new ProductChangesDTO(changes, nextSeq, hasMore, false);
+    }
+
+    @Override
+    public CompletableFuture<ProductChangesDTO> awaitChanges(long since, int limit, Duration wait) {
+        ProductChangesDTO page = getChanges(since, limit);
+        if (!page.getChanges().isEmpty() || page.isReset() || wait == null || wait.isZero() || wait.isNegative()) {
+            return CompletableFuture.completedFuture(page);
+        }
+
+        Duration timeout = wait.compareTo(properties.getMaxWait()) > 0 ? properties.getMaxWait() : wait;
+        CompletableFuture<ProductChangesDTO> result = new CompletableFuture<>();
+        Waiter waiter = new Waiter(since, limit, result);
+        waiters.add(waiter);
+        result.completeOnTimeout(page, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> waiters.remove(waiter));
+        return result;
+    }
+
+    /**
+     * Ajoute un changement au journal dans la transaction courante ; les requêtes en attente
+     * sont réveillées après son commit, et le numéro d'un changement annulé est occupé après le rollback.
+     */
+    @Override
+    public void record(Long productId, ChangeType type) {
+        ProductChange change = changeRepository.save(new ProductChange(productId, type));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        // Une seule synchronisation par transaction, quel que soit le nombre de changements
+        @SuppressWarnings("unchecked")
+        List<ProductChange> recorded = (List<ProductChange>) TransactionSynchronizationManager.getResource(this);
+        if (recorded == null) {
+            List<ProductChange> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeServiceImpl.this);
+                    completed(changes, status == STATUS_COMMITTED);
+                }
+            });
+            recorded = changes;
+        }
+        recorded.add(change);
+        inFlight.add(change.getSeq());
+    }
+
+    private void completed(List<ProductChange> changes, boolean committed) {
+        try {
+            if (!committed) {
+                requiresNew.executeWithoutResult(status -> changes.forEach(change -> changeRepository
+                        .insertCancellation(change.getSeq(), change.getProductId(), change.getDateChangement())));
+            }
+        } catch (RuntimeException e) {
+            // Numéro laissé vide : les lecteurs le franchiront par un reset après gap-grace
+            logger.warn("Impossible d'occuper les numéros des changements annulés: {}", e.getMessage());
+        } finally {
+            changes.forEach(change -> inFlight.remove(change.getSeq()));
+        }
+        signal();
+    }
+
+    /**
+     * État des numéros manquants de {@code from} (inclus) à {@code to} (exclu).
+     */
+    private Gap gap(long from, long to, long now) {
+        long graceNanos = properties.getGapGrace().toNanos();
+        // Au-delà, un trou ne provient pas de transactions mais d'un saut de séquence : seul son début est suivi
+        long last = Math.min(to, from + properties.getMaxLimit());
+        boolean pending = false;
+        for (long seq = from; seq < last; seq++) {
+            if (inFlight.contains(seq)) {
+                return Gap.PENDING;
+            }
+            long firstSeen = gapsFirstSeen.computeIfAbsent(seq, missing -> now);
+            pending |= now - firstSeen < graceNanos;
+        }
+        return pending ? Gap.PENDING : Gap.EXPIRED;
+    }
+
+    /**
+     * Oubli des numéros manquants observés depuis longtemps : comblés, ou déjà signalés par un reset
+     */
+    @Scheduled(fixedDelayString = "${app.business.changes.gap-grace:30s}")
+    void forgetOldGaps() {
+        long horizon = System.nanoTime() - 2 * properties.getGapGrace().toNanos();
+        gapsFirstSeen.values().removeIf(firstSeen -> firstSeen - horizon < 0);
+    }
+
+    /**
+     * Relecture périodique pour les requêtes en attente : changements écrits par les autres instances
+     * et trous de séquence comblés entre-temps
+     */
+    @Scheduled(fixedDelayString = "${app.business.changes.poll-interval:1s}")
+    void pollForWaiters() {
+        signal();
+    }
+
+    /**
+     * Purge périodique des changements au-delà de la durée de conservation
+     */
+    @Scheduled(fixedDelayString = "${app.business.changes.purge-interval:1h}")
+    void purgeOldChanges() {
+        try {
+            int deleted = changeRepository.deleteOlderThan(LocalDateTime.now().minus(properties.getRetention()));
+            if (deleted > 0) {
+                logger.info("{} changements de produits purgés du journal", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Échec de la purge du journal des changements de produits: {}", e.getMessage());
+        }
+    }
+
+    private void signal() {
+        if (!waiters.isEmpty() && dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchPending.set(false);
+        try {
+            long maxSeq = changeRepository.findMaxSeq();
+            for (Waiter waiter : waiters) {
+                if (waiter.result().isDone() || waiter.since() >= maxSeq) {
+                    continue;
+                }
+                ProductChangesDTO page = getChanges(waiter.since(), waiter.limit());
+                if (!page.getChanges().isEmpty() || page.isReset()) {
+                    waiter.result().complete(page);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Échec de la relecture du journal pour les requêtes en attente: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Numéros manquants : attendus, ou expirés sans avoir été comblés
+     */
+    private enum Gap {
+        PENDING,
+        EXPIRED
+    }
+
+    /**
+     * Requête en long-poll en attente de changements postérieurs à {@code since}
+     */
+    private record Waiter(long since, int limit, CompletableFuture<ProductChangesDTO> result) {
+    }
+}
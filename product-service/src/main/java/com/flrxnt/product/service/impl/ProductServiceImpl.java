@@ -1,24 +1,58 @@
 package com.flrxnt.product.service.impl;
 
+import com.flrxnt.product.config.StockReservationProperties;
+import com.flrxnt.product.config.StockShardingProperties;
+import com.flrxnt.product.dto.CursorPageDTO;
 import com.flrxnt.product.dto.ProductCreateDTO;
 import com.flrxnt.product.dto.ProductDTO;
 import com.flrxnt.product.dto.ProductUpdateDTO;
+import com.flrxnt.product.dto.StockReservationDTO;
+import com.flrxnt.product.dto.StockReservationLineDTO;
+import com.flrxnt.product.dto.StockReservationLineResultDTO;
+import com.flrxnt.product.dto.StockReservationLineResultDTO.LineStatus;
+import com.flrxnt.product.dto.StockReservationResultDTO;
 import com.flrxnt.product.entity.Product;
+import com.flrxnt.product.entity.ProductChange.ChangeType;
+import com.flrxnt.product.entity.StockReservation;
+import com.flrxnt.product.entity.StockReservation.ReservationStatus;
+import com.flrxnt.product.entity.StockReservationLine;
 import com.flrxnt.product.exception.InsufficientStockException;
 import com.flrxnt.product.exception.ProductNotFoundException;
+import com.flrxnt.product.exception.StockReservationNotFoundException;
+import com.flrxnt.product.exception.StockReservationStateException;
 import com.flrxnt.product.mapper.ProductMapper;
 import com.flrxnt.product.repository.ProductRepository;
+import com.flrxnt.product.repository.StockReservationRepository;
+import com.flrxnt.product.service.ProductChangeService;
 import com.flrxnt.product.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,12 +60,35 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    // Nombre maximum d'IDs acceptés par une requête de récupération groupée
+    static final int MAX_BATCH_SIZE = 100;
+
+    // Taille maximale d'une page en pagination par curseur
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
-
-    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
+    private final ShardedStock shardedStock;
+    private final StockShardingProperties shardingProperties;
+    private final StockDecrementBatcher stockDecrementBatcher;
+    private final StockReservationRepository reservationRepository;
+    private final StockReservationProperties reservationProperties;
+    private final ProductChangeService changes;
+
+    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper,
+                              ShardedStock shardedStock, StockShardingProperties shardingProperties,
+                              StockDecrementBatcher stockDecrementBatcher,
+                              StockReservationRepository reservationRepository,
+                              StockReservationProperties reservationProperties,
+                              ProductChangeService changes) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.shardedStock = shardedStock;
+        this.shardingProperties = shardingProperties;
+        this.stockDecrementBatcher = stockDecrementBatcher;
+        this.reservationRepository = reservationRepository;
+        this.reservationProperties = reservationProperties;
+        this.changes = changes;
     }
 
     @Override
@@ -53,6 +110,24 @@ public class ProductServiceImpl implements ProductService {
         return productMapper.toDTOList(products);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> getProductsAfter(String after, int size) {
+        int pageSize = Math.min(Math.max(1, size), MAX_CURSOR_PAGE_SIZE);
+        long afterId = decodeCursor(after);
+
+        logger.debug("Récupération des produits après l'ID {} - taille: {}", afterId, pageSize);
+
+        // Un élément de plus que la taille de page pour savoir s'il existe une page suivante
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+
+        boolean hasNext = products.size() > pageSize;
+        List<Product> pageContent = hasNext ? products.subList(0, pageSize) : products;
+        String nextCursor = hasNext ? encodeCursor(pageContent.get(pageContent.size() - 1).getId()) : null;
+
+        return new CursorPageDTO<>(productMapper.toDTOList(pageContent), pageSize, nextCursor);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
@@ -68,6 +143,33 @@ public class ProductServiceImpl implements ProductService {
         return productMapper.toDTO(product);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByIds(Collection<Long> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("La liste des IDs ne peut pas être null");
+        }
+
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Le nombre d'IDs demandés ne peut pas dépasser " + MAX_BATCH_SIZE);
+        }
+
+        logger.debug("Récupération groupée de {} produits", distinctIds.size());
+
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Product> products = productRepository.findAllById(distinctIds);
+        return productMapper.toDTOList(products);
+    }
+
     @Override
     public ProductDTO createProduct(ProductCreateDTO createDTO) {
         logger.debug("Création d'un nouveau produit: {}", createDTO.getNom());
@@ -83,6 +185,7 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = productMapper.toEntity(createDTO);
         Product savedProduct = productRepository.save(product);
+        changes.record(savedProduct.getId(), ChangeType.CREATION);
 
         logger.info("Produit créé avec succès: ID {}, Nom {}", savedProduct.getId(), savedProduct.getNom());
         return productMapper.toDTO(savedProduct);
@@ -110,8 +213,21 @@ public class ProductServiceImpl implements ProductService {
             }
         }
 
+        // Stock partitionné : la quantité est répartie sur les compartiments, pas écrite sur la ligne produit
+        Integer quantitePartitionnee = existingProduct.hasStockShards() ? updateDTO.getQuantiteStock() : null;
+        Integer quantiteLigne = existingProduct.getQuantiteStock();
+
         productMapper.updateEntity(existingProduct, updateDTO);
+        if (quantitePartitionnee != null) {
+            existingProduct.setQuantiteStock(quantiteLigne);
+        }
         Product updatedProduct = productRepository.save(existingProduct);
+        changes.record(id, ChangeType.MODIFICATION);
+
+        if (quantitePartitionnee != null) {
+            shardedStock.set(id, quantitePartitionnee);
+            updatedProduct = reload(id);
+        }
 
         logger.info("Produit mis à jour avec succès: ID {}", id);
         return productMapper.toDTO(updatedProduct);
@@ -130,6 +246,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.deleteById(id);
+        changes.record(id, ChangeType.SUPPRESSION);
         logger.info("Produit supprimé avec succès: ID {}", id);
     }
 
@@ -145,17 +262,17 @@ public class ProductServiceImpl implements ProductService {
             throw new IllegalArgumentException("La quantité doit être positive ou nulle");
         }
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
-
-        product.setQuantiteStock(nouvelleQuantite);
-        Product updatedProduct = productRepository.save(product);
+        if (!shardedStock.set(id, nouvelleQuantite)) {
+            throw new ProductNotFoundException(id);
+        }
 
         logger.info("Stock mis à jour pour le produit ID {}: nouvelle quantité {}", id, nouvelleQuantite);
-        return productMapper.toDTO(updatedProduct);
+        return productMapper.toDTO(reload(id));
     }
 
+    // Hors transaction : le décrément est appliqué et commité dans la transaction de son lot
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductDTO decrementStock(Long id, Integer quantite) {
         logger.debug("Décrémentation du stock du produit ID {} de {}", id, quantite);
 
@@ -167,18 +284,18 @@ public class ProductServiceImpl implements ProductService {
             throw new IllegalArgumentException("La quantité à décrémenter doit être positive");
         }
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
-
-        if (product.getQuantiteStock() < quantite) {
-            throw new InsufficientStockException(id, quantite, product.getQuantiteStock());
+        // Décrément conditionnel atomique, regroupé avec les décréments concurrents du même produit
+        if (!stockDecrementBatcher.decrement(id, quantite)) {
+            // Relecture uniquement en cas d'échec, pour distinguer produit inconnu et stock insuffisant
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ProductNotFoundException(id));
+            throw new InsufficientStockException(id, quantite, product.getStockDisponible());
         }
 
-        product.decrementStock(quantite);
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = reload(id);
 
         logger.info("Stock décrémenté pour le produit ID {}: quantité {}, nouveau stock {}",
-                   id, quantite, updatedProduct.getQuantiteStock());
+                   id, quantite, updatedProduct.getStockDisponible());
         return productMapper.toDTO(updatedProduct);
     }
 
@@ -194,17 +311,192 @@ public class ProductServiceImpl implements ProductService {
             throw new IllegalArgumentException("La quantité à incrémenter doit être positive");
         }
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
+        if (!shardedStock.increment(id, quantite)) {
+            throw new ProductNotFoundException(id);
+        }
 
-        product.incrementStock(quantite);
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = reload(id);
 
         logger.info("Stock incrémenté pour le produit ID {}: quantité {}, nouveau stock {}",
-                   id, quantite, updatedProduct.getQuantiteStock());
+                   id, quantite, updatedProduct.getStockDisponible());
         return productMapper.toDTO(updatedProduct);
     }
 
+    @Override
+    public StockReservationResultDTO reserveStock(StockReservationDTO reservation) {
+        SortedMap<Long, Integer> quantites = aggregateLines(reservation);
+        logger.debug("Réservation du stock de {} produits", quantites.size());
+
+        Map<Long, Product> products = productRepository.findAllById(quantites.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Décréments conditionnels dans l'ordre des IDs : les verrous de ligne (produit ou compartiment)
+        // sont pris dans le même ordre par toutes les réservations, qui s'attendent sans s'interbloquer
+        List<StockReservationLineResultDTO> lignes = new ArrayList<>(quantites.size());
+        boolean complete = true;
+        Set<Long> evaluated = new HashSet<>();
+        for (Map.Entry<Long, Integer> entry : quantites.entrySet()) {
+            Product product = products.get(entry.getKey());
+            LineStatus statut;
+            if (product == null) {
+                statut = LineStatus.PRODUIT_INTROUVABLE;
+            } else if (!complete) {
+                // Réservation déjà vouée à l'échec : la ligne n'est plus appliquée, seulement évaluée
+                evaluated.add(entry.getKey());
+                statut = product.getStockDisponible() >= entry.getValue()
+                        ? LineStatus.DISPONIBLE
+                        : LineStatus.STOCK_INSUFFISANT;
+            } else if (shardedStock.decrement(entry.getKey(), entry.getValue())) {
+                statut = LineStatus.RESERVEE;
+            } else {
+                statut = LineStatus.STOCK_INSUFFISANT;
+            }
+            complete &= statut == LineStatus.RESERVEE;
+            lignes.add(toLineResult(entry.getKey(), entry.getValue(), product, statut));
+        }
+
+        if (!complete) {
+            // Tout ou rien : les lignes déjà décrémentées sont annulées avec la transaction
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            refreshUnappliedLines(lignes, evaluated);
+            lignes.stream()
+                    .filter(ligne -> ligne.getStatut() == LineStatus.RESERVEE)
+                    .forEach(ligne -> ligne.setStatut(LineStatus.DISPONIBLE));
+            logger.info("Réservation refusée, aucune ligne appliquée: {}", lignes);
+            return new StockReservationResultDTO(false, lignes);
+        }
+
+        // Inscription au registre : la réservation est restituée si elle n'est pas confirmée à temps
+        StockReservation stockReservation = reservationRepository.save(new StockReservation(
+                UUID.randomUUID().toString(),
+                LocalDateTime.now().plus(reservationProperties.getTtl()),
+                quantites.entrySet().stream()
+                        .map(entry -> new StockReservationLine(entry.getKey(), entry.getValue()))
+                        .collect(Collectors.toList())));
+
+        logger.info("Stock réservé pour {} produits, réservation {} jusqu'au {}",
+                   lignes.size(), stockReservation.getId(), stockReservation.getDateExpiration());
+        return toReservationResult(stockReservation, lignes);
+    }
+
+    @Override
+    public StockReservationResultDTO confirmReservation(String reservationId) {
+        logger.debug("Confirmation de la réservation de stock {}", reservationId);
+
+        if (reservationRepository.transition(reservationId, EnumSet.of(ReservationStatus.ACTIVE),
+                ReservationStatus.CONFIRMEE) == 0) {
+            // Déjà confirmée : confirmation idempotente ; libérée ou expirée : le stock n'est plus retenu
+            ReservationStatus statut = findReservation(reservationId).getStatut();
+            if (statut != ReservationStatus.CONFIRMEE) {
+                throw new StockReservationStateException(reservationId, statut, "confirmer");
+            }
+        }
+
+        StockReservation stockReservation = findReservation(reservationId);
+        logger.info("Réservation de stock {} confirmée", reservationId);
+        return toReservationResult(stockReservation, stockReservation.getLignes().stream()
+                .map(ligne -> toLineResult(ligne.getProductId(), ligne.getQuantite(), null, LineStatus.RESERVEE))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public StockReservationResultDTO revertConfirmation(String reservationId) {
+        logger.debug("Annulation de la confirmation de la réservation de stock {}", reservationId);
+
+        if (reservationRepository.transition(reservationId, EnumSet.of(ReservationStatus.CONFIRMEE),
+                ReservationStatus.ACTIVE) == 1) {
+            logger.info("Confirmation de la réservation de stock {} annulée", reservationId);
+        }
+
+        // Déjà active, libérée ou expirée : rien à annuler
+        StockReservation stockReservation = findReservation(reservationId);
+        LineStatus statut = stockReservation.getStatut() == ReservationStatus.ACTIVE
+                ? LineStatus.RESERVEE : LineStatus.LIBEREE;
+        return toReservationResult(stockReservation, stockReservation.getLignes().stream()
+                .map(ligne -> toLineResult(ligne.getProductId(), ligne.getQuantite(), null, statut))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public StockReservationResultDTO releaseReservation(String reservationId) {
+        logger.debug("Libération de la réservation de stock {}", reservationId);
+
+        // Une réservation confirmée reste libérable (annulation d'une commande confirmée)
+        if (reservationRepository.transition(reservationId,
+                EnumSet.of(ReservationStatus.ACTIVE, ReservationStatus.CONFIRMEE), ReservationStatus.LIBEREE) == 0) {
+            // Déjà libérée ou expirée : le stock a déjà été restitué, libération idempotente
+            StockReservation stockReservation = findReservation(reservationId);
+            return toReservationResult(stockReservation, stockReservation.getLignes().stream()
+                    .map(ligne -> toLineResult(ligne.getProductId(), ligne.getQuantite(), null, LineStatus.LIBEREE))
+                    .collect(Collectors.toList()));
+        }
+
+        StockReservation stockReservation = findReservation(reservationId);
+        SortedMap<Long, Integer> quantites = new TreeMap<>();
+        stockReservation.getLignes().forEach(ligne -> quantites.put(ligne.getProductId(), ligne.getQuantite()));
+
+        // Compensation au mieux : un produit supprimé entre-temps ne bloque pas la libération des autres
+        List<StockReservationLineResultDTO> lignes = new ArrayList<>(quantites.size());
+        quantites.forEach((productId, quantite) -> lignes.add(toLineResult(productId, quantite, null,
+                shardedStock.increment(productId, quantite) ? LineStatus.LIBEREE : LineStatus.PRODUIT_INTROUVABLE)));
+
+        logger.info("Réservation de stock {} libérée ({} produits)", reservationId, lignes.size());
+        StockReservationResultDTO result = toReservationResult(stockReservation, lignes);
+        result.setAppliquee(lignes.stream().allMatch(ligne -> ligne.getStatut() == LineStatus.LIBEREE));
+        return result;
+    }
+
+    @Override
+    public int releaseExpiredReservations(int limit) {
+        List<String> expiredIds = reservationRepository.findIdsByStatutAndDateExpirationBefore(
+                ReservationStatus.ACTIVE, LocalDateTime.now(), Limit.of(limit));
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+
+        // Seules les réservations dont la transition l'emporte (ni confirmées ni libérées entre-temps) sont restituées
+        List<String> expired = expiredIds.stream()
+                .filter(id -> reservationRepository.transition(id, EnumSet.of(ReservationStatus.ACTIVE),
+                        ReservationStatus.EXPIREE) == 1)
+                .collect(Collectors.toList());
+
+        // Quantités cumulées par produit, réincrémentées dans l'ordre des IDs (même ordre de verrouillage que les réservations)
+        SortedMap<Long, Integer> quantites = new TreeMap<>();
+        if (!expired.isEmpty()) {
+            reservationRepository.findAllWithLignesByIdIn(expired).forEach(stockReservation ->
+                    stockReservation.getLignes().forEach(ligne ->
+                            quantites.merge(ligne.getProductId(), ligne.getQuantite(), Integer::sum)));
+        }
+        quantites.forEach(shardedStock::increment);
+
+        logger.info("{} réservations de stock expirées libérées ({} produits)", expired.size(), quantites.size());
+        return expiredIds.size();
+    }
+
+    @Override
+    public ProductDTO enableStockSharding(Long id, Integer shards) {
+        logger.debug("Partitionnement du stock du produit ID {} en {} compartiments", id, shards);
+
+        if (id == null) {
+            throw new IllegalArgumentException("L'ID du produit ne peut pas être null");
+        }
+
+        shardedStock.enable(id, shards != null ? shards : shardingProperties.getShardCount());
+        return productMapper.toDTO(reload(id));
+    }
+
+    @Override
+    public ProductDTO disableStockSharding(Long id) {
+        logger.debug("Regroupement du stock du produit ID {}", id);
+
+        if (id == null) {
+            throw new IllegalArgumentException("L'ID du produit ne peut pas être null");
+        }
+
+        shardedStock.disable(id);
+        return productMapper.toDTO(reload(id));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProductDTO> searchProductsByName(String nom) {
@@ -402,4 +694,114 @@ public class ProductServiceImpl implements ProductService {
         List<Product> products = productRepository.findLowStockProducts(pageable);
         return productMapper.toDTOList(products);
     }
+
+    private StockReservation findReservation(String reservationId) {
+        if (reservationId == null || reservationId.isBlank()) {
+            throw new IllegalArgumentException("L'ID de la réservation ne peut pas être vide");
+        }
+        return reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new StockReservationNotFoundException(reservationId));
+    }
+
+    /**
+     * Relit un produit après une mise à jour en une seule instruction.
+     */
+    private Product reload(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+    }
+
+    /**
+     * Relit le stock des lignes non appliquées d'une réservation refusée : une réservation concurrente
+     * a pu prendre le stock entre la première lecture et les décréments. Les lignes seulement évaluées
+     * le sont de nouveau sur le stock relu.
+     */
+    private void refreshUnappliedLines(List<StockReservationLineResultDTO> lignes, Set<Long> evaluated) {
+        List<Long> ids = lignes.stream()
+                .filter(ligne -> ligne.getStatut() == LineStatus.STOCK_INSUFFISANT
+                        || ligne.getStatut() == LineStatus.DISPONIBLE)
+                .map(StockReservationLineResultDTO::getProductId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> stocks = productRepository.findStockDisponibleByIds(ids).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> ((Number) row[1]).intValue()));
+        for (StockReservationLineResultDTO ligne : lignes) {
+            Integer stock = stocks.get(ligne.getProductId());
+            if (stock == null) {
+                continue;
+            }
+            ligne.setQuantiteDisponible(stock);
+            if (evaluated.contains(ligne.getProductId())) {
+                ligne.setStatut(stock >= ligne.getQuantiteDemandee() ? LineStatus.DISPONIBLE : LineStatus.STOCK_INSUFFISANT);
+            }
+        }
+    }
+
+    /**
+     * Cumule les quantités par produit ; l'ordre croissant des IDs fixe l'ordre de verrouillage.
+     */
+    private static SortedMap<Long, Integer> aggregateLines(StockReservationDTO reservation) {
+        if (reservation == null || reservation.getLignes() == null || reservation.getLignes().isEmpty()) {
+            throw new IllegalArgumentException("La réservation doit contenir au moins une ligne");
+        }
+
+        SortedMap<Long, Integer> quantites = new TreeMap<>();
+        for (StockReservationLineDTO ligne : reservation.getLignes()) {
+            if (ligne == null || ligne.getProductId() == null) {
+                throw new IllegalArgumentException("L'ID du produit ne peut pas être null");
+            }
+            if (ligne.getQuantite() == null || ligne.getQuantite() <= 0) {
+                throw new IllegalArgumentException("La quantité doit être positive pour le produit " + ligne.getProductId());
+            }
+            quantites.merge(ligne.getProductId(), ligne.getQuantite(), (cumul, quantite) -> {
+                if (cumul > Integer.MAX_VALUE - quantite) {
+                    throw new IllegalArgumentException("Quantité totale trop grande pour le produit " + ligne.getProductId());
+                }
+                return cumul + quantite;
+            });
+        }
+
+        if (quantites.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Le nombre de produits d'une réservation ne peut pas dépasser " + MAX_BATCH_SIZE);
+        }
+        return quantites;
+    }
+
+    private static StockReservationLineResultDTO toLineResult(Long productId, Integer quantite,
+                                                              Product product, LineStatus statut) {
+        if (product == null) {
+            return new StockReservationLineResultDTO(productId, quantite, null, statut, null, null);
+        }
+        return new StockReservationLineResultDTO(productId, quantite, product.getStockDisponible(), statut,
+                product.getNom(), product.getPrix());
+    }
+
+    private static StockReservationResultDTO toReservationResult(StockReservation stockReservation,
+                                                                 List<StockReservationLineResultDTO> lignes) {
+        StockReservationResultDTO result = new StockReservationResultDTO(true, lignes);
+        result.setReservationId(stockReservation.getId());
+        result.setStatut(stockReservation.getStatut());
+        result.setDateExpiration(stockReservation.getDateExpiration());
+        return result;
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide: " + cursor);
+        }
+    }
 }
@@ -0,0 +1,332 @@
+package com.flrxnt.product.service.impl;
+
+import com.flrxnt.product.config.StockShardingProperties;
+import com.flrxnt.product.entity.Product;
+import com.flrxnt.product.entity.ProductChange.ChangeType;
+import com.flrxnt.product.entity.ProductStockShard;
+import com.flrxnt.product.exception.ProductNotFoundException;
+import com.flrxnt.product.repository.ProductRepository;
+import com.flrxnt.product.repository.ProductStockShardRepository;
+import com.flrxnt.product.service.ProductChangeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mutations de stock tenant compte du mode partitionné (shards).
+ *
+ * Un produit non partitionné porte son stock sur sa ligne {@code products}. Un produit partitionné
+ * le répartit sur N compartiments : chaque décrément vise un compartiment tiré au hasard puis les
+ * suivants, et ne verrouille l'ensemble des compartiments (dans l'ordre) que si aucun ne suffit seul.
+ * Le stock disponible reste la somme de la ligne produit et des compartiments.
+ *
+ * Le mode de chaque produit est mémorisé localement ; un mode périmé (bascule faite par une autre
+ * instance) se corrige au premier décrément qui échoue. Les produits dont les décréments se
+ * concurrencent au-delà du seuil configuré sont basculés automatiquement après le commit.
+ * Chaque mutation effective est inscrite au journal des changements de produits.
+ *
+ * Toutes les méthodes s'exécutent dans la transaction de l'appelant.
+ */
+@Component
+class ShardedStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedStock.class);
+
+    // Nombre maximal de compartiments par produit
+    static final int MAX_SHARDS = 64;
+
+    private final ProductRepository productRepository;
+    private final ProductStockShardRepository shardRepository;
+    private final StockShardingProperties properties;
+    private final ProductChangeService changes;
+    private final TransactionTemplate requiresNew;
+
+    // Nombre de compartiments des produits connus comme partitionnés
+    private final ConcurrentMap<Long, Integer> knownShards = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Contention> contention = new ConcurrentHashMap<>();
+    private final Set<Long> pendingSwitches = ConcurrentHashMap.newKeySet();
+
+    ShardedStock(ProductRepository productRepository,
+                 ProductStockShardRepository shardRepository,
+                 StockShardingProperties properties,
+                 ProductChangeService changes,
+                 PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.shardRepository = shardRepository;
+        this.properties = properties;
+        this.changes = changes;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Décrémente le stock d'un produit si la quantité disponible suffit.
+     *
+     * @return false si le stock est insuffisant ou si le produit n'existe pas
+     */
+    boolean decrement(Long id, int quantite) {
+        return decrement(id, quantite, 1);
+    }
+
+    /**
+     * Décrémente le stock d'un produit de la somme de {@code requests} demandes regroupées : chacune
+     * compte comme un décrément simultané dans la détection de contention.
+     *
+     * @return false si le stock est insuffisant ou si le produit n'existe pas
+     */
+    boolean decrement(Long id, int quantite, int requests) {
+        boolean trigger = beginDecrement(id, requests);
+        try {
+            return recorded(id, applyDecrement(id, quantite));
+        } finally {
+            endDecrement(id, requests);
+            if (trigger) {
+                scheduleSharding(id);
+            }
+        }
+    }
+
+    /**
+     * Incrémente le stock d'un produit.
+     *
+     * @return false si le produit n'existe pas
+     */
+    boolean increment(Long id, int quantite) {
+        Integer shards = knownShards.get(id);
+        if (shards != null && shardRepository.incrementShard(id, randomShard(shards), quantite) == 1) {
+            return recorded(id, true);
+        }
+        // Produit non partitionné, ou compartiment absent : la ligne produit compte dans le stock disponible
+        return recorded(id, productRepository.incrementStock(id, quantite) == 1);
+    }
+
+    /**
+     * Fixe le stock disponible d'un produit, réparti également entre ses compartiments s'il est partitionné.
+     *
+     * @return false si le produit n'existe pas
+     */
+    boolean set(Long id, int quantite) {
+        int shards = productRepository.findStockShardsById(id).orElse(0);
+        if (shards == 0) {
+            knownShards.remove(id);
+            return recorded(id, productRepository.updateStock(id, quantite) == 1);
+        }
+
+        List<ProductStockShard> locked = shardRepository.findAllByProductIdForUpdate(id);
+        for (int i = 0; i < locked.size(); i++) {
+            shardRepository.updateShard(id, locked.get(i).getShard(), share(quantite, locked.size(), i));
+        }
+        return recorded(id, productRepository.updateStock(id, locked.isEmpty() ? quantite : 0) == 1);
+    }
+
+    /**
+     * Partitionne (ou repartitionne) le stock d'un produit en {@code shards} compartiments.
+     */
+    void enable(Long id, int shards) {
+        if (shards < 2 || shards > MAX_SHARDS) {
+            throw new IllegalArgumentException(
+                    "Le nombre de compartiments doit être compris entre 2 et " + MAX_SHARDS);
+        }
+
+        int total = lockAndDrain(id);
+        for (int i = 0; i < shards; i++) {
+            shardRepository.save(new ProductStockShard(id, i, share(total, shards, i)));
+        }
+        productRepository.updateStockMode(id, shards, 0);
+        knownShards.put(id, shards);
+        changes.record(id, ChangeType.MODIFICATION);
+
+        logger.info("Stock du produit ID {} partitionné en {} compartiments ({} unités)", id, shards, total);
+    }
+
+    /**
+     * Regroupe le stock d'un produit partitionné sur sa ligne produit.
+     */
+    void disable(Long id) {
+        int total = lockAndDrain(id);
+        productRepository.updateStockMode(id, 0, total);
+        knownShards.remove(id);
+        changes.record(id, ChangeType.MODIFICATION);
+
+        logger.info("Stock du produit ID {} regroupé sur la ligne produit ({} unités)", id, total);
+    }
+
+    private boolean applyDecrement(Long id, int quantite) {
+        Integer known = knownShards.get(id);
+        // Cas courant : produit non partitionné, une seule instruction conditionnelle
+        if (known == null && productRepository.decrementStock(id, quantite) == 1) {
+            return true;
+        }
+
+        int shards = known != null ? known : productRepository.findStockShardsById(id).orElse(0);
+        if (shards == 0) {
+            return false;
+        }
+        knownShards.put(id, shards);
+
+        int start = randomShard(shards);
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.decrementShard(id, (start + i) % shards, quantite) == 1) {
+                return true;
+            }
+        }
+
+        // Aucun compartiment ne suffit seul : verrouillage de tous, dans l'ordre, et prélèvement réparti
+        List<ProductStockShard> locked = shardRepository.findAllByProductIdForUpdate(id);
+        if (locked.isEmpty()) {
+            knownShards.remove(id);
+        } else {
+            knownShards.put(id, locked.size());
+        }
+
+        int available = locked.stream().mapToInt(ProductStockShard::getQuantite).sum();
+        if (available >= quantite) {
+            int remaining = quantite;
+            for (ProductStockShard shard : locked) {
+                int taken = Math.min(remaining, shard.getQuantite());
+                if (taken > 0) {
+                    shardRepository.decrementShard(id, shard.getShard(), taken);
+                    remaining -= taken;
+                }
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            return true;
+        }
+
+        // Reliquat éventuel sur la ligne produit (mode local périmé ou incréments hors compartiments)
+        return productRepository.decrementStock(id, quantite) == 1;
+    }
+
+    /**
+     * Verrouille les compartiments puis le produit (même ordre que les décréments), supprime
+     * les compartiments et retourne le stock total.
+     */
+    private int lockAndDrain(Long id) {
+        List<ProductStockShard> locked = shardRepository.findAllByProductIdForUpdate(id);
+        productRepository.lockById(id).orElseThrow(() -> new ProductNotFoundException(id));
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+
+        // Partitionné entre-temps par une autre transaction : ses compartiments sont désormais visibles
+        if (product.hasStockShards() && locked.isEmpty()) {
+            locked = shardRepository.findAllByProductIdForUpdate(id);
+        }
+
+        int total = product.getQuantiteStock() + locked.stream().mapToInt(ProductStockShard::getQuantite).sum();
+        if (!locked.isEmpty()) {
+            shardRepository.deleteByProductId(id);
+        }
+        return total;
+    }
+
+    /**
+     * Compte les décréments en cours ; retourne vrai quand le produit vient de franchir le seuil de bascule.
+     * Chaque demande d'un lot est contendue si, avec les demandes qui la précèdent, au moins
+     * {@code contention-threshold} décréments du produit sont déjà en cours.
+     */
+    private boolean beginDecrement(Long id, int requests) {
+        if (!properties.isAutoEnabled() || knownShards.containsKey(id)) {
+            return false;
+        }
+
+        long windowNanos = properties.getWindow().toNanos();
+        boolean[] crossed = {false};
+        contention.compute(id, (key, current) -> {
+            Contention c = current != null ? current : new Contention();
+            int contended = Math.min(requests, c.inFlight + requests - properties.getContentionThreshold());
+            if (contended > 0) {
+                long now = System.nanoTime();
+                if (now - c.windowStart > windowNanos) {
+                    c.windowStart = now;
+                    c.contended = 0;
+                }
+                int before = c.contended;
+                c.contended += contended;
+                crossed[0] = before < properties.getTriggerCount() && c.contended >= properties.getTriggerCount();
+            }
+            c.inFlight += requests;
+            return c;
+        });
+        return crossed[0] && pendingSwitches.add(id);
+    }
+
+    private void endDecrement(Long id, int requests) {
+        long windowNanos = properties.getWindow().toNanos();
+        contention.computeIfPresent(id, (key, c) ->
+                (c.inFlight -= requests) == 0 && System.nanoTime() - c.windowStart > windowNanos ? null : c);
+    }
+
+    /**
+     * Bascule le produit une fois la transaction courante terminée, dans sa propre transaction :
+     * la transaction courante détient peut-être déjà le verrou de la ligne produit.
+     */
+    private void scheduleSharding(Long id) {
+        Runnable enable = () -> {
+            try {
+                requiresNew.executeWithoutResult(status -> {
+                    if (productRepository.findStockShardsById(id).orElse(0) == 0) {
+                        enable(id, properties.getShardCount());
+                    }
+                });
+                contention.remove(id);
+            } catch (RuntimeException e) {
+                logger.warn("Bascule du produit ID {} en stock partitionné impossible: {}", id, e.getMessage());
+            } finally {
+                pendingSwitches.remove(id);
+            }
+        };
+
+        logger.info("Contention détectée sur le stock du produit ID {}, bascule en stock partitionné", id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    enable.run();
+                }
+            });
+        } else {
+            enable.run();
+        }
+    }
+
+    private boolean recorded(Long id, boolean applied) {
+        if (applied) {
+            changes.record(id, ChangeType.STOCK);
+        }
+        return applied;
+    }
+
+    private static int randomShard(int shards) {
+        return ThreadLocalRandom.current().nextInt(shards);
+    }
+
+    /**
+     * Part du compartiment {@code index} quand {@code total} est réparti sur {@code shards} compartiments.
+     */
+    private static int share(int total, int shards, int index) {
+        return total / shards + (index < total % shards ? 1 : 0);
+    }
+
+    /**
+     * Décréments en cours et décréments contendus dans la fenêtre courante, pour un produit.
+     * Modifié uniquement sous le verrou de la map (compute).
+     */
+    private static final class Contention {
+        int inFlight;
+        int contended;
+        long windowStart;
+    }
+}
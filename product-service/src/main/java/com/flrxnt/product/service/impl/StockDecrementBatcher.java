@@ -0,0 +1,268 @@
+package com.flrxnt.product.service.impl;
+
+import com.flrxnt.product.config.StockBatchingProperties;
+import com.flrxnt.product.entity.Product;
+import com.flrxnt.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regroupe les décréments de stock concurrents d'un même produit.
+ *
+ * Les demandes arrivées pendant la fenêtre configurée (ou jusqu'à la taille maximale de lot) sont
+ * appliquées ensemble, dans une seule transaction, par un décrément conditionnel de leur somme.
+ * Si le stock ne couvre pas le lot entier, les demandes sont servies dans leur ordre d'arrivée
+ * tant que le stock le permet : chaque appelant reçoit son propre résultat. Chaque demande d'un
+ * lot compte comme un décrément simultané dans la détection de contention du stock partitionné.
+ *
+ * Le résultat n'est rendu aux appelants qu'après le commit du lot ; l'appelant ne doit donc pas
+ * détenir de transaction pendant l'attente (il monopoliserait une connexion dont le lot a besoin).
+ * L'attente est bornée : une demande qu'aucun lot n'a prise en charge dans la fenêtre plus le
+ * délai de transaction est abandonnée sans effet sur le stock, et la transaction d'un lot est
+ * elle-même limitée à ce délai.
+ */
+@Component
+class StockDecrementBatcher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockDecrementBatcher.class);
+
+    private final ShardedStock shardedStock;
+    private final ProductRepository productRepository;
+    private final StockBatchingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService flusher;
+    private final DistributionSummary batchSizes;
+    private final Counter partialBatches;
+
+    // Lot ouvert de chaque produit, remplacé dès qu'il est fermé
+    private final ConcurrentMap<Long, Batch> openBatches = new ConcurrentHashMap<>();
+
+    StockDecrementBatcher(ShardedStock shardedStock,
+                          ProductRepository productRepository,
+                          StockBatchingProperties properties,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.shardedStock = shardedStock;
+        this.productRepository = productRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout((int) Math.max(1, properties.getTransactionTimeout().toSeconds()));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.flusher = Executors.newScheduledThreadPool(Math.max(1, properties.getFlushThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "stock-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.batchSizes = DistributionSummary.builder("product.stock.decrement.batch.size")
+                .description("Nombre de décréments appliqués par lot")
+                .baseUnit("requests")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.partialBatches = Counter.builder("product.stock.decrement.batch.partial")
+                .description("Lots dont une partie des décréments a été refusée faute de stock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Décrémente le stock d'un produit, regroupé avec les décréments concurrents du même produit
+     * si le regroupement est activé. Bloque jusqu'au commit du lot, au plus la fenêtre plus deux
+     * fois le délai de transaction.
+     *
+     * @return false si le stock est insuffisant ou si le produit n'existe pas
+     */
+    boolean decrement(Long id, int quantite) {
+        if (!properties.isEnabled()) {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> shardedStock.decrement(id, quantite)));
+        }
+
+        Request request = new Request(quantite);
+        enqueue(id, request);
+        return await(id, request);
+    }
+
+    private boolean await(Long id, Request request) {
+        long transactionTimeout = properties.getTransactionTimeout().toNanos();
+        try {
+            try {
+                return request.result.get(properties.getWindow().toNanos() + transactionTimeout, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (request.take()) {
+                    // Aucun lot ne l'a prise en charge : abandonnée sans effet sur le stock
+                    throw new IllegalStateException(
+                            "Décrément du stock du produit ID " + id + " non appliqué dans le délai imparti");
+                }
+                // Lot en cours d'application : attente bornée par le délai de sa transaction
+                return request.result.get(transactionTimeout, TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            logger.error("Lot de décréments du produit ID {} sans résultat après le délai de transaction", id);
+            throw new IllegalStateException("Résultat du décrément du stock du produit ID " + id + " inconnu", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente du décrément du stock du produit ID " + id + " interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Échec du décrément du stock du produit ID " + id, e.getCause());
+        }
+    }
+
+    private void enqueue(Long id, Request request) {
+        int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        Batch[] opened = {null};
+        Batch[] full = {null};
+
+        openBatches.compute(id, (key, current) -> {
+            Batch batch = current;
+            if (batch == null) {
+                batch = new Batch();
+                opened[0] = batch;
+            }
+            batch.requests.add(request);
+            if (batch.requests.size() >= maxBatchSize) {
+                // Lot complet : fermé tout de suite, la demande suivante en ouvre un nouveau
+                full[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+
+        try {
+            if (full[0] != null) {
+                flusher.execute(() -> flush(id, full[0]));
+            } else if (opened[0] != null) {
+                Batch batch = opened[0];
+                flusher.schedule(() -> {
+                    openBatches.remove(id, batch);
+                    flush(id, batch);
+                }, properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // Arrêt en cours : le lot ne sera jamais appliqué, ses demandes échouent sans attendre
+            Batch batch = full[0] != null ? full[0] : opened[0];
+            openBatches.remove(id, batch);
+            batch.flushed.set(true);
+            IllegalStateException failure = new IllegalStateException(
+                    "Regroupement des décréments arrêté, décrément du produit ID " + id + " non appliqué", e);
+            batch.requests.stream().filter(Request::take).forEach(pending -> pending.result.completeExceptionally(failure));
+        }
+    }
+
+    private void flush(Long id, Batch batch) {
+        // Un lot complet est fermé avant l'échéance de sa fenêtre : il ne doit être appliqué qu'une fois
+        if (!batch.flushed.compareAndSet(false, true)) {
+            return;
+        }
+
+        // Demandes abandonnées par leur appelant (délai dépassé) exclues du lot
+        List<Request> requests = batch.requests.stream().filter(Request::take).toList();
+        if (requests.isEmpty()) {
+            return;
+        }
+        batchSizes.record(requests.size());
+        try {
+            boolean[] granted = transactionTemplate.execute(status -> apply(id, requests));
+            for (int i = 0; i < requests.size(); i++) {
+                requests.get(i).result.complete(granted[i]);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Échec de l'application d'un lot de {} décréments pour le produit ID {}: {}",
+                       requests.size(), id, e.getMessage());
+            requests.forEach(request -> request.result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Applique un lot dans la transaction courante et retourne le résultat de chaque demande.
+     */
+    private boolean[] apply(Long id, List<Request> requests) {
+        boolean[] granted = new boolean[requests.size()];
+        long total = requests.stream().mapToLong(request -> request.quantite).sum();
+
+        // Cas courant : le stock couvre le lot entier, une seule instruction conditionnelle
+        if (total <= Integer.MAX_VALUE && shardedStock.decrement(id, (int) total, requests.size())) {
+            Arrays.fill(granted, true);
+            return granted;
+        }
+        if (requests.size() == 1) {
+            return granted;
+        }
+
+        partialBatches.increment();
+
+        // Stock insuffisant pour le lot : demandes servies dans l'ordre d'arrivée selon le stock lu
+        int available = productRepository.findById(id).map(Product::getStockDisponible).orElse(0);
+        long selected = 0;
+        int selectedRequests = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            int quantite = requests.get(i).quantite;
+            if (selected + quantite <= available) {
+                selected += quantite;
+                selectedRequests++;
+                granted[i] = true;
+            }
+        }
+        if (selected == 0 || shardedStock.decrement(id, (int) selected, selectedRequests)) {
+            return granted;
+        }
+
+        // Stock modifié entre la lecture et le décrément : application demande par demande
+        for (int i = 0; i < requests.size(); i++) {
+            granted[i] = shardedStock.decrement(id, requests.get(i).quantite);
+        }
+        return granted;
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+    }
+
+    private static final class Request {
+        final int quantite;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        // Prise en charge exclusive : par un lot, ou par l'appelant qui l'abandonne
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        Request(int quantite) {
+            this.quantite = quantite;
+        }
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Demandes d'un lot ; la liste n'est modifiée que sous le verrou de la map (compute), avant fermeture.
+     */
+    private static final class Batch {
+        final List<Request> requests = new ArrayList<>();
+        final AtomicBoolean flushed = new AtomicBoolean();
+    }
+}
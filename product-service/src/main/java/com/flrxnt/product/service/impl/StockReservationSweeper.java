@@ -0,0 +1,43 @@
+package com.flrxnt.product.service.impl;
+
+import com.flrxnt.product.config.StockReservationProperties;
+import com.flrxnt.product.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Balayage périodique des réservations de stock expirées : leur stock est restitué par lots,
+ * chaque lot dans sa propre transaction pour ne pas garder les verrous des produits trop longtemps.
+ */
+@Component
+class StockReservationSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationSweeper.class);
+
+    // Nombre maximal de lots par balayage, le reliquat attend le balayage suivant
+    private static final int MAX_BATCHES_PER_SWEEP = 50;
+
+    private final ProductService productService;
+    private final StockReservationProperties properties;
+
+    StockReservationSweeper(ProductService productService, StockReservationProperties properties) {
+        this.productService = productService;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.business.stock.reservation.sweep-interval:30s}")
+    void releaseExpiredReservations() {
+        int batchSize = Math.max(1, properties.getSweepBatchSize());
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_SWEEP; i++) {
+                if (productService.releaseExpiredReservations(batchSize) < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Échec du balayage des réservations de stock expirées: {}", e.getMessage());
+        }
+    }
+}
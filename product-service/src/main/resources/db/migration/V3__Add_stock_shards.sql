@@ -0,0 +1,18 @@
+-- Migration V3: Stock partitionné pour les produits très demandés
+-- Auteur: Product Service Team
+-- Date: 2026-10-16
+-- Description: Ajout des compartiments de stock (shards) permettant de répartir les décréments
+--              d'un même produit sur plusieurs lignes (compatible H2 et PostgreSQL)
+
+-- Nombre de compartiments du produit (0 = stock porté par products.quantite_stock)
+ALTER TABLE products ADD COLUMN stock_shards INTEGER NOT NULL DEFAULT 0;
+
+-- Compartiments de stock : le stock d'un produit partitionné est la somme de ses compartiments
+CREATE TABLE product_stock_shards (
+    product_id BIGINT NOT NULL,
+    shard INTEGER NOT NULL,
+    quantite INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, shard),
+    CONSTRAINT fk_stock_shards_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    CONSTRAINT chk_stock_shards_quantite CHECK (quantite >= 0)
+);
@@ -0,0 +1,29 @@
+-- Migration V4: Réservations de stock avec expiration
+-- Auteur: Product Service Team
+-- Date: 2026-10-16
+-- Description: Registre des réservations de stock des commandes en attente. Le stock réservé est
+--              déjà décompté de products.quantite_stock (ou des compartiments) : une réservation
+--              expirée ou libérée le réincrémente (compatible H2 et PostgreSQL)
+
+CREATE TABLE stock_reservations (
+    id VARCHAR(36) PRIMARY KEY,
+    statut VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    date_expiration TIMESTAMP NOT NULL,
+    date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    date_modification TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_stock_reservations_statut CHECK (statut IN ('ACTIVE', 'CONFIRMEE', 'LIBEREE', 'EXPIREE'))
+);
+
+-- Lignes d'une réservation, une par produit (pas de clé étrangère vers products :
+-- un produit supprimé ne doit pas empêcher de solder la réservation)
+CREATE TABLE stock_reservation_lines (
+    reservation_id VARCHAR(36) NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantite INTEGER NOT NULL,
+    PRIMARY KEY (reservation_id, product_id),
+    CONSTRAINT fk_reservation_lines_reservation FOREIGN KEY (reservation_id) REFERENCES stock_reservations(id) ON DELETE CASCADE,
+    CONSTRAINT chk_reservation_lines_quantite CHECK (quantite > 0)
+);
+
+-- Recherche des réservations actives expirées par le balayage périodique
+CREATE INDEX idx_stock_reservations_statut_expiration ON stock_reservations (statut, date_expiration);
@@ -0,0 +1,18 @@
+-- Migration V5: Journal des changements de produits
+-- Auteur: Product Service Team
+-- Date: 2026-10-16
+-- Description: Séquence croissante des écritures sur les produits, lue par les consommateurs
+--              pour invalider leurs caches (compatible H2 et PostgreSQL)
+
+-- Pas de clé étrangère vers products : la suppression d'un produit est elle-même un changement.
+-- ANNULATION : numéro d'une transaction annulée, franchi immédiatement par les lecteurs
+CREATE TABLE product_changes (
+    seq BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    date_changement TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_product_changes_type CHECK (type IN ('CREATION', 'MODIFICATION', 'STOCK', 'SUPPRESSION', 'ANNULATION'))
+);
+
+-- Purge des changements anciens
+CREATE INDEX idx_product_changes_date ON product_changes (date_changement);
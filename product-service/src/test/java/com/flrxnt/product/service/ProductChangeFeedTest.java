@@ -0,0 +1,181 @@
+package com.flrxnt.product.service;
+
+import com.flrxnt.product.dto.ProductChangeDTO;
+import com.flrxnt.product.dto.ProductChangesDTO;
+import com.flrxnt.product.dto.ProductCreateDTO;
+import com.flrxnt.product.entity.ProductChange.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Journal des changements de produits : fusion des changements d'un même produit,
+ * numéros manquants (transaction lente ou annulée) et réveil des requêtes en long-poll au commit.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.business.stock.batching.enabled=false",
+        "app.business.changes.gap-grace=300ms"
+})
+@ActiveProfiles("test")
+class ProductChangeFeedTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeService productChangeService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void changesOfSameProductAreCoalesced() {
+        long head = head();
+        Long productId = createProduct("fusion", 10);
+        productService.decrementStock(productId, 2);
+        productService.incrementStock(productId, 5);
+
+        ProductChangesDTO page = productChangeService.getChanges(head, 100);
+
+        assertThat(page.getChanges()).singleElement().satisfies(change -> {
+            assertThat(change.getProductId()).isEqualTo(productId);
+            assertThat(change.getType()).isEqualTo(ChangeType.STOCK);
+        });
+        assertThat(page.getNextSeq()).isEqualTo(head + 3);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(productChangeService.getChanges(page.getNextSeq(), 100).getChanges()).isEmpty();
+    }
+
+    @Test
+    void pagesFollowSequence() {
+        long head = head();
+        Long first = createProduct("page 1", 1);
+        Long second = createProduct("page 2", 1);
+
+        ProductChangesDTO page = productChangeService.getChanges(head, 1);
+        assertThat(page.getChanges()).extracting(ProductChangeDTO::getProductId).containsExactly(first);
+        assertThat(page.isHasMore()).isTrue();
+
+        page = productChangeService.getChanges(page.getNextSeq(), 1);
+        assertThat(page.getChanges()).extracting(ProductChangeDTO::getProductId).containsExactly(second);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void waitingReaderIsWokenByCommit() throws Exception {
+        long head = head();
+        CompletableFuture<ProductChangesDTO> pending = productChangeService.awaitChanges(head, 100, Duration.ofSeconds(10));
+        assertThat(pending).isNotDone();
+
+        Long productId = createProduct("long-poll", 1);
+
+        ProductChangesDTO page = pending.get(5, TimeUnit.SECONDS);
+        assertThat(page.getChanges()).extracting(ProductChangeDTO::getProductId).containsExactly(productId);
+        assertThat(page.getChanges()).extracting(ProductChangeDTO::getType).containsExactly(ChangeType.CREATION);
+    }
+
+    @Test
+    void waitingReaderTimesOutWithEmptyPage() throws Exception {
+        long head = head();
+        ProductChangesDTO page = productChangeService.awaitChanges(head, 100, Duration.ofMillis(200))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(page.getChanges()).isEmpty();
+        assertThat(page.getNextSeq()).isEqualTo(head);
+    }
+
+    @Test
+    void slowTransactionHoldingLowerSeqIsNotSkippedAfterGapGrace() throws Exception {
+        Long slowProduct = createProduct("transaction lente", 10);
+        Long fastProduct = createProduct("transaction rapide", 10);
+        long head = head();
+
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Numéro le plus bas attribué à une transaction qui reste ouverte au-delà de gap-grace
+            Future<?> slow = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                productService.incrementStock(slowProduct, 1);
+                recorded.countDown();
+                await(release);
+            }));
+            assertThat(recorded.await(5, TimeUnit.SECONDS)).isTrue();
+            productService.incrementStock(fastProduct, 1);
+
+            ProductChangesDTO page = productChangeService.getChanges(head, 100);
+            assertThat(page.getChanges()).isEmpty();
+            Thread.sleep(600);
+            page = productChangeService.getChanges(head, 100);
+            assertThat(page.getChanges()).isEmpty();
+            assertThat(page.isReset()).isFalse();
+            assertThat(page.getNextSeq()).isEqualTo(head);
+
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        ProductChangesDTO page = productChangeService.getChanges(head, 100);
+        assertThat(page.getChanges()).extracting(ProductChangeDTO::getProductId)
+                .containsExactly(slowProduct, fastProduct);
+        assertThat(page.isReset()).isFalse();
+    }
+
+    @Test
+    void rolledBackChangeDoesNotStallTheFeed() {
+        Long rolledBack = createProduct("annulé", 10);
+        Long committed = createProduct("validé", 10);
+        long head = head();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.incrementStock(rolledBack, 1);
+            status.setRollbackOnly();
+        });
+        productService.incrementStock(committed, 1);
+
+        // Sans attendre gap-grace : le numéro annulé est occupé dès le rollback
+        ProductChangesDTO page = productChangeService.getChanges(head, 100);
+        assertThat(page.getChanges()).extracting(ProductChangeDTO::getProductId).containsExactly(committed);
+        assertThat(page.isReset()).isFalse();
+        assertThat(page.getNextSeq()).isEqualTo(head + 2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long head() {
+        ProductChangesDTO page = productChangeService.getChanges(0, 1000);
+        while (page.isHasMore()) {
+            page = productChangeService.getChanges(page.getNextSeq(), 1000);
+        }
+        return page.getNextSeq();
+    }
+
+    private Long createProduct(String label, int stock) {
+        return productService.createProduct(new ProductCreateDTO(
+                "Produit journalisé " + label, "Journal", new BigDecimal("10.00"), stock, "Test")).getId();
+    }
+}
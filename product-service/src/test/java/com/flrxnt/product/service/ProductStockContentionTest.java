@@ -0,0 +1,180 @@
+package com.flrxnt.product.service;
+
+import com.flrxnt.product.dto.ProductCreateDTO;
+import com.flrxnt.product.entity.Product;
+import com.flrxnt.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Banc de contention sur un produit très demandé : nombreux threads décrémentant le même stock.
+ *
+ * Compare l'ancien schéma lecture-modification-écriture (findById, mutation, save) au
+ * décrément conditionnel en une seule instruction utilisé par {@link ProductService}, sur une
+ * seule ligne puis sur un stock partitionné. La bascule automatique et le regroupement des
+ * décréments sont désactivés pour que chaque mode soit mesuré isolément.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.business.stock.sharding.auto-enabled=false",
+        "app.business.stock.batching.enabled=false"
+})
+@ActiveProfiles("test")
+class ProductStockContentionTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductStockContentionTest.class);
+
+    private static final int THREADS = 16;
+    private static final int DECREMENTS_PER_THREAD = 50;
+    private static final int INITIAL_STOCK = THREADS * DECREMENTS_PER_THREAD * 2;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void atomicDecrementLosesNoUpdateOnHotProduct() throws Exception {
+        Long productId = createHotProduct("atomic");
+
+        long elapsedNanos = runConcurrently(id -> productService.decrementStock(id, 1), productId);
+
+        int expected = INITIAL_STOCK - THREADS * DECREMENTS_PER_THREAD;
+        int actual = productRepository.findById(productId).orElseThrow().getQuantiteStock();
+        report("décrément atomique", elapsedNanos, expected, actual);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void atomicDecrementNeverOversells() throws Exception {
+        int stock = THREADS * DECREMENTS_PER_THREAD / 2;
+        Long productId = productService.createProduct(
+                new ProductCreateDTO("Produit rare", "Banc de contention", new BigDecimal("10.00"), stock, "Test")).getId();
+
+        runConcurrently(id -> {
+            try {
+                productService.decrementStock(id, 1);
+            } catch (RuntimeException e) {
+                // Stock épuisé : attendu pour la moitié des tentatives
+            }
+        }, productId);
+
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantiteStock()).isZero();
+    }
+
+    @Test
+    void shardedDecrementLosesNoUpdateOnHotProduct() throws Exception {
+        Long productId = createHotProduct("partitionné");
+        productService.enableStockSharding(productId, 8);
+
+        long elapsedNanos = runConcurrently(id -> productService.decrementStock(id, 1), productId);
+
+        int expected = INITIAL_STOCK - THREADS * DECREMENTS_PER_THREAD;
+        int actual = productService.getProductById(productId).getQuantiteStock();
+        report("stock partitionné", elapsedNanos, expected, actual);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void shardedDecrementNeverOversells() throws Exception {
+        int stock = THREADS * DECREMENTS_PER_THREAD / 2;
+        Long productId = productService.createProduct(
+                new ProductCreateDTO("Produit rare partitionné", "Banc de contention", new BigDecimal("10.00"), stock, "Test")).getId();
+        productService.enableStockSharding(productId, 8);
+
+        // Décréments de 3 : une partie ne tient dans aucun compartiment seul et passe par le prélèvement réparti
+        runConcurrently(id -> {
+            try {
+                productService.decrementStock(id, 3);
+            } catch (RuntimeException e) {
+                // Stock épuisé
+            }
+        }, productId);
+
+        assertThat(productService.getProductById(productId).getQuantiteStock()).isBetween(0, 2);
+    }
+
+    @Test
+    void readModifyWriteBaseline() throws Exception {
+        Long productId = createHotProduct("lecture-écriture");
+
+        long elapsedNanos = runConcurrently(id -> transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(id).orElseThrow();
+            product.decrementStock(1);
+            productRepository.save(product);
+        }), productId);
+
+        int expected = INITIAL_STOCK - THREADS * DECREMENTS_PER_THREAD;
+        int actual = productRepository.findById(productId).orElseThrow().getQuantiteStock();
+        report("lecture-modification-écriture", elapsedNanos, expected, actual);
+
+        // Référence uniquement : sans @Version, des mises à jour peuvent être perdues
+        assertThat(actual).isGreaterThanOrEqualTo(expected);
+    }
+
+    private Long createHotProduct(String label) {
+        return productService.createProduct(new ProductCreateDTO(
+                "Produit très demandé " + label, "Banc de contention", new BigDecimal("10.00"), INITIAL_STOCK, "Test")).getId();
+    }
+
+    private long runConcurrently(LongConsumer decrement, Long productId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DECREMENTS_PER_THREAD; i++) {
+                        decrement.accept(productId);
+                    }
+                    return null;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - startedAt;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Le débit utile ne compte que les décréments réellement visibles en base, hors mises à jour perdues.
+     */
+    private void report(String mode, long elapsedNanos, int expected, int actual) {
+        int operations = THREADS * DECREMENTS_PER_THREAD;
+        int lost = actual - expected;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        logger.info("Contention [{}] : {} décréments / {} threads en {} ms, {} op/s, mises à jour perdues: {}, débit utile: {} op/s",
+                mode, operations, THREADS, Math.round(seconds * 1000), Math.round(operations / seconds),
+                lost, Math.round((operations - lost) / seconds));
+    }
+}
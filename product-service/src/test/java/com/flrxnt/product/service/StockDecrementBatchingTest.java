@@ -0,0 +1,123 @@
+package com.flrxnt.product.service;
+
+import com.flrxnt.product.dto.ProductCreateDTO;
+import com.flrxnt.product.exception.InsufficientStockException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Décréments concurrents d'un produit très demandé, regroupés en lots.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.business.stock.sharding.auto-enabled=false",
+        "app.business.stock.batching.enabled=true",
+        "app.business.stock.batching.window=5ms",
+        "app.business.stock.batching.max-batch-size=16"
+})
+@ActiveProfiles("test")
+class StockDecrementBatchingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockDecrementBatchingTest.class);
+
+    private static final int THREADS = 16;
+    private static final int DECREMENTS_PER_THREAD = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void batchedDecrementLosesNoUpdateOnHotProduct() throws Exception {
+        int operations = THREADS * DECREMENTS_PER_THREAD;
+        Long productId = createProduct("sans perte", operations * 2);
+        DistributionSummary batchSizes = meterRegistry.get("product.stock.decrement.batch.size").summary();
+        long batchesBefore = batchSizes.count();
+        double requestsBefore = batchSizes.totalAmount();
+
+        long startedAt = System.nanoTime();
+        runConcurrently(() -> productService.decrementStock(productId, 1));
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        long batches = batchSizes.count() - batchesBefore;
+        double requests = batchSizes.totalAmount() - requestsBefore;
+        logger.info("Contention [décréments regroupés] : {} décréments / {} threads en {} ms, {} op/s, {} lots (taille moyenne {})",
+                operations, THREADS, Math.round(seconds * 1000), Math.round(operations / seconds),
+                batches, String.format("%.1f", requests / batches));
+
+        assertThat(productService.getProductById(productId).getQuantiteStock()).isEqualTo(operations);
+        assertThat(requests).isEqualTo(operations);
+        assertThat(batches).isLessThan(operations);
+    }
+
+    @Test
+    void batchedDecrementGrantsWhatStockAllowsAndNeverOversells() throws Exception {
+        // Stock non multiple de la quantité : le dernier lot servi n'est que partiellement accordé
+        int stock = THREADS * DECREMENTS_PER_THREAD + 1;
+        Long productId = createProduct("stock limité", stock);
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        runConcurrently(() -> {
+            try {
+                productService.decrementStock(productId, 3);
+                granted.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                refused.incrementAndGet();
+            }
+        });
+
+        int remaining = productService.getProductById(productId).getQuantiteStock();
+        assertThat(remaining).isBetween(0, 2);
+        assertThat(stock - remaining).isEqualTo(granted.get() * 3);
+        assertThat(granted.get() + refused.get()).isEqualTo(THREADS * DECREMENTS_PER_THREAD);
+    }
+
+    private Long createProduct(String label, int stock) {
+        return productService.createProduct(new ProductCreateDTO(
+                "Produit très demandé regroupé " + label, "Décréments regroupés", new BigDecimal("10.00"), stock, "Test")).getId();
+    }
+
+    private void runConcurrently(Runnable decrement) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DECREMENTS_PER_THREAD; i++) {
+                        decrement.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
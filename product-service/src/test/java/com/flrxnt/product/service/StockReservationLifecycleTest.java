@@ -0,0 +1,89 @@
+package com.flrxnt.product.service;
+
+import com.flrxnt.product.dto.ProductCreateDTO;
+import com.flrxnt.product.dto.StockReservationDTO;
+import com.flrxnt.product.dto.StockReservationLineDTO;
+import com.flrxnt.product.dto.StockReservationResultDTO;
+import com.flrxnt.product.entity.StockReservation.ReservationStatus;
+import com.flrxnt.product.exception.StockReservationStateException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cycle de vie des réservations de stock : confirmation, libération et expiration.
+ * Durée de validité nulle : toute réservation non confirmée est immédiatement expirée,
+ * le balayage est déclenché explicitement.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.business.stock.reservation.ttl=0s",
+        "app.business.stock.reservation.sweep-interval=1h"
+})
+@ActiveProfiles("test")
+class StockReservationLifecycleTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void expiredReservationIsReleasedOnceBySweep() {
+        Long productId = createProduct("expiration", 10);
+        StockReservationResultDTO reservation = reserve(productId, 4);
+        assertThat(reservation.getStatut()).isEqualTo(ReservationStatus.ACTIVE);
+        assertThat(stockOf(productId)).isEqualTo(6);
+
+        productService.releaseExpiredReservations(100);
+        productService.releaseExpiredReservations(100);
+
+        assertThat(stockOf(productId)).isEqualTo(10);
+        assertThatThrownBy(() -> productService.confirmReservation(reservation.getReservationId()))
+                .isInstanceOf(StockReservationStateException.class);
+        // Libération après expiration : sans effet sur le stock
+        productService.releaseReservation(reservation.getReservationId());
+        assertThat(stockOf(productId)).isEqualTo(10);
+    }
+
+    @Test
+    void confirmedReservationKeepsStockUntilReleased() {
+        Long productId = createProduct("confirmation", 10);
+        StockReservationResultDTO reservation = reserve(productId, 3);
+
+        StockReservationResultDTO confirmed = productService.confirmReservation(reservation.getReservationId());
+        productService.confirmReservation(reservation.getReservationId());
+        productService.releaseExpiredReservations(100);
+
+        assertThat(confirmed.getStatut()).isEqualTo(ReservationStatus.CONFIRMEE);
+        assertThat(stockOf(productId)).isEqualTo(7);
+
+        StockReservationResultDTO released = productService.releaseReservation(reservation.getReservationId());
+        productService.releaseReservation(reservation.getReservationId());
+
+        assertThat(released.getStatut()).isEqualTo(ReservationStatus.LIBEREE);
+        assertThat(stockOf(productId)).isEqualTo(10);
+    }
+
+    private Long createProduct(String label, int stock) {
+        return productService.createProduct(new ProductCreateDTO(
+                "Produit réservé " + label, "Réservations", new BigDecimal("10.00"), stock, "Test")).getId();
+    }
+
+    private StockReservationResultDTO reserve(Long productId, int quantite) {
+        StockReservationResultDTO result = productService.reserveStock(
+                new StockReservationDTO(List.of(new StockReservationLineDTO(productId, quantite))));
+        assertThat(result.isAppliquee()).isTrue();
+        assertThat(result.getReservationId()).isNotBlank();
+        return result;
+    }
+
+    private int stockOf(Long productId) {
+        return productService.getProductById(productId).getQuantiteStock();
+    }
+}
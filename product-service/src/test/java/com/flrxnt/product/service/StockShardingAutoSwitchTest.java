@@ -0,0 +1,71 @@
+package com.flrxnt.product.service;
+
+import com.flrxnt.product.dto.ProductCreateDTO;
+import com.flrxnt.product.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bascule automatique en stock partitionné d'un produit dont les décréments se concurrencent,
+ * avec le regroupement des décréments et le seuil de contention par défaut.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.business.stock.sharding.auto-enabled=true",
+        "app.business.stock.sharding.shard-count=4",
+        "app.business.stock.sharding.trigger-count=5"
+})
+@ActiveProfiles("test")
+class StockShardingAutoSwitchTest {
+
+    private static final int THREADS = 16;
+    private static final int DECREMENTS_PER_THREAD = 50;
+    private static final int INITIAL_STOCK = 2000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void contendedProductSwitchesToShardedStockWithoutLosingUnits() throws Exception {
+        Long productId = productService.createProduct(new ProductCreateDTO(
+                "Produit vente flash", "Bascule automatique", new BigDecimal("10.00"), INITIAL_STOCK, "Test")).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DECREMENTS_PER_THREAD; i++) {
+                        productService.decrementStock(productId, 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ProductDTO product = productService.getProductById(productId);
+        assertThat(product.getStockShards()).isEqualTo(4);
+        assertThat(product.getQuantiteStock()).isEqualTo(INITIAL_STOCK - THREADS * DECREMENTS_PER_THREAD);
+    }
+}